@@ -0,0 +1,187 @@
+package com.IssueTracker.bench;
+
+import com.IssueTracker.utils.DelegatingResultSet;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.Properties;
+import java.util.logging.Logger;
+
+// A JDBC driver that answers JdbcIssueRepository.BATCH_PAGE_QUERY from memory, so the JDBC scan can be
+// benchmarked through the real pool, statement cache and metrics wrappers without MySQL. Connections and
+// statements are dynamic proxies, which costs once per query; the rows come from a plain ResultSet that
+// allocates nothing per row, so whatever allocates per row in a run is the code between the repository
+// and the driver. Other statements fail.
+final class InMemoryScanDriver implements Driver {
+
+    static final String URL = "jdbc:inmemoryscan:";
+
+    private static final int COLUMNS = 6;
+    private static volatile InMemoryScanDriver registered;
+
+    // id, status code, priority code, created, updated, assignee; one row per issue id from 1
+    private volatile long[][] rows = new long[0][];
+
+    private InMemoryScanDriver() {
+    }
+
+    // Registers the driver once and points issuetracker.db.url at it; call before the pool first starts
+    static synchronized InMemoryScanDriver install() throws SQLException {
+        if (registered == null) {
+            registered = new InMemoryScanDriver();
+            DriverManager.registerDriver(registered);
+            System.setProperty("issuetracker.db.url", URL);
+        }
+        return registered;
+    }
+
+    void setRowCount(int count) {
+        long now = System.currentTimeMillis() / 1000;
+        long[][] table = new long[count][];
+        for (int i = 0; i < count; i++) {
+            table[i] = new long[] { i + 1, i % 4, i % 3, now - i, now, 1 + i % 100 };
+        }
+        rows = table;
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) {
+        if (!acceptsURL(url)) {
+            return null;
+        }
+        return proxy(Connection.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "isValid":
+                case "getAutoCommit":
+                    return true;
+                case "prepareStatement":
+                    return statement();
+                default:
+                    return null;
+            }
+        });
+    }
+
+    private PreparedStatement statement() {
+        int[] params = new int[3];
+        return proxy(PreparedStatement.class, (proxy, method, args) -> {
+            switch (method.getName()) {
+                case "setInt":
+                    params[(Integer) args[0]] = (Integer) args[1];
+                    return null;
+                case "executeQuery":
+                    return new Rows(rows, params[1], params[2]);
+                default:
+                    if (method.getName().startsWith("execute")) {
+                        throw new SQLFeatureNotSupportedException("Only the batch scan is served from memory");
+                    }
+                    return null;
+            }
+        });
+    }
+
+    // Rows with id > afterId, at most limit of them. Ids are dense from 1, so the first is at index afterId.
+    private static final class Rows extends DelegatingResultSet {
+        private final long[][] table;
+        private final int end;
+        private int position;
+
+        Rows(long[][] table, int afterId, int limit) {
+            super(null);
+            this.table = table;
+            this.position = afterId - 1;
+            this.end = Math.min(table.length, afterId + limit);
+        }
+
+        @Override
+        public boolean next() {
+            return ++position < end;
+        }
+
+        @Override
+        public int getInt(int columnIndex) {
+            return (int) column(columnIndex);
+        }
+
+        @Override
+        public byte getByte(int columnIndex) {
+            return (byte) column(columnIndex);
+        }
+
+        @Override
+        public long getLong(int columnIndex) {
+            return column(columnIndex);
+        }
+
+        @Override
+        public void close() {
+        }
+
+        private long column(int columnIndex) {
+            if (columnIndex < 1 || columnIndex > COLUMNS) {
+                throw new IllegalArgumentException("No column " + columnIndex);
+            }
+            return table[position][columnIndex - 1];
+        }
+    }
+
+    // Unhandled methods return null, or false/0 where the return type is primitive
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(InMemoryScanDriver.class.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "toString":
+                            return type.getSimpleName() + " in memory";
+                        default:
+                            Object result = handler.invoke(proxy, method, args);
+                            Class<?> returns = method.getReturnType();
+                            if (result != null || !returns.isPrimitive() || returns == void.class) {
+                                return result;
+                            }
+                            return returns == boolean.class ? Boolean.FALSE
+                                    : returns == long.class ? (Object) 0L : (Object) 0;
+                    }
+                }));
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+        return url.startsWith(URL);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+        return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+        return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+        return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+        return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+}
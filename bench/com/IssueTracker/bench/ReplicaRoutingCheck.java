@@ -0,0 +1,285 @@
+package com.IssueTracker.bench;
+
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.repository.CachingIssueRepository;
+import com.IssueTracker.repository.IssueRepository;
+import com.IssueTracker.repository.JdbcIssueRepository;
+import com.IssueTracker.utils.DBConnection;
+import com.IssueTracker.utils.PoolConfig;
+import com.IssueTracker.utils.RoutingStats;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Logger;
+
+// Checks read routing against a primary and a replica held in memory, no MySQL needed:
+//
+//   java -cp target/benchmarks.jar com.IssueTracker.bench.ReplicaRoutingCheck
+//
+// The two databases hold issue 1 with different titles, so the title a read returns shows where it ran.
+// Covers read-your-writes per thread and per bound session, the window running out, cache misses going to
+// the primary, failover when the replica stops answering and its return after the health check. Each
+// check runs on fresh threads, the way separate console sessions or API requests would. Exits with 1 if
+// any check fails.
+public class ReplicaRoutingCheck {
+
+    private static final String URL_PREFIX = "jdbc:routingcheck:";
+    private static final String ON_PRIMARY = "on the primary";
+    private static final String ON_REPLICA = "on the replica";
+    private static final long READ_YOUR_WRITES_MILLIS = 300;
+    private static final long HEALTH_CHECK_MILLIS = 100;
+
+    private static final Map<String, FakeDatabase> DATABASES = new ConcurrentHashMap<>();
+    private static int failures;
+
+    public static void main(String[] args) throws Exception {
+        FakeDatabase primary = new FakeDatabase(ON_PRIMARY);
+        FakeDatabase replica = new FakeDatabase(ON_REPLICA);
+        DATABASES.put("primary", primary);
+        DATABASES.put("replica", replica);
+        for (int id = 1; id <= 4; id++) {
+            primary.issues.put(id, row(id, ON_PRIMARY));
+            replica.issues.put(id, row(id, ON_REPLICA));
+        }
+        DriverManager.registerDriver(new FakeDriver());
+        System.setProperty("issuetracker.db.url", URL_PREFIX + "primary");
+        System.setProperty("issuetracker.db.replicas", URL_PREFIX + "replica");
+        System.setProperty("issuetracker.db.readYourWritesMillis", String.valueOf(READ_YOUR_WRITES_MILLIS));
+        System.setProperty("issuetracker.db.replicaHealthCheckMillis", String.valueOf(HEALTH_CHECK_MILLIS));
+
+        IssueRepository issues = new JdbcIssueRepository();
+        try {
+            check("reads go to the replica", ON_REPLICA, onNewThread(() -> title(issues.findById(1))));
+            check("a thread reads the primary after it writes", ON_PRIMARY, onNewThread(() -> {
+                issues.delete(2);
+                return title(issues.findById(1));
+            }));
+            check("other threads still read the replica", ON_REPLICA, onNewThread(() -> title(issues.findById(1))));
+            onNewThread(() -> {
+                DBConnection.bindSession("client-1");
+                return issues.delete(3);
+            });
+            check("a bound session reads the primary on another thread", ON_PRIMARY, onNewThread(() -> {
+                DBConnection.bindSession("client-1");
+                try {
+                    return title(issues.findById(1));
+                } finally {
+                    DBConnection.unbindSession();
+                }
+            }));
+            check("reads return to the replica after the window", ON_REPLICA, onNewThread(() -> {
+                issues.delete(4);
+                Thread.sleep(READ_YOUR_WRITES_MILLIS + 100);
+                return title(issues.findById(1));
+            }));
+
+            IssueRepository cached = new CachingIssueRepository(issues, 100, 300);
+            check("a cache miss loads from the primary", ON_PRIMARY, onNewThread(() -> title(cached.findById(1))));
+            check("the cache holds the primary's row", ON_PRIMARY, onNewThread(() -> title(cached.findById(1))));
+
+            replica.down = true;
+            // Past the window in which a returned connection is handed out again without validation
+            Thread.sleep(new PoolConfig().getValidationBypassMillis() + 100);
+            check("a replica that is down fails over to the primary", ON_PRIMARY,
+                    onNewThread(() -> title(issues.findById(1))));
+            // Taken out by that read or by the health check, whichever noticed first
+            RoutingStats stats = DBConnection.getRoutingStatsIfStarted();
+            check("the replica is out of rotation", "0 healthy", stats.getHealthyReplicas() + " healthy");
+            replica.down = false;
+            Thread.sleep(HEALTH_CHECK_MILLIS * 3);
+            check("the health check puts the replica back", ON_REPLICA, onNewThread(() -> title(issues.findById(1))));
+            System.out.println(DBConnection.getRoutingStatsIfStarted());
+        } finally {
+            DBConnection.shutdown();
+        }
+        if (failures > 0) {
+            System.out.println(failures + " check(s) failed");
+            System.exit(1);
+        }
+        System.out.println("All checks passed");
+    }
+
+    private static void check(String name, String expected, String actual) {
+        if (expected.equals(actual)) {
+            System.out.println("ok    " + name);
+        } else {
+            failures++;
+            System.out.println("FAIL  " + name + ": expected \"" + expected + "\" but got \"" + actual + "\"");
+        }
+    }
+
+    private static <T> T onNewThread(Callable<T> work) throws Exception {
+        FutureTask<T> task = new FutureTask<>(work);
+        Thread thread = new Thread(task, "routing-check");
+        thread.start();
+        return task.get();
+    }
+
+    private static String title(Issue issue) {
+        return issue == null ? "no issue" : issue.getTitle();
+    }
+
+    private static Map<String, Object> row(int id, String title) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("title", title);
+        row.put("description", "");
+        row.put("status", "OPEN");
+        row.put("priority", "LOW");
+        row.put("created_at", now);
+        row.put("updated_at", now);
+        row.put("assignee_id", 1);
+        row.put("version", 0);
+        return row;
+    }
+
+    private static final class FakeDatabase {
+        final String name;
+        final Map<Integer, Map<String, Object>> issues = new ConcurrentHashMap<>();
+        // Refuses new connections, fails validation and fails statements on open ones
+        volatile boolean down;
+
+        FakeDatabase(String name) {
+            this.name = name;
+        }
+    }
+
+    // Understands just the statements these checks make: a lookup by id and a delete by id
+    private static final class FakeDriver implements Driver {
+
+        @Override
+        public Connection connect(String url, Properties info) throws SQLException {
+            if (!acceptsURL(url)) {
+                return null;
+            }
+            FakeDatabase db = DATABASES.get(url.substring(URL_PREFIX.length()));
+            if (db.down) {
+                throw new SQLException("Connection refused by " + db.name);
+            }
+            return proxy(Connection.class, db.name, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "isValid":
+                        return !db.down;
+                    case "getAutoCommit":
+                        return true;
+                    case "prepareStatement":
+                        return statement(db, (String) args[0]);
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        private static PreparedStatement statement(FakeDatabase db, String sql) {
+            Map<Integer, Object> params = new HashMap<>();
+            return proxy(PreparedStatement.class, sql, (proxy, method, args) -> {
+                String name = method.getName();
+                if (name.startsWith("set") && args != null && args.length == 2 && args[0] instanceof Integer) {
+                    params.put((Integer) args[0], args[1]);
+                    return null;
+                }
+                if (!name.startsWith("execute")) {
+                    return null;
+                }
+                if (db.down) {
+                    throw new SQLException("Lost connection to " + db.name);
+                }
+                if (name.equals("executeQuery") && sql.equals(JdbcIssueRepository.FIND_BY_ID_QUERY)) {
+                    Map<String, Object> row = db.issues.get(params.get(1));
+                    return resultSet(row == null ? List.of() : List.of(row));
+                }
+                if (name.equals("executeUpdate") && sql.startsWith("DELETE FROM issues WHERE id = ?")) {
+                    return db.issues.remove(params.get(1)) == null ? 0 : 1;
+                }
+                throw new SQLFeatureNotSupportedException("Not supported by the check: " + sql);
+            });
+        }
+
+        private static ResultSet resultSet(List<Map<String, Object>> rows) {
+            int[] position = { -1 };
+            return proxy(ResultSet.class, "rows", (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "next":
+                        return ++position[0] < rows.size();
+                    case "getInt":
+                        return ((Number) rows.get(position[0]).get((String) args[0])).intValue();
+                    case "getString":
+                    case "getTimestamp":
+                        return rows.get(position[0]).get((String) args[0]);
+                    default:
+                        return null;
+                }
+            });
+        }
+
+        // Unhandled methods return null, or false/0 where the return type is primitive
+        private static <T> T proxy(Class<T> type, String name, InvocationHandler handler) {
+            return type.cast(Proxy.newProxyInstance(ReplicaRoutingCheck.class.getClassLoader(), new Class<?>[] { type },
+                    (proxy, method, args) -> {
+                        switch (method.getName()) {
+                            case "equals":
+                                return proxy == args[0];
+                            case "hashCode":
+                                return System.identityHashCode(proxy);
+                            case "toString":
+                                return type.getSimpleName() + " " + name;
+                            default:
+                                Object result = handler.invoke(proxy, method, args);
+                                Class<?> returns = method.getReturnType();
+                                if (result != null || !returns.isPrimitive() || returns == void.class) {
+                                    return result;
+                                }
+                                return returns == boolean.class ? Boolean.FALSE
+                                        : returns == long.class ? (Object) 0L : (Object) 0;
+                        }
+                    }));
+        }
+
+        @Override
+        public boolean acceptsURL(String url) {
+            return url.startsWith(URL_PREFIX);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+            return new DriverPropertyInfo[0];
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return 1;
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return 0;
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return false;
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            throw new SQLFeatureNotSupportedException();
+        }
+    }
+}
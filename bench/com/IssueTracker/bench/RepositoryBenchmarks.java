@@ -0,0 +1,247 @@
+package com.IssueTracker.bench;
+
+import com.IssueTracker.models.Comment;
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssueBatch;
+import com.IssueTracker.models.IssuePatch;
+import com.IssueTracker.models.User;
+import com.IssueTracker.repository.CachingIssueRepository;
+import com.IssueTracker.repository.CommentRepository;
+import com.IssueTracker.repository.IssueRepository;
+import com.IssueTracker.repository.JdbcIssueRepository;
+import com.IssueTracker.repository.Repositories;
+import com.IssueTracker.service.IssueService;
+import com.IssueTracker.utils.DBConnection;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// JMH benchmarks of the repository and service hot paths at several data sizes.
+//
+//   mvn -Pbench package
+//   java -jar target/benchmarks.jar RepositoryBenchmarks -prof gc [-p rows=10000,100000]
+//
+// Rows default to 10000 100000 1000000. Each fork seeds a fresh embedded store; with
+// -jvmArgsAppend -Dissuetracker.storage=jdbc the configured MySQL database is seeded instead (use a scratch
+// schema). The JDBC batch scan always runs through the pool and the query metrics, with rows served from
+// memory by InMemoryScanDriver. -prof gc adds the bytes allocated per op.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RepositoryBenchmarks {
+
+    private static final String[] STATUSES = { "OPEN", "IN_PROGRESS", "RESOLVED", "CLOSED" };
+    private static final String[] PRIORITIES = { "HIGH", "MEDIUM", "LOW" };
+    private static final int USERS = 100;
+    private static final int PAGE_SIZE = 100;
+    private static final int SAVE_BATCH = 1000;
+    private static final int SCAN_PAGE = 1000;
+    private static final int HOT_SET = 10_000;
+
+    // A seeded store, the service over it and a cache in front of it
+    @State(Scope.Benchmark)
+    public static class Dataset {
+        @Param({ "10000", "100000", "1000000" })
+        public int rows;
+
+        Path logFile;
+        Repositories repositories;
+        IssueRepository issues;
+        CommentRepository comments;
+        IssueService service;
+        IssueRepository cached;
+        IssueBatch columns;
+
+        @Setup(Level.Trial)
+        public void seed() throws IOException {
+            boolean jdbc = "jdbc".equalsIgnoreCase(System.getProperty("issuetracker.storage", "embedded"));
+            logFile = jdbc ? null : Files.createTempFile("issue-tracker-bench", ".log");
+            repositories = jdbc ? Repositories.jdbc() : Repositories.embedded(logFile);
+            RepositoryBenchmarks.seed(repositories, rows);
+            issues = repositories.issues();
+            comments = repositories.comments();
+            service = new IssueService(issues, comments);
+            cached = new CachingIssueRepository(issues, HOT_SET, 300);
+            columns = new IssueBatch(SCAN_PAGE);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            repositories.close();
+            if (logFile != null) {
+                Files.deleteIfExists(logFile);
+            }
+            DBConnection.shutdown();
+        }
+    }
+
+    // fillBatchAfter through the pool, statement cache and metrics wrappers, from a driver that serves the
+    // rows from memory; its bytes per op are what the JDBC layers add per page
+    @State(Scope.Benchmark)
+    public static class JdbcScan {
+        @Param({ "10000", "100000", "1000000" })
+        public int rows;
+
+        IssueRepository issues;
+        IssueBatch columns;
+
+        @Setup(Level.Trial)
+        public void install() throws SQLException {
+            InMemoryScanDriver.install().setRowCount(rows);
+            issues = new JdbcIssueRepository();
+            columns = new IssueBatch(SCAN_PAGE);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() {
+            DBConnection.shutdown();
+        }
+    }
+
+    // One row of a ResultSet proxy, so mapping costs what the getters and the Issue cost
+    @State(Scope.Benchmark)
+    public static class Row {
+        ResultSet row;
+
+        @Setup(Level.Trial)
+        public void create() {
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            row = (ResultSet) Proxy.newProxyInstance(RepositoryBenchmarks.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, (proxy, method, args) -> {
+                        String column = args != null && args.length == 1 ? String.valueOf(args[0]) : "";
+                        switch (method.getName()) {
+                            case "getInt":
+                                return column.equals("id") ? 42 : 7;
+                            case "getString":
+                                return column.equals("description") ? "Login fails with 500 after the upgrade"
+                                        : "OPEN";
+                            case "getTimestamp":
+                                return now;
+                            default:
+                                return null;
+                        }
+                    });
+        }
+    }
+
+    @Benchmark
+    public Issue findById(Dataset data) {
+        return data.issues.findById(randomId(data.rows));
+    }
+
+    @Benchmark
+    public Issue findByIdCached(Dataset data) {
+        return data.cached.findById(randomId(HOT_SET));
+    }
+
+    @Benchmark
+    public List<Issue> getIssuesByStatusAfter(Dataset data) {
+        return data.issues.getIssuesByStatusAfter("OPEN", randomId(data.rows), PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Issue> getIssuesByUserIdAfter(Dataset data) {
+        return data.issues.getIssuesByUserIdAfter(1 + randomId(USERS - 1), 0, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Issue> attachComments(Dataset data) {
+        List<Issue> page = data.issues.findAllAfter(randomId(data.rows), PAGE_SIZE);
+        data.comments.attachComments(page);
+        return page;
+    }
+
+    @Benchmark
+    public List<Issue> findAllAfter(Dataset data) {
+        return data.issues.findAllAfter(randomId(data.rows), SCAN_PAGE);
+    }
+
+    @Benchmark
+    public int fillBatchAfter(Dataset data) {
+        return data.issues.fillBatchAfter(randomId(data.rows), data.columns);
+    }
+
+    @Benchmark
+    public int fillBatchAfterJdbc(JdbcScan scan) {
+        return scan.issues.fillBatchAfter(randomId(scan.rows), scan.columns);
+    }
+
+    @Benchmark
+    public IssueRepository.PatchResult updateIssue(Dataset data) {
+        return data.service.updateIssue(randomId(data.rows),
+                new IssuePatch().setStatus(STATUSES[randomId(STATUSES.length) - 1]));
+    }
+
+    // Every op adds SAVE_BATCH issues, so the store grows over the run
+    @Benchmark
+    public List<Issue> saveAll(Dataset data) {
+        List<Issue> batch = newIssues(SAVE_BATCH);
+        data.issues.saveAll(batch);
+        return batch;
+    }
+
+    @Benchmark
+    public Issue mapResultSetToIssue(Row row) throws SQLException {
+        return JdbcIssueRepository.mapResultSetToIssue(row.row);
+    }
+
+    private static void seed(Repositories repositories, int rows) {
+        long start = System.nanoTime();
+        List<User> users = new ArrayList<>(USERS);
+        for (int i = 0; i < USERS; i++) {
+            users.add(new User("user" + i, "user" + i + "@example.com"));
+        }
+        repositories.users().saveAll(users);
+        for (int done = 0; done < rows; done += SAVE_BATCH) {
+            List<Issue> batch = newIssues(Math.min(SAVE_BATCH, rows - done));
+            repositories.issues().saveAll(batch);
+            List<Comment> comments = new ArrayList<>(batch.size() / 2);
+            for (int i = 0; i < batch.size(); i += 2) {
+                comments.add(new Comment(batch.get(i).getId(), "seed", "comment on issue " + batch.get(i).getId()));
+            }
+            repositories.comments().saveAll(comments);
+        }
+        System.out.printf("# seeded %d issues in %d ms%n", rows,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static List<Issue> newIssues(int count) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Issue> batch = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            batch.add(new Issue("Issue " + random.nextInt(), "Generated benchmark issue with a short description",
+                    STATUSES[random.nextInt(STATUSES.length)], PRIORITIES[random.nextInt(PRIORITIES.length)],
+                    1 + random.nextInt(USERS)));
+        }
+        return batch;
+    }
+
+    private static int randomId(int max) {
+        return 1 + ThreadLocalRandom.current().nextInt(max);
+    }
+}
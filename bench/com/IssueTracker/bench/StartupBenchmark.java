@@ -0,0 +1,121 @@
+package com.IssueTracker.bench;
+
+import com.IssueTracker.runner.Application;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// Measures time-to-first-query: each run is a fresh JVM that goes through Main's start-up (Application,
+// the same code Main runs) and then reads the first page of "View All Issues".
+//
+//   java -cp target/benchmarks.jar com.IssueTracker.bench.StartupBenchmark
+//
+// Every run reports JVM start -> main and main -> first page. The "lazy" configuration connects on the
+// first query, "warm-up" starts the pool in the background as Main does by default, and with
+// -Dbench.cdsArchive=<file> (see scripts/build-cds.sh; run with that jar on the classpath) both are
+// repeated with the AppCDS archive. -Dbench.runs sets the runs per configuration (default 5).
+// issuetracker.* properties are passed on to the child JVMs, so -Dissuetracker.storage=embedded and
+// -Dissuetracker.storage.path select the store exactly as for Main.
+public class StartupBenchmark {
+
+    private static final String CHILD = "--child";
+    private static final String RESULT_PREFIX = "startup ";
+    private static final int FIRST_PAGE = 20;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0 && CHILD.equals(args[0])) {
+            runChild();
+            return;
+        }
+        int runs = Integer.getInteger("bench.runs", 5);
+        String archive = System.getProperty("bench.cdsArchive");
+        System.out.printf("%-24s %6s %16s %16s %16s%n", "Configuration", "runs", "jvm->main ms",
+                "main->query ms", "total ms");
+        measure("lazy", runs, "-Dissuetracker.db.warmUp=false");
+        measure("warm-up", runs, "-Dissuetracker.db.warmUp=true");
+        if (archive != null) {
+            measure("lazy + AppCDS", runs, "-Dissuetracker.db.warmUp=false", "-XX:SharedArchiveFile=" + archive,
+                    "-Xshare:auto");
+            measure("warm-up + AppCDS", runs, "-Dissuetracker.db.warmUp=true", "-XX:SharedArchiveFile=" + archive,
+                    "-Xshare:auto");
+        }
+    }
+
+    // The medians over the runs; a single slow run (page cache, JIT threads) does not move them
+    private static void measure(String name, int runs, String... jvmOptions) throws Exception {
+        double[] toMain = new double[runs];
+        double[] toQuery = new double[runs];
+        double[] total = new double[runs];
+        for (int i = 0; i < runs; i++) {
+            double[] result = launch(jvmOptions);
+            toMain[i] = result[0];
+            toQuery[i] = result[1];
+            total[i] = result[0] + result[1];
+        }
+        System.out.printf("%-24s %6d %16.1f %16.1f %16.1f%n", name, runs, median(toMain), median(toQuery),
+                median(total));
+    }
+
+    private static double[] launch(String... jvmOptions) throws Exception {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(jvmOptions));
+        for (String key : System.getProperties().stringPropertyNames()) {
+            if (key.startsWith("issuetracker.") && !key.equals("issuetracker.db.warmUp")) {
+                command.add("-D" + key + "=" + System.getProperty(key));
+            }
+        }
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StartupBenchmark.class.getName());
+        command.add(CHILD);
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String result = null;
+        StringBuilder output = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    result = line.substring(RESULT_PREFIX.length());
+                } else {
+                    output.append(line).append(System.lineSeparator());
+                }
+            }
+        }
+        int exit = process.waitFor();
+        if (exit != 0 || result == null) {
+            throw new IllegalStateException("Start-up run failed (exit " + exit + "):" + System.lineSeparator()
+                    + output);
+        }
+        String[] parts = result.split(" ");
+        return new double[] { Double.parseDouble(parts[0]), Double.parseDouble(parts[1]) };
+    }
+
+    // Main's start-up up to the menu, then the first page of issue summaries. Shutting down is not timed.
+    private static void runChild() throws Exception {
+        long mainMillis = System.currentTimeMillis();
+        long mainNanos = System.nanoTime();
+        long count;
+        double toQuery;
+        try (Application app = Application.start()) {
+            count = app.getIssueService().viewIssueSummaries().limit(FIRST_PAGE).count();
+            toQuery = (System.nanoTime() - mainNanos) / 1e6;
+        }
+        long toMain = mainMillis - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println(RESULT_PREFIX + toMain + " " + toQuery + " " + count);
+    }
+
+    private static double median(double[] values) {
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        int middle = sorted.length / 2;
+        return sorted.length % 2 == 1 ? sorted[middle] : (sorted[middle - 1] + sorted[middle]) / 2;
+    }
+}
@@ -0,0 +1,32 @@
+#!/bin/sh
+# Builds issue-tracker.jar and an AppCDS archive of the classes a start-up loads.
+#
+#   scripts/build-cds.sh [mysql-connector.jar]
+#
+# The training run starts the app, lists the users and exits; JAVA_OPTS is passed to it, so
+# JAVA_OPTS="-Dissuetracker.storage=embedded" trains without a database. Run the app with the same
+# classpath the archive was built for:
+#
+#   java -XX:SharedArchiveFile=build/issue-tracker.jsa -cp build/issue-tracker.jar[:mysql.jar] \
+#        com.IssueTracker.runner.Main
+set -e
+
+root=$(cd "$(dirname "$0")/.." && pwd)
+build="$root/build"
+classpath="$build/issue-tracker.jar"
+if [ -n "$1" ]; then
+    classpath="$classpath:$(cd "$(dirname "$1")" && pwd)/$(basename "$1")"
+fi
+
+rm -rf "$build/classes"
+mkdir -p "$build/classes"
+javac -d "$build/classes" $(find "$root/src" -name '*.java')
+cp -r "$root/src/META-INF" "$build/classes/"
+jar --create --file "$build/issue-tracker.jar" --main-class com.IssueTracker.runner.Main -C "$build/classes" .
+
+# Train in a scratch directory so an embedded store or search index does not land in the checkout
+training=$(mktemp -d)
+trap 'rm -rf "$training"' EXIT
+(cd "$training" && printf '2\n12\n' | java $JAVA_OPTS -XX:ArchiveClassesAtExit="$build/issue-tracker.jsa" \
+    -cp "$classpath" com.IssueTracker.runner.Main > /dev/null)
+echo "Wrote $build/issue-tracker.jar and $build/issue-tracker.jsa"
@@ -0,0 +1,603 @@
+package com.IssueTracker.api;
+
+import com.IssueTracker.models.Comment;
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssuePatch;
+import com.IssueTracker.models.IssuePriority;
+import com.IssueTracker.models.IssueQuery;
+import com.IssueTracker.models.IssueStatus;
+import com.IssueTracker.models.IssueSummary;
+import com.IssueTracker.models.User;
+import com.IssueTracker.repository.IssueRepository.PatchResult;
+import com.IssueTracker.service.AdmissionRejectedException;
+import com.IssueTracker.service.IssueService;
+import com.IssueTracker.service.UserService;
+import com.IssueTracker.utils.DBConnection;
+import com.IssueTracker.utils.VirtualThreads;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+// HTTP/JSON front end for UserService and IssueService:
+//
+//   GET    /users                        GET    /issues?status=&priority=&assignee=&sort=&limit=
+//   POST   /users                        POST   /issues
+//   GET    /users/{id}                   GET    /issues/{id}
+//   GET    /users/{id}/inbox             PATCH  /issues/{id}
+//   GET    /issues/{id}/comments         DELETE /issues/{id}
+//   POST   /issues/{id}/comments
+//
+// The JDK server accepts and parses requests on one selector thread and runs each exchange on a virtual
+// thread (a fixed pool on older JVMs), so a blocked database call only parks its own request. Lists are
+// sent with chunked encoding as they are read, page by page, instead of being built in memory first.
+// Responses are gzipped for clients that accept it. A single issue carries a strong ETag made from its
+// row version, with a -gzip suffix on the compressed form. If-None-Match on GET compares weakly and answers
+// 304 when the issue is unchanged. If-Match on PATCH compares strongly, so a W/ tag never matches, and turns
+// into the optimistic check IssuePatch already supports, answering 412 if someone else changed it first.
+// Creating an issue or a comment passes IssueService's admission control. A rejected write answers 429
+// when the client is over its own rate and 503 when the server is overloaded, with Retry-After either way.
+public class ApiServer implements AutoCloseable {
+
+    private static final String JSON = "application/json; charset=utf-8";
+    private static final int MAX_BODY_BYTES = 1 << 20;
+    // Bodies smaller than this are not worth the gzip header and CPU
+    private static final int GZIP_MIN_BYTES = 1024;
+    private static final String GZIP_TAG_SUFFIX = "-gzip";
+    private static final int FLUSH_EVERY = 100;
+    // A filtered GET /issues is read whole before it is sent, so it is always limited
+    private static final int DEFAULT_LIST_LIMIT = 100;
+    private static final int MAX_LIST_LIMIT = 1000;
+
+    private final UserService userService;
+    private final IssueService issueService;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    public ApiServer(UserService userService, IssueService issueService, InetSocketAddress address,
+            int fallbackThreads) throws IOException {
+        this.userService = userService;
+        this.issueService = issueService;
+        this.server = HttpServer.create(address, 0);
+        this.executor = VirtualThreads.newExecutor("api-server", fallbackThreads);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+    }
+
+    // -Dissuetracker.api.port=<port> starts the server, bound to -Dissuetracker.api.host (default
+    // loopback); -Dissuetracker.api.threads sizes the pool used when virtual threads are unavailable.
+    // Returns null if no port is set.
+    public static ApiServer fromSystemProperties(UserService userService, IssueService issueService)
+            throws IOException {
+        Integer port = Integer.getInteger("issuetracker.api.port");
+        if (port == null) {
+            return null;
+        }
+        String host = System.getProperty("issuetracker.api.host");
+        InetSocketAddress address = host == null ? new InetSocketAddress(InetAddress.getLoopbackAddress(), port)
+                : new InetSocketAddress(host, port);
+        ApiServer server = new ApiServer(userService, issueService, address,
+                Integer.getInteger("issuetracker.api.threads", 64));
+        server.start();
+        return server;
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    public InetSocketAddress getAddress() {
+        return server.getAddress();
+    }
+
+    // Waits up to a second for exchanges in flight
+    @Override
+    public void close() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    // Read-your-writes follows the client rather than the thread: the X-Session-Id header if it sends one,
+    // otherwise its address
+    private void handle(HttpExchange exchange) throws IOException {
+        String session = exchange.getRequestHeaders().getFirst("X-Session-Id");
+        DBConnection.bindSession(session != null ? session
+                : exchange.getRemoteAddress().getAddress().getHostAddress());
+        try {
+            route(exchange);
+        } catch (AdmissionRejectedException e) {
+            exchange.getResponseHeaders().set("Retry-After",
+                    String.valueOf(Math.max(1, (e.getRetryAfterMillis() + 999) / 1000)));
+            sendError(exchange, e.getReason() == AdmissionRejectedException.Reason.RATE_LIMITED ? 429 : 503,
+                    e.getMessage());
+        } catch (NumberFormatException e) {
+            sendError(exchange, 400, "Invalid number: " + e.getMessage());
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            sendError(exchange, 400, e.getMessage());
+        } catch (IOException e) {
+            // The client went away mid-response
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            sendError(exchange, 500, "Internal error");
+        } finally {
+            DBConnection.unbindSession();
+            exchange.close();
+        }
+    }
+
+    private void route(HttpExchange exchange) throws IOException {
+        String method = exchange.getRequestMethod();
+        String[] path = exchange.getRequestURI().getPath().replaceAll("^/+|/+$", "").split("/+");
+        if (path[0].equals("users")) {
+            if (path.length == 1) {
+                if (method.equals("GET")) {
+                    listUsers(exchange);
+                    return;
+                }
+                if (method.equals("POST")) {
+                    createUser(exchange);
+                    return;
+                }
+            } else if (path.length == 2 && method.equals("GET")) {
+                getUser(exchange, Integer.parseInt(path[1]));
+                return;
+            } else if (path.length == 3 && path[2].equals("inbox") && method.equals("GET")) {
+                listInbox(exchange, Integer.parseInt(path[1]));
+                return;
+            }
+        } else if (path[0].equals("issues")) {
+            if (path.length == 1) {
+                if (method.equals("GET")) {
+                    listIssues(exchange);
+                    return;
+                }
+                if (method.equals("POST")) {
+                    createIssue(exchange);
+                    return;
+                }
+            } else if (path.length == 2) {
+                int id = Integer.parseInt(path[1]);
+                switch (method) {
+                    case "GET":
+                        getIssue(exchange, id);
+                        return;
+                    case "PATCH":
+                        patchIssue(exchange, id);
+                        return;
+                    case "DELETE":
+                        deleteIssue(exchange, id);
+                        return;
+                    default:
+                        break;
+                }
+            } else if (path.length == 3 && path[2].equals("comments")) {
+                int id = Integer.parseInt(path[1]);
+                if (method.equals("GET")) {
+                    listComments(exchange, id);
+                    return;
+                }
+                if (method.equals("POST")) {
+                    addComment(exchange, id);
+                    return;
+                }
+            }
+        }
+        sendError(exchange, 404, "No such resource: " + method + " " + exchange.getRequestURI().getPath());
+    }
+
+    private void listUsers(HttpExchange exchange) throws IOException {
+        List<User> users = userService.getAllUsers();
+        sendArray(exchange, users.stream(), Json::user);
+    }
+
+    private void getUser(HttpExchange exchange, int id) throws IOException {
+        User user = userService.getUserById(id);
+        if (user == null) {
+            sendError(exchange, 404, "User not found");
+            return;
+        }
+        StringBuilder body = new StringBuilder();
+        Json.user(body, user);
+        send(exchange, 200, body.toString());
+    }
+
+    // The user's open issues, highest priority first, then most recently updated
+    private void listInbox(HttpExchange exchange, int userId) throws IOException {
+        try (Stream<IssueSummary> issues = issueService.getOpenIssueSummariesForUser(userId)) {
+            sendArray(exchange, issues, Json::summary);
+        }
+    }
+
+    private void createUser(HttpExchange exchange) throws IOException {
+        Map<String, String> fields = readObject(exchange);
+        String name = required(fields, "name");
+        String email = required(fields, "email");
+        User user = userService.createUser(name, email);
+        if (user.getId() <= 0) {
+            sendError(exchange, 500, "User was not saved");
+            return;
+        }
+        StringBuilder body = new StringBuilder();
+        Json.user(body, user);
+        exchange.getResponseHeaders().set("Location", "/users/" + user.getId());
+        send(exchange, 201, body.toString());
+    }
+
+    // Without parameters every issue is streamed in id order. Any of status, priority and assignee
+    // (comma separated for several), sort (id, created or updated, with "-" in front for descending) and
+    // limit go through IssueService.findIssues as one combined query, which returns at most limit issues
+    // (default DEFAULT_LIST_LIMIT, at most MAX_LIST_LIMIT).
+    private void listIssues(HttpExchange exchange) throws IOException {
+        Map<String, String> params = queryParams(exchange);
+        if (params.isEmpty()) {
+            try (Stream<IssueSummary> issues = issueService.viewIssueSummaries()) {
+                sendArray(exchange, issues, Json::summary);
+            }
+            return;
+        }
+        IssueQuery query = new IssueQuery();
+        if (params.containsKey("status")) {
+            query.statuses(params.get("status").split(","));
+        }
+        if (params.containsKey("priority")) {
+            query.priorities(params.get("priority").split(","));
+        }
+        if (params.containsKey("assignee")) {
+            for (String assignee : params.get("assignee").split(",")) {
+                query.assignees(Integer.parseInt(assignee.trim()));
+            }
+        }
+        String sort = params.getOrDefault("sort", "id");
+        boolean descending = sort.startsWith("-");
+        switch (descending ? sort.substring(1) : sort) {
+            case "created":
+                query.orderBy(IssueQuery.SortField.CREATED_AT, descending);
+                break;
+            case "updated":
+                query.orderBy(IssueQuery.SortField.UPDATED_AT, descending);
+                break;
+            case "id":
+                query.orderBy(IssueQuery.SortField.ID, descending);
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown sort: " + sort);
+        }
+        int limit = params.containsKey("limit") ? Integer.parseInt(params.get("limit")) : DEFAULT_LIST_LIMIT;
+        if (limit < 1 || limit > MAX_LIST_LIMIT) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_LIST_LIMIT);
+        }
+        query.limit(limit);
+        sendArray(exchange, issueService.findIssues(query).stream(), Json::summary);
+    }
+
+    private void getIssue(HttpExchange exchange, int id) throws IOException {
+        Issue issue = issueService.getIssueById(id);
+        if (issue == null) {
+            sendError(exchange, 404, "Issue not found");
+            return;
+        }
+        exchange.getResponseHeaders().set("ETag", etag(issue));
+        if (matchesWeakly(exchange.getRequestHeaders().getFirst("If-None-Match"), issue.getVersion())) {
+            exchange.sendResponseHeaders(304, -1);
+            return;
+        }
+        StringBuilder body = new StringBuilder();
+        Json.issue(body, issue);
+        send(exchange, 200, body.toString());
+    }
+
+    private void createIssue(HttpExchange exchange) throws IOException {
+        Map<String, String> fields = readObject(exchange);
+        Issue issue = new Issue(required(fields, "title"), fields.getOrDefault("description", ""),
+                status(fields.getOrDefault("status", "OPEN")), priority(fields.getOrDefault("priority", "MEDIUM")),
+                Integer.parseInt(required(fields, "assigneeId")));
+        issueService.createIssue(issue);
+        if (issue.getId() <= 0) {
+            sendError(exchange, 500, "Issue was not saved");
+            return;
+        }
+        sendIssue(exchange, 201, issue.getId());
+    }
+
+    private void patchIssue(HttpExchange exchange, int id) throws IOException {
+        Map<String, String> fields = readObject(exchange);
+        IssuePatch patch = new IssuePatch()
+                .setTitle(fields.get("title"))
+                .setDescription(fields.get("description"))
+                .setStatus(fields.get("status") == null ? null : status(fields.get("status")))
+                .setPriority(fields.get("priority") == null ? null : priority(fields.get("priority")))
+                .setAssigneeId(fields.containsKey("assigneeId") ? Integer.valueOf(fields.get("assigneeId")) : null);
+        String ifMatch = exchange.getRequestHeaders().getFirst("If-Match");
+        if (ifMatch != null && !ifMatch.trim().equals("*")) {
+            Integer expected = expectedVersion(ifMatch, id);
+            if (expected == null) {
+                sendError(exchange, 412, "Issue was changed by someone else; reload it and try again");
+                return;
+            }
+            patch.setExpectedVersion(expected);
+        }
+        PatchResult result = issueService.updateIssue(id, patch);
+        if (result == PatchResult.NOT_FOUND) {
+            sendError(exchange, 404, "Issue not found");
+        } else if (result == PatchResult.CONFLICT) {
+            sendError(exchange, 412, "Issue was changed by someone else; reload it and try again");
+        } else if (result == PatchResult.FAILED) {
+            sendError(exchange, 500, "Issue was not updated");
+        } else {
+            sendIssue(exchange, 200, id);
+        }
+    }
+
+    private void deleteIssue(HttpExchange exchange, int id) throws IOException {
+        if (issueService.getIssueById(id) == null) {
+            sendError(exchange, 404, "Issue not found");
+            return;
+        }
+        if (!issueService.deleteIssueById(id)) {
+            sendError(exchange, 500, "Issue was not deleted");
+            return;
+        }
+        exchange.sendResponseHeaders(204, -1);
+    }
+
+    private void listComments(HttpExchange exchange, int issueId) throws IOException {
+        if (issueService.getIssueById(issueId) == null) {
+            sendError(exchange, 404, "Issue not found");
+            return;
+        }
+        sendArray(exchange, issueService.getCommentsForIssue(issueId).stream(), Json::comment);
+    }
+
+    private void addComment(HttpExchange exchange, int issueId) throws IOException {
+        Map<String, String> fields = readObject(exchange);
+        String author = required(fields, "author");
+        String content = required(fields, "content");
+        if (issueService.getIssueById(issueId) == null) {
+            sendError(exchange, 404, "Issue not found");
+            return;
+        }
+        Comment comment = new Comment(issueId, author, content);
+        issueService.addComment(comment);
+        if (comment.getCommentId() <= 0) {
+            sendError(exchange, 500, "Comment was not saved");
+            return;
+        }
+        StringBuilder body = new StringBuilder();
+        Json.comment(body, comment);
+        send(exchange, 201, body.toString());
+    }
+
+    // Re-reads the issue so the response and its ETag show the timestamps the database assigned
+    private void sendIssue(HttpExchange exchange, int status, int id) throws IOException {
+        Issue issue = issueService.getIssueById(id);
+        if (issue == null) {
+            sendError(exchange, 404, "Issue not found");
+            return;
+        }
+        exchange.getResponseHeaders().set("ETag", etag(issue));
+        if (status == 201) {
+            exchange.getResponseHeaders().set("Location", "/issues/" + id);
+        }
+        StringBuilder body = new StringBuilder();
+        Json.issue(body, issue);
+        send(exchange, status, body.toString());
+    }
+
+    private static String etag(Issue issue) {
+        return "\"" + issue.getVersion() + "\"";
+    }
+
+    // The version If-Match allows the patch to find, or null if no candidate can match. Only one version can
+    // be checked by the update itself, so with several candidates the current one is picked if it is listed.
+    private Integer expectedVersion(String ifMatch, int id) {
+        List<Integer> versions = new ArrayList<>();
+        for (String candidate : ifMatch.split(",")) {
+            // Strong comparison: a weak tag is never a match
+            String tag = candidate.trim();
+            Integer version = tag.startsWith("W/") ? null : tagVersion(tag);
+            if (version != null) {
+                versions.add(version);
+            }
+        }
+        if (versions.size() <= 1) {
+            return versions.isEmpty() ? null : versions.get(0);
+        }
+        Issue current = issueService.getIssueById(id);
+        return current != null && versions.contains(current.getVersion()) ? current.getVersion() : null;
+    }
+
+    // Weak comparison, as If-None-Match uses: W/ is ignored
+    private static boolean matchesWeakly(String header, int version) {
+        if (header == null) {
+            return false;
+        }
+        for (String candidate : header.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            Integer tagged = tagVersion(tag.startsWith("W/") ? tag.substring(2) : tag);
+            if (tagged != null && tagged == version) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // The version in one of our tags, either encoding; null for a tag that is not ours
+    private static Integer tagVersion(String tag) {
+        if (tag.length() < 2 || !tag.startsWith("\"") || !tag.endsWith("\"")) {
+            return null;
+        }
+        String opaque = tag.substring(1, tag.length() - 1);
+        if (opaque.endsWith(GZIP_TAG_SUFFIX)) {
+            opaque = opaque.substring(0, opaque.length() - GZIP_TAG_SUFFIX.length());
+        }
+        try {
+            return Integer.valueOf(opaque);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    @FunctionalInterface
+    private interface ElementWriter<T> {
+        void write(Appendable out, T element) throws IOException;
+    }
+
+    // Sends a JSON array with chunked encoding, flushing every FLUSH_EVERY elements so the client sees the
+    // first rows while later pages are still being read
+    private static <T> void sendArray(HttpExchange exchange, Stream<T> elements, ElementWriter<T> writer)
+            throws IOException {
+        boolean gzip = acceptsGzip(exchange);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+        if (gzip) {
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+        }
+        exchange.sendResponseHeaders(200, 0);
+        OutputStream body = exchange.getResponseBody();
+        if (gzip) {
+            body = new GZIPOutputStream(body, 8192, true);
+        }
+        try (Writer out = new BufferedWriter(new OutputStreamWriter(body, StandardCharsets.UTF_8))) {
+            out.write('[');
+            int count = 0;
+            Iterator<T> iterator = elements.iterator();
+            while (iterator.hasNext()) {
+                if (count > 0) {
+                    out.write(',');
+                }
+                writer.write(out, iterator.next());
+                if (++count % FLUSH_EVERY == 0) {
+                    out.flush();
+                }
+            }
+            out.write("]\n");
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = (json + "\n").getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON);
+        exchange.getResponseHeaders().set("Vary", "Accept-Encoding");
+        if (body.length >= GZIP_MIN_BYTES && acceptsGzip(exchange)) {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4);
+            try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+                out.write(body);
+            }
+            body = compressed.toByteArray();
+            exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            // A strong tag names the exact bytes, so the compressed form gets its own
+            String etag = exchange.getResponseHeaders().getFirst("ETag");
+            if (etag != null) {
+                exchange.getResponseHeaders().set("ETag",
+                        etag.substring(0, etag.length() - 1) + GZIP_TAG_SUFFIX + "\"");
+            }
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // Only possible before the headers are sent; after that the failed response is just cut off
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        if (exchange.getResponseCode() != -1) {
+            return;
+        }
+        exchange.getResponseHeaders().remove("ETag");
+        send(exchange, status, Json.error(message));
+    }
+
+    private static boolean acceptsGzip(HttpExchange exchange) {
+        List<String> accepted = exchange.getRequestHeaders().get("Accept-Encoding");
+        if (accepted == null) {
+            return false;
+        }
+        for (String header : accepted) {
+            for (String coding : header.split(",")) {
+                String[] parts = coding.trim().split("\\s*;\\s*");
+                if (parts[0].equalsIgnoreCase("gzip") && !(parts.length > 1 && parts[1].matches("q=0(\\.0*)?"))) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static Map<String, String> readObject(HttpExchange exchange) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        try (InputStream in = exchange.getRequestBody()) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                if (body.size() + n > MAX_BODY_BYTES) {
+                    throw new IllegalArgumentException("Request body is larger than " + MAX_BODY_BYTES + " bytes");
+                }
+                body.write(buffer, 0, n);
+            }
+        }
+        return Json.parseObject(new String(body.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            if (!value.isEmpty()) {
+                params.put(name, value);
+            }
+        }
+        return params;
+    }
+
+    private static String status(String value) {
+        IssueStatus status = IssueStatus.parse(value);
+        if (status == null) {
+            throw new IllegalArgumentException("Unknown status: " + value);
+        }
+        return status.name();
+    }
+
+    private static String priority(String value) {
+        IssuePriority priority = IssuePriority.parse(value);
+        if (priority == null) {
+            throw new IllegalArgumentException("Unknown priority: " + value);
+        }
+        return priority.name();
+    }
+
+    private static String required(Map<String, String> fields, String name) {
+        String value = fields.get(name);
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException(name + " is required");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,233 @@
+package com.IssueTracker.api;
+
+import com.IssueTracker.models.Comment;
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssueSummary;
+import com.IssueTracker.models.User;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Just enough JSON for the API: writers for the models, and a reader for the flat request objects
+// the API accepts. Numbers and booleans read back as their text, null as a null value.
+final class Json {
+
+    private Json() {
+    }
+
+    static void user(Appendable out, User user) throws IOException {
+        out.append("{\"id\":").append(Integer.toString(user.getId()));
+        field(out, "name", user.getName());
+        field(out, "email", user.getEmail());
+        out.append('}');
+    }
+
+    static void issue(Appendable out, Issue issue) throws IOException {
+        out.append("{\"id\":").append(Integer.toString(issue.getId()));
+        field(out, "title", issue.getTitle());
+        field(out, "description", issue.getDescription());
+        field(out, "status", issue.getStatus());
+        field(out, "priority", issue.getPriority());
+        out.append(",\"assigneeId\":").append(Integer.toString(issue.getAssigneeId()));
+        field(out, "createdAt", issue.getCreatedAt());
+        field(out, "updatedAt", issue.getUpdatedAt());
+        out.append('}');
+    }
+
+    static void summary(Appendable out, IssueSummary summary) throws IOException {
+        out.append("{\"id\":").append(Integer.toString(summary.getId()));
+        field(out, "title", summary.getTitle());
+        field(out, "status", summary.getStatus());
+        field(out, "priority", summary.getPriority());
+        out.append(",\"assigneeId\":").append(Integer.toString(summary.getAssigneeId()));
+        field(out, "updatedAt", summary.getUpdatedAt());
+        out.append('}');
+    }
+
+    static void comment(Appendable out, Comment comment) throws IOException {
+        out.append("{\"id\":").append(Integer.toString(comment.getCommentId()));
+        out.append(",\"issueId\":").append(Integer.toString(comment.getIssueId()));
+        field(out, "author", comment.getAuthor());
+        field(out, "content", comment.getContent());
+        out.append('}');
+    }
+
+    static String error(String message) {
+        StringBuilder text = new StringBuilder("{\"error\":");
+        try {
+            quote(text, message);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+        }
+        return text.append('}').toString();
+    }
+
+    // Null values are left out
+    private static void field(Appendable out, String name, Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        out.append(",\"").append(name).append("\":");
+        quote(out, value instanceof LocalDateTime ? value.toString() : (String) value);
+    }
+
+    static void quote(Appendable out, String value) throws IOException {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    out.append("\\\"");
+                    break;
+                case '\\':
+                    out.append("\\\\");
+                    break;
+                case '\n':
+                    out.append("\\n");
+                    break;
+                case '\r':
+                    out.append("\\r");
+                    break;
+                case '\t':
+                    out.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    static Map<String, String> parseObject(String text) {
+        Parser parser = new Parser(text);
+        Map<String, String> values = parser.object();
+        if (parser.peek() != '\0') {
+            throw parser.error("unexpected text after the object");
+        }
+        return values;
+    }
+
+    private static final class Parser {
+        private final String text;
+        private int pos;
+
+        Parser(String text) {
+            this.text = text;
+        }
+
+        Map<String, String> object() {
+            Map<String, String> values = new LinkedHashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                pos++;
+                return values;
+            }
+            while (true) {
+                String key = string();
+                expect(':');
+                values.put(key, value());
+                char c = peek();
+                pos++;
+                if (c == '}') {
+                    return values;
+                }
+                if (c != ',') {
+                    throw error("expected ',' or '}'");
+                }
+            }
+        }
+
+        private String value() {
+            char c = peek();
+            if (c == '"') {
+                return string();
+            }
+            if (c == '{' || c == '[') {
+                throw error("nested objects and arrays are not supported");
+            }
+            int start = pos;
+            while (pos < text.length() && ",} \t\r\n".indexOf(text.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = text.substring(start, pos);
+            if (literal.isEmpty()) {
+                throw error("expected a value");
+            }
+            return literal.equals("null") ? null : literal;
+        }
+
+        private String string() {
+            expect('"');
+            StringBuilder value = new StringBuilder();
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) {
+                    break;
+                }
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n':
+                        value.append('\n');
+                        break;
+                    case 'r':
+                        value.append('\r');
+                        break;
+                    case 't':
+                        value.append('\t');
+                        break;
+                    case 'b':
+                        value.append('\b');
+                        break;
+                    case 'f':
+                        value.append('\f');
+                        break;
+                    case 'u':
+                        if (pos + 4 > text.length()) {
+                            throw error("truncated \\u escape");
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("invalid \\u escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        value.append(escaped);
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private void expect(char expected) {
+            if (peek() != expected) {
+                throw error("expected '" + expected + "'");
+            }
+            pos++;
+        }
+
+        char peek() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+            return pos < text.length() ? text.charAt(pos) : '\0';
+        }
+
+        IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("Malformed JSON at offset " + pos + ": " + message);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.IssueTracker.events;
+
+// What publish() does when a subscriber's buffer is full
+public enum BackpressurePolicy {
+    // Wait for the subscriber to catch up; nothing is lost but the write path slows to its pace
+    BLOCK,
+    // Skip this subscriber for the event and count it as dropped; the write path never waits
+    DROP
+}
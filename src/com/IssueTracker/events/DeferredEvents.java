@@ -0,0 +1,51 @@
+package com.IssueTracker.events;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// For subscribers whose state is loaded on first use instead of at start-up. Until then the events they
+// receive are kept here, and loading applies them on top of what it read, so the owner must leave its
+// state unchanged for an event the load already saw. State keyed by issue id (the dashboard counters, the
+// inbox) is set to the same values again; SearchIndex, whose terms accumulate, skips events at or below
+// the version and comment id a document holds. Past maxEvents defer() refuses, and the owner loads at
+// once. Not thread-safe: the owner's lock guards it.
+public class DeferredEvents {
+
+    public static final int DEFAULT_MAX_EVENTS = 10_000;
+
+    private final int maxEvents;
+    private List<IssueEvent> events = new ArrayList<>();
+
+    public DeferredEvents() {
+        this(DEFAULT_MAX_EVENTS);
+    }
+
+    public DeferredEvents(int maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    // False once drained, i.e. the owner has loaded
+    public boolean isDeferring() {
+        return events != null;
+    }
+
+    // Keeps the batch if still deferring and there is room; otherwise the owner must load and apply it
+    public boolean defer(List<IssueEvent> batch) {
+        if (events == null || events.size() + batch.size() > maxEvents) {
+            return false;
+        }
+        events.addAll(batch);
+        return true;
+    }
+
+    public int size() {
+        return events == null ? 0 : events.size();
+    }
+
+    // The kept events in publish order; deferring stops
+    public List<IssueEvent> drain() {
+        List<IssueEvent> kept = events == null ? List.of() : events;
+        events = null;
+        return kept;
+    }
+}
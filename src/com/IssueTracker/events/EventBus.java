@@ -0,0 +1,179 @@
+package com.IssueTracker.events;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// In-process change feed. Every subscriber gets its own ring buffer and consumer thread, so a slow
+// subscriber only ever delays itself (DROP) or the publisher (BLOCK), never the other subscribers.
+// publish() costs one CAS per subscriber on the caller's thread; handlers run in batches of whatever
+// has queued up since the last call, up to maxBatchSize.
+public class EventBus implements AutoCloseable {
+
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+    public static final int DEFAULT_MAX_BATCH_SIZE = 256;
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final long CLOSE_TIMEOUT_MILLIS = 10_000;
+
+    private final int bufferSize;
+    private final int maxBatchSize;
+    private final List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+    private volatile boolean closed;
+
+    public EventBus() {
+        this(Integer.getInteger("issuetracker.events.bufferSize", DEFAULT_BUFFER_SIZE),
+                Integer.getInteger("issuetracker.events.maxBatchSize", DEFAULT_MAX_BATCH_SIZE));
+    }
+
+    public EventBus(int bufferSize, int maxBatchSize) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("maxBatchSize must be positive: " + maxBatchSize);
+        }
+        this.bufferSize = bufferSize;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void subscribe(String name, EventSubscriber subscriber, BackpressurePolicy policy) {
+        if (closed) {
+            throw new IllegalStateException("Event bus is closed");
+        }
+        Subscription subscription = new Subscription(name, subscriber, policy, new RingBuffer<>(bufferSize));
+        subscriptions.add(subscription);
+        subscription.thread.start();
+    }
+
+    public void publish(IssueEvent event) {
+        if (closed) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            subscription.offer(event);
+        }
+    }
+
+    public List<SubscriberStats> getStats() {
+        List<SubscriberStats> stats = new ArrayList<>(subscriptions.size());
+        for (Subscription subscription : subscriptions) {
+            stats.add(subscription.stats());
+        }
+        return stats;
+    }
+
+    // Stops accepting events and waits for each subscriber to finish what is already queued
+    @Override
+    public void close() {
+        closed = true;
+        long deadline = System.currentTimeMillis() + CLOSE_TIMEOUT_MILLIS;
+        for (Subscription subscription : subscriptions) {
+            LockSupport.unpark(subscription.thread);
+            try {
+                subscription.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private final class Subscription implements Runnable {
+        private final String name;
+        private final EventSubscriber subscriber;
+        private final BackpressurePolicy policy;
+        private final RingBuffer<IssueEvent> buffer;
+        private final Thread thread;
+
+        private final AtomicLong published = new AtomicLong();
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong blockedNanos = new AtomicLong();
+        private final AtomicLong maxLag = new AtomicLong();
+        private volatile long delivered;
+        private volatile long batches;
+        private volatile long failures;
+
+        Subscription(String name, EventSubscriber subscriber, BackpressurePolicy policy,
+                RingBuffer<IssueEvent> buffer) {
+            this.name = name;
+            this.subscriber = subscriber;
+            this.policy = policy;
+            this.buffer = buffer;
+            this.thread = new Thread(this, "event-bus-" + name);
+            this.thread.setDaemon(true);
+        }
+
+        void offer(IssueEvent event) {
+            if (!buffer.tryPublish(event)) {
+                if (policy == BackpressurePolicy.DROP) {
+                    dropped.incrementAndGet();
+                    return;
+                }
+                long start = System.nanoTime();
+                LockSupport.unpark(thread);
+                while (!buffer.tryPublish(event)) {
+                    if (closed || !thread.isAlive()) {
+                        dropped.incrementAndGet();
+                        return;
+                    }
+                    Thread.onSpinWait();
+                    LockSupport.parkNanos(PARK_NANOS);
+                }
+                blockedNanos.addAndGet(System.nanoTime() - start);
+            }
+            published.incrementAndGet();
+            long lag = buffer.lag();
+            if (lag > maxLag.get()) {
+                maxLag.accumulateAndGet(lag, Math::max);
+            }
+        }
+
+        @Override
+        public void run() {
+            List<IssueEvent> batch = new ArrayList<>(maxBatchSize);
+            int idle = 0;
+            while (true) {
+                int count = buffer.drainTo(batch, maxBatchSize);
+                if (count == 0) {
+                    if (closed) {
+                        return;
+                    }
+                    idle = waitForEvents(idle);
+                    continue;
+                }
+                idle = 0;
+                try {
+                    subscriber.onEvents(batch);
+                } catch (RuntimeException e) {
+                    failures++;
+                    e.printStackTrace();
+                }
+                batch.clear();
+                buffer.release(count);
+                delivered += count;
+                batches++;
+            }
+        }
+
+        // Spin, then yield, then park in short naps: cheap when events are flowing, idle when not
+        private int waitForEvents(int idle) {
+            if (idle < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+                return idle;
+            }
+            return idle + 1;
+        }
+
+        SubscriberStats stats() {
+            return new SubscriberStats(name, policy, published.get(), delivered, dropped.get(), batches,
+                    Math.max(0, buffer.lag()), maxLag.get(), blockedNanos.get(), failures);
+        }
+    }
+}
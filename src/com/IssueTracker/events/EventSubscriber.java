@@ -0,0 +1,11 @@
+package com.IssueTracker.events;
+
+import java.util.List;
+
+@FunctionalInterface
+public interface EventSubscriber {
+
+    // Called on the subscriber's own thread with events in publish order. The list is reused after the
+    // call returns, so keep the events and not the list.
+    void onEvents(List<IssueEvent> events);
+}
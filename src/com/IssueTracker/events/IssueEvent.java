@@ -0,0 +1,86 @@
+package com.IssueTracker.events;
+
+import com.IssueTracker.models.Comment;
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssuePatch;
+
+// One committed change. Only the field matching the type is set: the created issue, the applied
+// patch or the added comment. A delete carries just the id. Creates and updates also carry the row
+// version they left, so a subscriber that already holds that version (or a later one) can skip them.
+public class IssueEvent {
+
+    public enum Type {
+        ISSUE_CREATED, ISSUE_UPDATED, ISSUE_DELETED, COMMENT_ADDED
+    }
+
+    private final Type type;
+    private final int issueId;
+    private final Issue issue;
+    private final IssuePatch patch;
+    private final Comment comment;
+    private final int version;
+    private final long timestampMillis;
+
+    private IssueEvent(Type type, int issueId, Issue issue, IssuePatch patch, Comment comment, int version) {
+        this.type = type;
+        this.issueId = issueId;
+        this.issue = issue;
+        this.patch = patch;
+        this.comment = comment;
+        this.version = version;
+        this.timestampMillis = System.currentTimeMillis();
+    }
+
+    // The issue is copied so later changes by the caller do not leak into queued events
+    public static IssueEvent issueCreated(Issue issue) {
+        return new IssueEvent(Type.ISSUE_CREATED, issue.getId(), new Issue(issue), null, null, issue.getVersion());
+    }
+
+    // The patch as the repository applied it, with its appliedVersion set
+    public static IssueEvent issueUpdated(int issueId, IssuePatch patch) {
+        return new IssueEvent(Type.ISSUE_UPDATED, issueId, null, patch, null, patch.getAppliedVersion());
+    }
+
+    public static IssueEvent issueDeleted(int issueId) {
+        return new IssueEvent(Type.ISSUE_DELETED, issueId, null, null, null, -1);
+    }
+
+    // The comment's id orders it among the issue's comments
+    public static IssueEvent commentAdded(Comment comment) {
+        return new IssueEvent(Type.COMMENT_ADDED, comment.getIssueId(), null, null, comment, -1);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getIssueId() {
+        return issueId;
+    }
+
+    public Issue getIssue() {
+        return issue;
+    }
+
+    public IssuePatch getPatch() {
+        return patch;
+    }
+
+    public Comment getComment() {
+        return comment;
+    }
+
+    // The issue's version after a create or update; -1 for other events, or if the repository did not report it
+    public int getVersion() {
+        return version;
+    }
+
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "IssueEvent [type=" + type + ", issueId=" + issueId + ", timestampMillis=" + timestampMillis + "]";
+    }
+}
@@ -0,0 +1,80 @@
+package com.IssueTracker.events;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Bounded multi-producer, single-consumer ring in the style of the LMAX Disruptor. Producers claim
+// a sequence with one CAS, store the entry, then mark the slot with the sequence's lap number; the
+// consumer reads every contiguous marked slot in one pass. No locks on either side.
+final class RingBuffer<E> {
+
+    private final Object[] entries;
+    private final int mask;
+    private final int lapShift;
+    // Lap number of the sequence currently stored in each slot, -1 before the first lap
+    private final AtomicIntegerArray laps;
+    private final AtomicLong claimed = new AtomicLong(-1);
+    private volatile long consumed = -1;
+
+    RingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        entries = new Object[capacity];
+        mask = capacity - 1;
+        lapShift = Integer.numberOfTrailingZeros(capacity);
+        laps = new AtomicIntegerArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            laps.set(i, -1);
+        }
+    }
+
+    boolean tryPublish(E entry) {
+        long current;
+        long next;
+        do {
+            current = claimed.get();
+            next = current + 1;
+            if (next - entries.length > consumed) {
+                return false;
+            }
+        } while (!claimed.compareAndSet(current, next));
+        int index = (int) next & mask;
+        entries[index] = entry;
+        laps.set(index, (int) (next >>> lapShift));
+        return true;
+    }
+
+    // Consumer side: copies up to max published entries into the batch. The slots stay reserved until
+    // release(), so a full buffer also holds back producers while the batch is being handled.
+    @SuppressWarnings("unchecked")
+    int drainTo(List<E> batch, int max) {
+        long next = consumed + 1;
+        int count = 0;
+        while (count < max) {
+            int index = (int) next & mask;
+            if (laps.get(index) != (int) (next >>> lapShift)) {
+                break;
+            }
+            batch.add((E) entries[index]);
+            entries[index] = null;
+            next++;
+            count++;
+        }
+        return count;
+    }
+
+    void release(int count) {
+        consumed += count;
+    }
+
+    // Claimed but not yet consumed; slightly overstated while a producer is between claim and publish
+    long lag() {
+        return claimed.get() - consumed;
+    }
+
+    int capacity() {
+        return entries.length;
+    }
+}
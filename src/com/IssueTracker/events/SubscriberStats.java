@@ -0,0 +1,83 @@
+package com.IssueTracker.events;
+
+public class SubscriberStats {
+    private final String name;
+    private final BackpressurePolicy policy;
+    private final long published;
+    private final long delivered;
+    private final long dropped;
+    private final long batches;
+    private final long lag;
+    private final long maxLag;
+    private final long blockedNanos;
+    private final long failures;
+
+    public SubscriberStats(String name, BackpressurePolicy policy, long published, long delivered, long dropped,
+            long batches, long lag, long maxLag, long blockedNanos, long failures) {
+        this.name = name;
+        this.policy = policy;
+        this.published = published;
+        this.delivered = delivered;
+        this.dropped = dropped;
+        this.batches = batches;
+        this.lag = lag;
+        this.maxLag = maxLag;
+        this.blockedNanos = blockedNanos;
+        this.failures = failures;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public BackpressurePolicy getPolicy() {
+        return policy;
+    }
+
+    public long getPublished() {
+        return published;
+    }
+
+    public long getDelivered() {
+        return delivered;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getBatches() {
+        return batches;
+    }
+
+    public double getAverageBatchSize() {
+        return batches == 0 ? 0 : (double) delivered / batches;
+    }
+
+    // Events queued for this subscriber but not yet handled
+    public long getLag() {
+        return lag;
+    }
+
+    public long getMaxLag() {
+        return maxLag;
+    }
+
+    // Time publishers spent waiting on this subscriber (BLOCK policy only)
+    public long getBlockedNanos() {
+        return blockedNanos;
+    }
+
+    // Batches whose handler threw
+    public long getFailures() {
+        return failures;
+    }
+
+    @Override
+    public String toString() {
+        return "SubscriberStats [name=" + name + ", policy=" + policy + ", published=" + published
+                + ", delivered=" + delivered + ", dropped=" + dropped + ", batches=" + batches + ", avgBatch="
+                + String.format("%.1f", getAverageBatchSize()) + ", lag=" + lag + ", maxLag=" + maxLag
+                + ", blockedMs=" + blockedNanos / 1_000_000 + ", failures=" + failures + "]";
+    }
+}
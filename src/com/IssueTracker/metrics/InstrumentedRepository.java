@@ -0,0 +1,75 @@
+package com.IssueTracker.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Wraps any repository interface so each call is timed into QueryMetrics under "<name>.<method>".
+// Rows are the size of a returned collection or map, or 1 for any other non-null result. Streams are
+// timed only up to their creation, since the pages are fetched as the caller consumes them.
+public final class InstrumentedRepository implements InvocationHandler {
+
+    private final Object target;
+    private final String name;
+    private final QueryMetrics metrics;
+    private final Map<Method, String> operationNames = new ConcurrentHashMap<>();
+
+    private InstrumentedRepository(Object target, String name, QueryMetrics metrics) {
+        this.target = target;
+        this.name = name;
+        this.metrics = metrics;
+    }
+
+    public static <T> T wrap(Class<T> type, T target) {
+        return wrap(type, target, QueryMetrics.global());
+    }
+
+    public static <T> T wrap(Class<T> type, T target, QueryMetrics metrics) {
+        if (!QueryMetrics.isEnabled()) {
+            return target;
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                new InstrumentedRepository(target, type.getSimpleName(), metrics)));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "Instrumented[" + target + "]";
+            }
+        }
+        String operation = operationNames.computeIfAbsent(method, m -> name + "." + m.getName());
+        long start = System.nanoTime();
+        try {
+            Object result = method.invoke(target, args);
+            metrics.recordCall(operation, System.nanoTime() - start, rows(result), false);
+            return result;
+        } catch (InvocationTargetException e) {
+            metrics.recordCall(operation, System.nanoTime() - start, 0, true);
+            throw e.getCause();
+        }
+    }
+
+    private static long rows(Object result) {
+        if (result == null) {
+            return 0;
+        }
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Map) {
+            return ((Map<?, ?>) result).size();
+        }
+        return 1;
+    }
+}
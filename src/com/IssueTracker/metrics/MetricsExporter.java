@@ -0,0 +1,189 @@
+package com.IssueTracker.metrics;
+
+import com.IssueTracker.service.AdmissionController;
+import com.IssueTracker.service.AdmissionStats;
+import com.IssueTracker.utils.DBConnection;
+import com.IssueTracker.utils.PoolStats;
+import com.IssueTracker.utils.RoutingStats;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Publishes QueryMetrics plus connection-pool and admission gauges in Prometheus text format, either rewritten to a
+// file every few seconds (for node_exporter's textfile collector) or served at http://localhost:<port>/metrics.
+public class MetricsExporter implements AutoCloseable {
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final QueryMetrics metrics;
+    private ScheduledExecutorService scheduler;
+    private HttpServer server;
+    private volatile AdmissionController admission;
+
+    public MetricsExporter(QueryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    // -Dissuetracker.metrics.file=<path> (every -Dissuetracker.metrics.fileIntervalSeconds, default 15) and/or
+    // -Dissuetracker.metrics.port=<port>; returns an exporter that does nothing if neither is set
+    public static MetricsExporter fromSystemProperties() throws IOException {
+        MetricsExporter exporter = new MetricsExporter(QueryMetrics.global());
+        String file = System.getProperty("issuetracker.metrics.file");
+        if (file != null) {
+            exporter.startFile(Paths.get(file), Long.getLong("issuetracker.metrics.fileIntervalSeconds", 15));
+        }
+        Integer port = Integer.getInteger("issuetracker.metrics.port");
+        if (port != null) {
+            exporter.startHttp(port);
+        }
+        return exporter;
+    }
+
+    public void setAdmissionController(AdmissionController admission) {
+        this.admission = admission;
+    }
+
+    public synchronized void startFile(Path path, long intervalSeconds) {
+        if (scheduler != null) {
+            throw new IllegalStateException("File export already started");
+        }
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-file-exporter");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                writeFile(path);
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }, 0, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    // Bound to loopback only; put a real reverse proxy in front to scrape from elsewhere
+    public synchronized void startHttp(int port) throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("HTTP export already started");
+        }
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.createContext("/metrics", exchange -> {
+            byte[] body = render().getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    // Written to a temp file and moved into place so a scraper never reads half a file
+    public void writeFile(Path path) throws IOException {
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+            write(out);
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public String render() {
+        StringBuilder text = new StringBuilder();
+        try {
+            write(text);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+        }
+        return text.toString();
+    }
+
+    private void write(Appendable out) throws IOException {
+        metrics.writePrometheus(out);
+        PoolStats pool = DBConnection.getPoolStatsIfStarted();
+        if (pool != null) {
+            gauge(out, "issuetracker_pool_active_connections", "Connections currently borrowed", pool.getActive());
+            gauge(out, "issuetracker_pool_idle_connections", "Connections idle in the pool", pool.getIdle());
+            gauge(out, "issuetracker_pool_max_connections", "Configured pool size", pool.getMaxSize());
+            counter(out, "issuetracker_pool_borrow_timeouts_total", "Borrows that timed out", pool.getTimeoutCount());
+            counter(out, "issuetracker_pool_leaks_total", "Connections held past the leak threshold",
+                    pool.getLeakCount());
+            counter(out, "issuetracker_pool_statement_cache_hits_total", "Prepares served from the statement cache",
+                    pool.getStatementCacheHits());
+            counter(out, "issuetracker_pool_statement_cache_misses_total", "Prepares that reached the driver",
+                    pool.getStatementCacheMisses());
+            counter(out, "issuetracker_pool_statement_cache_evictions_total", "Statements evicted from the cache",
+                    pool.getStatementCacheEvictions());
+        }
+        RoutingStats routing = DBConnection.getRoutingStatsIfStarted();
+        if (routing != null) {
+            gauge(out, "issuetracker_db_replicas", "Configured read replicas", routing.getReplicas());
+            gauge(out, "issuetracker_db_healthy_replicas", "Read replicas in rotation", routing.getHealthyReplicas());
+            counter(out, "issuetracker_db_replica_reads_total", "Reads served by a replica", routing.getReplicaReads());
+            counter(out, "issuetracker_db_primary_reads_total", "Reads sent to the primary for lack of a replica",
+                    routing.getPrimaryReads());
+            counter(out, "issuetracker_db_sticky_reads_total", "Reads kept on the primary after the session wrote",
+                    routing.getStickyReads());
+            counter(out, "issuetracker_db_replica_failovers_total", "Replica borrows that failed over",
+                    routing.getFailovers());
+        }
+        AdmissionController current = admission;
+        if (current != null) {
+            AdmissionStats stats = current.getStats();
+            counter(out, "issuetracker_admission_admitted_total", "Writes admitted", stats.getAdmitted());
+            out.append("# HELP issuetracker_admission_rejected_total Writes rejected, by reason\n");
+            out.append("# TYPE issuetracker_admission_rejected_total counter\n");
+            out.append("issuetracker_admission_rejected_total{reason=\"rate_limited\"} ")
+                    .append(Long.toString(stats.getRateLimited())).append('\n');
+            out.append("issuetracker_admission_rejected_total{reason=\"queue_full\"} ")
+                    .append(Long.toString(stats.getShed())).append('\n');
+            out.append("issuetracker_admission_rejected_total{reason=\"queue_timeout\"} ")
+                    .append(Long.toString(stats.getQueueTimeouts())).append('\n');
+            counter(out, "issuetracker_admission_queued_total", "Writes that waited for a slot", stats.getQueued());
+            out.append("# HELP issuetracker_admission_queue_wait_seconds_total Time writes spent waiting for a slot\n");
+            out.append("# TYPE issuetracker_admission_queue_wait_seconds_total counter\n");
+            out.append("issuetracker_admission_queue_wait_seconds_total ")
+                    .append(Double.toString(stats.getQueueWaitNanos() / 1e9)).append('\n');
+            gauge(out, "issuetracker_admission_in_flight", "Admitted writes not yet finished", stats.getInFlight());
+            gauge(out, "issuetracker_admission_waiting", "Writes waiting for a slot", stats.getWaiting());
+            gauge(out, "issuetracker_admission_concurrency_limit", "Adaptive limit on writes in flight",
+                    (long) stats.getLimit());
+            gauge(out, "issuetracker_admission_tracked_users", "Users with a token bucket", stats.getTrackedUsers());
+        }
+    }
+
+    private static void gauge(Appendable out, String name, String help, long value) throws IOException {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" gauge\n");
+        out.append(name).append(' ').append(Long.toString(value)).append('\n');
+    }
+
+    private static void counter(Appendable out, String name, String help, long value) throws IOException {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(" counter\n");
+        out.append(name).append(' ').append(Long.toString(value)).append('\n');
+    }
+
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+}
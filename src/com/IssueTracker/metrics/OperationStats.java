@@ -0,0 +1,62 @@
+package com.IssueTracker.metrics;
+
+public class OperationStats {
+    private final String name;
+    private final long count;
+    private final long errors;
+    private final long rows;
+    private final double meanMillis;
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    public OperationStats(String name, long count, long errors, long rows, double meanMillis, double p50Millis,
+            double p99Millis, double maxMillis) {
+        this.name = name;
+        this.count = count;
+        this.errors = errors;
+        this.rows = rows;
+        this.meanMillis = meanMillis;
+        this.p50Millis = p50Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getErrors() {
+        return errors;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public double getMeanMillis() {
+        return meanMillis;
+    }
+
+    public double getP50Millis() {
+        return p50Millis;
+    }
+
+    public double getP99Millis() {
+        return p99Millis;
+    }
+
+    public double getMaxMillis() {
+        return maxMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: count=%d, errors=%d, rows=%d, mean=%.3fms, p50=%.3fms, p99=%.3fms, max=%.3fms",
+                name, count, errors, rows, meanMillis, p50Millis, p99Millis, maxMillis);
+    }
+}
@@ -0,0 +1,316 @@
+package com.IssueTracker.metrics;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Process-wide query and repository timings. The pool records every JDBC statement here (keyed by its
+// SQL) along with connection waits, and InstrumentedRepository records every repository call (keyed
+// by interface and method), so the embedded store shows up too. Disable with
+// -Dissuetracker.metrics.enabled=false.
+public class QueryMetrics implements QueryMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.IssueTracker:type=QueryMetrics";
+
+    private static final QueryMetrics GLOBAL = new QueryMetrics(
+            Long.getLong("issuetracker.db.slowQueryMillis", 500));
+    private static final boolean ENABLED =
+            Boolean.parseBoolean(System.getProperty("issuetracker.metrics.enabled", "true"));
+
+    // Keeps label cardinality bounded if something builds SQL with inlined values
+    private static final int MAX_OPERATIONS = 500;
+    private static final String OVERFLOW_NAME = "other";
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_LOGGED_PARAM_LENGTH = 100;
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private final Map<String, Operation> statements = new ConcurrentHashMap<>();
+    private final Map<String, Operation> repositoryCalls = new ConcurrentHashMap<>();
+    private final LatencyHistogram connectionWait = new LatencyHistogram();
+    private final AtomicLong slowQueries = new AtomicLong();
+    private volatile long slowQueryNanos;
+
+    private static final class Operation {
+        final LatencyHistogram latency = new LatencyHistogram();
+        final AtomicLong rows = new AtomicLong();
+        final AtomicLong errors = new AtomicLong();
+    }
+
+    public QueryMetrics(long slowQueryMillis) {
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMillis);
+    }
+
+    public static QueryMetrics global() {
+        return GLOBAL;
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    // One name per statement shape: IN lists of any length collapse to "?, ..." and whitespace is squeezed
+    public static String statementName(String sql) {
+        String name = PLACEHOLDER_LIST.matcher(sql).replaceAll("?, ...");
+        return WHITESPACE.matcher(name).replaceAll(" ").trim();
+    }
+
+    public void recordStatement(String name, long nanos, long rows, boolean failed, Object[] params) {
+        Operation op = operation(statements, name);
+        op.latency.record(nanos);
+        op.rows.addAndGet(rows);
+        if (failed) {
+            op.errors.incrementAndGet();
+        }
+        long threshold = slowQueryNanos;
+        if (threshold > 0 && nanos >= threshold) {
+            slowQueries.incrementAndGet();
+            System.err.println("Slow query (" + TimeUnit.NANOSECONDS.toMillis(nanos) + "ms"
+                    + (failed ? ", failed" : "") + "): " + name + " " + formatParams(params));
+        }
+    }
+
+    // Rows are only known once a result set has been read, after the execute call was timed
+    public void recordRows(String name, long rows) {
+        operation(statements, name).rows.addAndGet(rows);
+    }
+
+    public void recordCall(String name, long nanos, long rows, boolean failed) {
+        Operation op = operation(repositoryCalls, name);
+        op.latency.record(nanos);
+        op.rows.addAndGet(rows);
+        if (failed) {
+            op.errors.incrementAndGet();
+        }
+    }
+
+    public void recordConnectionWait(long nanos) {
+        connectionWait.record(nanos);
+    }
+
+    public List<OperationStats> getStatementStats() {
+        return stats(statements);
+    }
+
+    public List<OperationStats> getRepositoryCallStats() {
+        return stats(repositoryCalls);
+    }
+
+    public LatencyHistogram getConnectionWait() {
+        return connectionWait;
+    }
+
+    public void registerMBean() {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(this, name);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Prometheus text exposition format (version 0.0.4)
+    public void writePrometheus(Appendable out) throws IOException {
+        writeSummaries(out, "issuetracker_query_duration_seconds", "JDBC statement execution time", "statement",
+                statements);
+        writeCounters(out, "issuetracker_query_rows_total", "Rows returned or affected", "statement", statements,
+                op -> op.rows.get());
+        writeCounters(out, "issuetracker_query_errors_total", "Statements that threw", "statement", statements,
+                op -> op.errors.get());
+        writeSummaries(out, "issuetracker_repository_call_duration_seconds", "Repository method time", "method",
+                repositoryCalls);
+        writeCounters(out, "issuetracker_repository_call_errors_total", "Repository methods that threw", "method",
+                repositoryCalls, op -> op.errors.get());
+        out.append("# HELP issuetracker_slow_queries_total Statements slower than the slow-query threshold\n");
+        out.append("# TYPE issuetracker_slow_queries_total counter\n");
+        out.append("issuetracker_slow_queries_total ").append(Long.toString(slowQueries.get())).append('\n');
+        out.append("# HELP issuetracker_connection_wait_seconds Time spent waiting for a pooled connection\n");
+        out.append("# TYPE issuetracker_connection_wait_seconds summary\n");
+        writeSummary(out, "issuetracker_connection_wait_seconds", "", connectionWait);
+    }
+
+    // ---- QueryMetricsMXBean ----
+
+    @Override
+    public long getStatementExecutions() {
+        long total = 0;
+        for (Operation op : statements.values()) {
+            total += op.latency.getCount();
+        }
+        return total;
+    }
+
+    @Override
+    public long getStatementErrors() {
+        long total = 0;
+        for (Operation op : statements.values()) {
+            total += op.errors.get();
+        }
+        return total;
+    }
+
+    @Override
+    public long getSlowQueries() {
+        return slowQueries.get();
+    }
+
+    @Override
+    public long getSlowQueryThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(slowQueryNanos);
+    }
+
+    @Override
+    public void setSlowQueryThresholdMillis(long millis) {
+        slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+
+    @Override
+    public double getConnectionWaitP99Millis() {
+        return connectionWait.getPercentileNanos(99) / 1e6;
+    }
+
+    @Override
+    public Map<String, Long> getStatementCounts() {
+        return collect(statements, op -> op.latency.getCount());
+    }
+
+    @Override
+    public Map<String, Long> getStatementErrorCounts() {
+        return collect(statements, op -> op.errors.get());
+    }
+
+    @Override
+    public Map<String, Double> getStatementP99Millis() {
+        return collectMillis(statements, op -> op.latency.getPercentileNanos(99));
+    }
+
+    @Override
+    public Map<String, Double> getRepositoryCallP99Millis() {
+        return collectMillis(repositoryCalls, op -> op.latency.getPercentileNanos(99));
+    }
+
+    @Override
+    public String getPrometheusText() {
+        StringBuilder text = new StringBuilder();
+        try {
+            writePrometheus(text);
+        } catch (IOException e) {
+            // StringBuilder does not throw
+        }
+        return text.toString();
+    }
+
+    @Override
+    public void reset() {
+        statements.clear();
+        repositoryCalls.clear();
+        connectionWait.reset();
+        slowQueries.set(0);
+    }
+
+    // ---- helpers ----
+
+    private static Operation operation(Map<String, Operation> operations, String name) {
+        Operation op = operations.get(name);
+        if (op == null) {
+            String key = operations.size() >= MAX_OPERATIONS ? OVERFLOW_NAME : name;
+            op = operations.computeIfAbsent(key, k -> new Operation());
+        }
+        return op;
+    }
+
+    private static List<OperationStats> stats(Map<String, Operation> operations) {
+        List<OperationStats> result = new ArrayList<>();
+        for (Map.Entry<String, Operation> entry : new TreeMap<>(operations).entrySet()) {
+            LatencyHistogram latency = entry.getValue().latency;
+            result.add(new OperationStats(entry.getKey(), latency.getCount(), entry.getValue().errors.get(),
+                    entry.getValue().rows.get(), latency.getMeanNanos() / 1e6, latency.getPercentileNanos(50) / 1e6,
+                    latency.getPercentileNanos(99) / 1e6, latency.getMaxNanos() / 1e6));
+        }
+        return result;
+    }
+
+    private static Map<String, Long> collect(Map<String, Operation> operations,
+            ToLongFunction<Operation> value) {
+        Map<String, Long> result = new TreeMap<>();
+        operations.forEach((name, op) -> result.put(name, value.applyAsLong(op)));
+        return result;
+    }
+
+    private static Map<String, Double> collectMillis(Map<String, Operation> operations,
+            ToLongFunction<Operation> nanos) {
+        Map<String, Double> result = new TreeMap<>();
+        operations.forEach((name, op) -> result.put(name, nanos.applyAsLong(op) / 1e6));
+        return result;
+    }
+
+    private static void writeSummaries(Appendable out, String metric, String help, String label,
+            Map<String, Operation> operations) throws IOException {
+        out.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(metric).append(" summary\n");
+        for (Map.Entry<String, Operation> entry : new TreeMap<>(operations).entrySet()) {
+            writeSummary(out, metric, label + "=\"" + escape(entry.getKey()) + "\"", entry.getValue().latency);
+        }
+    }
+
+    private static void writeSummary(Appendable out, String metric, String labels, LatencyHistogram latency)
+            throws IOException {
+        String prefix = labels.isEmpty() ? "" : labels + ",";
+        for (double quantile : QUANTILES) {
+            out.append(metric).append('{').append(prefix).append("quantile=\"").append(Double.toString(quantile))
+                    .append("\"} ").append(seconds(latency.getPercentileNanos(quantile * 100))).append('\n');
+        }
+        String suffix = labels.isEmpty() ? "" : "{" + labels + "}";
+        out.append(metric).append("_sum").append(suffix).append(' ').append(seconds(latency.getSumNanos()))
+                .append('\n');
+        out.append(metric).append("_count").append(suffix).append(' ').append(Long.toString(latency.getCount()))
+                .append('\n');
+    }
+
+    private static void writeCounters(Appendable out, String metric, String help, String label,
+            Map<String, Operation> operations, ToLongFunction<Operation> value) throws IOException {
+        out.append("# HELP ").append(metric).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(metric).append(" counter\n");
+        for (Map.Entry<String, Operation> entry : new TreeMap<>(operations).entrySet()) {
+            out.append(metric).append('{').append(label).append("=\"").append(escape(entry.getKey())).append("\"} ")
+                    .append(Long.toString(value.applyAsLong(entry.getValue()))).append('\n');
+        }
+    }
+
+    private static String seconds(long nanos) {
+        return Double.toString(nanos / 1e9);
+    }
+
+    static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+    }
+
+    private static String formatParams(Object[] params) {
+        if (params == null || params.length == 0) {
+            return "[]";
+        }
+        String[] values = new String[params.length];
+        for (int i = 0; i < params.length; i++) {
+            String value = String.valueOf(params[i]);
+            values[i] = value.length() > MAX_LOGGED_PARAM_LENGTH
+                    ? value.substring(0, MAX_LOGGED_PARAM_LENGTH) + "..."
+                    : value;
+        }
+        return Arrays.toString(values);
+    }
+}
@@ -0,0 +1,31 @@
+package com.IssueTracker.metrics;
+
+import java.util.Map;
+
+// Registered as com.IssueTracker:type=QueryMetrics; browse it with jconsole or VisualVM
+public interface QueryMetricsMXBean {
+
+    long getStatementExecutions();
+
+    long getStatementErrors();
+
+    long getSlowQueries();
+
+    long getSlowQueryThresholdMillis();
+
+    void setSlowQueryThresholdMillis(long millis);
+
+    double getConnectionWaitP99Millis();
+
+    Map<String, Long> getStatementCounts();
+
+    Map<String, Long> getStatementErrorCounts();
+
+    Map<String, Double> getStatementP99Millis();
+
+    Map<String, Double> getRepositoryCallP99Millis();
+
+    String getPrometheusText();
+
+    void reset();
+}
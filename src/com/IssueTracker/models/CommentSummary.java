@@ -0,0 +1,92 @@
+package com.IssueTracker.models;
+
+import java.util.function.Supplier;
+
+// A comment with only the first PREVIEW_LENGTH characters of its content. Lengths count code points, as
+// MySQL's LEFT and CHAR_LENGTH do. getContent() returns the preview when it is the whole comment, and
+// otherwise loads the full text once.
+public class CommentSummary {
+    public static final int PREVIEW_LENGTH = 80;
+
+    private final int commentId;
+    private final int issueId;
+    private final String author;
+    private final String preview;
+    private final int contentLength;
+    private Supplier<String> contentLoader;
+    private String content;
+
+    public CommentSummary(int commentId, int issueId, String author, String preview, int contentLength) {
+        this.commentId = commentId;
+        this.issueId = issueId;
+        this.author = author;
+        this.preview = preview;
+        this.contentLength = contentLength;
+    }
+
+    public static CommentSummary of(Comment comment) {
+        String content = comment.getContent() == null ? "" : comment.getContent();
+        CommentSummary summary = new CommentSummary(comment.getCommentId(), comment.getIssueId(), comment.getAuthor(),
+                preview(content), content.codePointCount(0, content.length()));
+        summary.setContentLoader(() -> content);
+        return summary;
+    }
+
+    public static String preview(String content) {
+        if (content.length() <= PREVIEW_LENGTH || content.codePointCount(0, content.length()) <= PREVIEW_LENGTH) {
+            return content;
+        }
+        return content.substring(0, content.offsetByCodePoints(0, PREVIEW_LENGTH));
+    }
+
+    public int getCommentId() {
+        return commentId;
+    }
+
+    public int getIssueId() {
+        return issueId;
+    }
+
+    public String getAuthor() {
+        return author;
+    }
+
+    public String getPreview() {
+        return preview;
+    }
+
+    public int getContentLength() {
+        return contentLength;
+    }
+
+    public boolean isTruncated() {
+        return contentLength > PREVIEW_LENGTH;
+    }
+
+    // Returns the preview when the comment is longer but no loader was attached
+    public synchronized String getContent() {
+        if (!isTruncated()) {
+            return preview;
+        }
+        if (content == null && contentLoader != null) {
+            content = contentLoader.get();
+            contentLoader = null;
+        }
+        return content == null ? preview : content;
+    }
+
+    public synchronized void setContentLoader(Supplier<String> contentLoader) {
+        this.content = null;
+        this.contentLoader = contentLoader;
+    }
+
+    @Override
+    public String toString() {
+        return "CommentSummary{" +
+                "commentId=" + commentId +
+                ", issueId=" + issueId +
+                ", author='" + author + '\'' +
+                ", preview='" + preview + (isTruncated() ? "...' (" + contentLength + " chars)" : "'") +
+                '}';
+    }
+}
@@ -3,6 +3,7 @@ package com.IssueTracker.models;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class Issue {
     private int id;
@@ -13,16 +14,38 @@ public class Issue {
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
     private int assigneeId;
-    private List<Comment> comments = new ArrayList<>();
+    // Bumped by every write to the row; the optimistic-concurrency token for IssuePatch and HTTP ETags
+    private int version;
+    private List<Comment> comments;
+    private Supplier<List<Comment>> commentLoader;
 
     public void addComment(Comment comment) {
-        comments.add(comment);
+        getComments().add(comment);
     }
 
     public List<Comment> getComments() {
+        if (comments == null) {
+            comments = commentLoader == null ? new ArrayList<>() : new ArrayList<>(commentLoader.get());
+            commentLoader = null;
+        }
         return comments;
     }
 
+    public void setComments(List<Comment> comments) {
+        this.comments = comments;
+        this.commentLoader = null;
+    }
+
+    // Defers loading until the first getComments() call
+    public void setCommentLoader(Supplier<List<Comment>> commentLoader) {
+        this.comments = null;
+        this.commentLoader = commentLoader;
+    }
+
+    public boolean isCommentsLoaded() {
+        return comments != null;
+    }
+
     public Issue() {
     }
 
@@ -34,6 +57,20 @@ public class Issue {
         this.assigneeId = assigneeId;
     }
 
+    public Issue(Issue other) {
+        this.id = other.id;
+        this.title = other.title;
+        this.description = other.description;
+        this.status = other.status;
+        this.priority = other.priority;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+        this.assigneeId = other.assigneeId;
+        this.version = other.version;
+        this.comments = other.comments == null ? null : new ArrayList<>(other.comments);
+        this.commentLoader = other.commentLoader;
+    }
+
     public int getId() {
         return id;
     }
@@ -98,6 +135,14 @@ public class Issue {
         this.assigneeId = assigneeId;
     }
 
+    public int getVersion() {
+        return version;
+    }
+
+    public void setVersion(int version) {
+        this.version = version;
+    }
+
     @Override
     public String toString() {
         return "Issue [id=" + id + ", title=" + title + ", description=" + description +
@@ -0,0 +1,120 @@
+package com.IssueTracker.models;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+
+// Column-oriented block of issue rows for bulk reporting: one primitive array per column and no
+// per-row objects. Titles, descriptions and comments are not carried. A batch is meant to be
+// cleared and refilled page after page, so a full scan allocates only the arrays themselves.
+public class IssueBatch {
+
+    // Resolved once: ZoneId.systemDefault() clones the default TimeZone on every call
+    private static final ZoneRules LOCAL_ZONE = ZoneId.systemDefault().getRules();
+
+    private final int[] ids;
+    private final byte[] statusCodes;
+    private final byte[] priorityCodes;
+    private final long[] createdAt;
+    private final long[] updatedAt;
+    private final int[] assigneeIds;
+    private int size;
+
+    public IssueBatch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        ids = new int[capacity];
+        statusCodes = new byte[capacity];
+        priorityCodes = new byte[capacity];
+        createdAt = new long[capacity];
+        updatedAt = new long[capacity];
+        assigneeIds = new int[capacity];
+    }
+
+    // Timestamps are epoch seconds
+    public void add(int id, byte statusCode, byte priorityCode, long createdAtEpochSecond, long updatedAtEpochSecond,
+            int assigneeId) {
+        if (size == ids.length) {
+            throw new IllegalStateException("batch is full (" + ids.length + " rows)");
+        }
+        ids[size] = id;
+        statusCodes[size] = statusCode;
+        priorityCodes[size] = priorityCode;
+        createdAt[size] = createdAtEpochSecond;
+        updatedAt[size] = updatedAtEpochSecond;
+        assigneeIds[size] = assigneeId;
+        size++;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return ids.length;
+    }
+
+    public boolean isFull() {
+        return size == ids.length;
+    }
+
+    public int getId(int row) {
+        return ids[checkRow(row)];
+    }
+
+    // Keyset cursor for the next page
+    public int lastId() {
+        return size == 0 ? 0 : ids[size - 1];
+    }
+
+    public byte getStatusCode(int row) {
+        return statusCodes[checkRow(row)];
+    }
+
+    public IssueStatus getStatus(int row) {
+        return IssueStatus.fromCode(getStatusCode(row));
+    }
+
+    public byte getPriorityCode(int row) {
+        return priorityCodes[checkRow(row)];
+    }
+
+    public IssuePriority getPriority(int row) {
+        return IssuePriority.fromCode(getPriorityCode(row));
+    }
+
+    public long getCreatedAtEpochSecond(int row) {
+        return createdAt[checkRow(row)];
+    }
+
+    public long getUpdatedAtEpochSecond(int row) {
+        return updatedAt[checkRow(row)];
+    }
+
+    public int getAssigneeId(int row) {
+        return assigneeIds[checkRow(row)];
+    }
+
+    public static long toEpochSecond(LocalDateTime time) {
+        return time == null ? 0 : time.toEpochSecond(LOCAL_ZONE.getOffset(time));
+    }
+
+    private int checkRow(int row) {
+        if (row < 0 || row >= size) {
+            throw new IndexOutOfBoundsException("row " + row + " of " + size);
+        }
+        return row;
+    }
+
+    @Override
+    public String toString() {
+        return "IssueBatch [size=" + size + ", ids=" + Arrays.toString(Arrays.copyOf(ids, Math.min(size, 10)))
+                + (size > 10 ? "..." : "") + "]";
+    }
+}
@@ -0,0 +1,167 @@
+package com.IssueTracker.models;
+
+import java.time.LocalDateTime;
+
+// One entry in an issue's history. CREATED and SNAPSHOT entries hold the whole issue; an UPDATED entry
+// holds only the fields the change set, with null meaning unchanged. DELETED holds no fields.
+public class IssueChange {
+
+    public enum Kind {
+        CREATED, UPDATED, DELETED, SNAPSHOT;
+
+        private static final Kind[] BY_CODE = values();
+
+        public byte code() {
+            return (byte) ordinal();
+        }
+
+        public static Kind fromCode(byte code) {
+            if (code < 0 || code >= BY_CODE.length) {
+                throw new IllegalArgumentException("Unknown issue change kind " + code);
+            }
+            return BY_CODE[code];
+        }
+
+        // A full copy of the issue that replay can start from
+        public boolean isBase() {
+            return this == CREATED || this == SNAPSHOT;
+        }
+    }
+
+    private long sequence;
+    private final int issueId;
+    private final Kind kind;
+    private final LocalDateTime changedAt;
+    private final String title;
+    private final String description;
+    private final String status;
+    private final String priority;
+    private final Integer assigneeId;
+
+    public IssueChange(long sequence, int issueId, Kind kind, LocalDateTime changedAt, String title,
+            String description, String status, String priority, Integer assigneeId) {
+        this.sequence = sequence;
+        this.issueId = issueId;
+        this.kind = kind;
+        this.changedAt = changedAt;
+        this.title = title;
+        this.description = description;
+        this.status = status;
+        this.priority = priority;
+        this.assigneeId = assigneeId;
+    }
+
+    public static IssueChange created(Issue issue, LocalDateTime at) {
+        return full(Kind.CREATED, issue, at);
+    }
+
+    public static IssueChange snapshot(Issue issue, LocalDateTime at) {
+        return full(Kind.SNAPSHOT, issue, at);
+    }
+
+    public static IssueChange updated(int issueId, IssuePatch patch, LocalDateTime at) {
+        return new IssueChange(0, issueId, Kind.UPDATED, at, patch.getTitle(), patch.getDescription(),
+                patch.getStatus(), patch.getPriority(), patch.getAssigneeId());
+    }
+
+    public static IssueChange deleted(int issueId, LocalDateTime at) {
+        return new IssueChange(0, issueId, Kind.DELETED, at, null, null, null, null, null);
+    }
+
+    private static IssueChange full(Kind kind, Issue issue, LocalDateTime at) {
+        return new IssueChange(0, issue.getId(), kind, at, issue.getTitle(), issue.getDescription(),
+                issue.getStatus(), issue.getPriority(), issue.getAssigneeId());
+    }
+
+    // Replays the changes, oldest first, from the base entry they must start with. Returns null when
+    // the list is empty, does not start from a base, or ends with the issue deleted.
+    public static Issue replay(Iterable<IssueChange> changes) {
+        Issue issue = null;
+        for (IssueChange change : changes) {
+            issue = change.applyTo(issue);
+        }
+        return issue;
+    }
+
+    // The issue as it was after this change, given the issue as it was before it (null if it did not exist)
+    public Issue applyTo(Issue issue) {
+        switch (kind) {
+            case CREATED:
+            case SNAPSHOT:
+                issue = new Issue(title, description, status, priority, assigneeId == null ? 0 : assigneeId);
+                issue.setId(issueId);
+                break;
+            case UPDATED:
+                if (issue == null) {
+                    return null;
+                }
+                new IssuePatch().setTitle(title).setDescription(description).setStatus(status)
+                        .setPriority(priority).setAssigneeId(assigneeId).applyTo(issue);
+                break;
+            default:
+                return null;
+        }
+        issue.setUpdatedAt(changedAt);
+        return issue;
+    }
+
+    // Assigned by the history repository when the change is appended; 0 until then
+    public long getSequence() {
+        return sequence;
+    }
+
+    public void setSequence(long sequence) {
+        this.sequence = sequence;
+    }
+
+    public int getIssueId() {
+        return issueId;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public LocalDateTime getChangedAt() {
+        return changedAt;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public Integer getAssigneeId() {
+        return assigneeId;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(changedAt + " " + kind);
+        append(text, "title", title);
+        append(text, "status", status);
+        append(text, "priority", priority);
+        append(text, "assigneeId", assigneeId);
+        if (kind == Kind.UPDATED && description != null) {
+            text.append(" description changed");
+        }
+        return text.toString();
+    }
+
+    private static void append(StringBuilder text, String name, Object value) {
+        if (value != null) {
+            text.append(' ').append(name).append('=').append(value);
+        }
+    }
+}
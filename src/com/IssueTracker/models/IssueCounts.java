@@ -0,0 +1,82 @@
+package com.IssueTracker.models;
+
+import com.IssueTracker.utils.IntHashMap;
+
+import java.util.Arrays;
+
+// Issue counts by status x priority x assignee. Every (status, priority) cell is kept both overall
+// and per assignee, so any combination of filters, with null meaning "any", is answered by summing
+// at most a few dozen cells. Values outside IssueStatus/IssuePriority land in the code-0 column and
+// only show up when that dimension is left open. Not thread-safe.
+public class IssueCounts {
+
+    private static final int STATUS_SLOTS = IssueStatus.values().length + 1;
+    private static final int PRIORITY_SLOTS = IssuePriority.values().length + 1;
+    private static final int CELLS = STATUS_SLOTS * PRIORITY_SLOTS;
+
+    private final long[] overall = new long[CELLS];
+    private final IntHashMap<long[]> byAssignee = new IntHashMap<>();
+
+    public IssueCounts() {
+    }
+
+    public IssueCounts(IssueCounts other) {
+        System.arraycopy(other.overall, 0, overall, 0, CELLS);
+        other.byAssignee.forEach((assigneeId, cells) -> byAssignee.put(assigneeId, cells.clone()));
+    }
+
+    public void add(byte statusCode, byte priorityCode, int assigneeId, long delta) {
+        int cell = cell(statusCode, priorityCode);
+        overall[cell] += delta;
+        byAssignee.computeIfAbsent(assigneeId, id -> new long[CELLS])[cell] += delta;
+    }
+
+    public long count(IssueStatus status, IssuePriority priority, Integer assigneeId) {
+        long[] cells = assigneeId == null ? overall : byAssignee.get(assigneeId);
+        if (cells == null) {
+            return 0;
+        }
+        long total = 0;
+        for (int s = 0; s < STATUS_SLOTS; s++) {
+            if (status != null && s != status.code()) {
+                continue;
+            }
+            for (int p = 0; p < PRIORITY_SLOTS; p++) {
+                if (priority == null || p == priority.code()) {
+                    total += cells[s * PRIORITY_SLOTS + p];
+                }
+            }
+        }
+        return total;
+    }
+
+    public long total() {
+        return count(null, null, null);
+    }
+
+    public long count(IssueStatus status) {
+        return count(status, null, null);
+    }
+
+    public long count(IssuePriority priority) {
+        return count(null, priority, null);
+    }
+
+    public long countForAssignee(int assigneeId) {
+        return count(null, null, assigneeId);
+    }
+
+    public int[] assigneeIds() {
+        int[] ids = new int[byAssignee.size()];
+        int[] next = new int[1];
+        byAssignee.forEach((assigneeId, cells) -> ids[next[0]++] = assigneeId);
+        Arrays.sort(ids);
+        return ids;
+    }
+
+    private static int cell(byte statusCode, byte priorityCode) {
+        int s = statusCode > 0 && statusCode < STATUS_SLOTS ? statusCode : 0;
+        int p = priorityCode > 0 && priorityCode < PRIORITY_SLOTS ? priorityCode : 0;
+        return s * PRIORITY_SLOTS + p;
+    }
+}
@@ -0,0 +1,32 @@
+package com.IssueTracker.models;
+
+import java.util.List;
+
+public class IssueDetails {
+    private final Issue issue;
+    private final User assignee;
+    private final List<Comment> comments;
+
+    public IssueDetails(Issue issue, User assignee, List<Comment> comments) {
+        this.issue = issue;
+        this.assignee = assignee;
+        this.comments = comments;
+    }
+
+    public Issue getIssue() {
+        return issue;
+    }
+
+    public User getAssignee() {
+        return assignee;
+    }
+
+    public List<Comment> getComments() {
+        return comments;
+    }
+
+    @Override
+    public String toString() {
+        return "IssueDetails [issue=" + issue + ", assignee=" + assignee + ", comments=" + comments + "]";
+    }
+}
@@ -0,0 +1,101 @@
+package com.IssueTracker.models;
+
+// Changes to apply to one issue; null fields are left untouched. When expectedVersion is set the
+// patch only applies if the stored version still equals it (optimistic concurrency). Once it applies,
+// the repository sets appliedVersion to the row's version afterwards.
+public class IssuePatch {
+    private String title;
+    private String description;
+    private String status;
+    private String priority;
+    private Integer assigneeId;
+    private Integer expectedVersion;
+    private int appliedVersion = -1;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public IssuePatch setTitle(String title) {
+        this.title = title;
+        return this;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public IssuePatch setDescription(String description) {
+        this.description = description;
+        return this;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public IssuePatch setStatus(String status) {
+        this.status = status;
+        return this;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public IssuePatch setPriority(String priority) {
+        this.priority = priority;
+        return this;
+    }
+
+    public Integer getAssigneeId() {
+        return assigneeId;
+    }
+
+    public IssuePatch setAssigneeId(Integer assigneeId) {
+        this.assigneeId = assigneeId;
+        return this;
+    }
+
+    public Integer getExpectedVersion() {
+        return expectedVersion;
+    }
+
+    public IssuePatch setExpectedVersion(Integer expectedVersion) {
+        this.expectedVersion = expectedVersion;
+        return this;
+    }
+
+    // -1 until applied, or if the repository could not tell
+    public int getAppliedVersion() {
+        return appliedVersion;
+    }
+
+    public void setAppliedVersion(int appliedVersion) {
+        this.appliedVersion = appliedVersion;
+    }
+
+    public boolean isEmpty() {
+        return title == null && description == null && status == null && priority == null && assigneeId == null;
+    }
+
+    public void applyTo(Issue issue) {
+        if (title != null)
+            issue.setTitle(title);
+        if (description != null)
+            issue.setDescription(description);
+        if (status != null)
+            issue.setStatus(status);
+        if (priority != null)
+            issue.setPriority(priority);
+        if (assigneeId != null)
+            issue.setAssigneeId(assigneeId);
+    }
+
+    @Override
+    public String toString() {
+        return "IssuePatch [title=" + title + ", description=" + description + ", status=" + status +
+                ", priority=" + priority + ", assigneeId=" + assigneeId +
+                ", expectedVersion=" + expectedVersion + "]";
+    }
+}
@@ -0,0 +1,47 @@
+package com.IssueTracker.models;
+
+public enum IssuePriority {
+    HIGH, MEDIUM, LOW;
+
+    // 0 is reserved for values that are not one of the constants above
+    public static final byte UNKNOWN_CODE = 0;
+
+    private static final IssuePriority[] BY_CODE = values();
+
+    public byte code() {
+        return (byte) (ordinal() + 1);
+    }
+
+    public static IssuePriority fromCode(byte code) {
+        return code <= 0 || code > BY_CODE.length ? null : BY_CODE[code - 1];
+    }
+
+    public static IssuePriority parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (IssuePriority priority : BY_CODE) {
+            if (priority.name().equals(value)) {
+                return priority;
+            }
+        }
+        String name = value.trim();
+        for (IssuePriority priority : BY_CODE) {
+            if (priority.name().equalsIgnoreCase(name)) {
+                return priority;
+            }
+        }
+        return null;
+    }
+
+    public static byte codeOf(String value) {
+        IssuePriority priority = parse(value);
+        return priority == null ? UNKNOWN_CODE : priority.code();
+    }
+
+    // Swaps an exact match for the constant name, so loaded rows share one String instead of a copy each
+    public static String canonical(String value) {
+        IssuePriority priority = parse(value);
+        return priority != null && priority.name().equals(value) ? priority.name() : value;
+    }
+}
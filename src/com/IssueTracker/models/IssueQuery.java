@@ -0,0 +1,183 @@
+package com.IssueTracker.models;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+// Any combination of filters over issues: every non-empty criterion must match (AND), and a criterion
+// given several values matches any of them (IN). Date ranges include "from" and exclude "to". Results
+// are ordered by the sort field, then id, and capped at limit (0 = no cap).
+public class IssueQuery {
+
+    public enum SortField {
+        ID, CREATED_AT, UPDATED_AT
+    }
+
+    private final Set<String> statuses = new LinkedHashSet<>();
+    private final Set<String> priorities = new LinkedHashSet<>();
+    private final Set<Integer> assigneeIds = new LinkedHashSet<>();
+    private LocalDateTime createdFrom;
+    private LocalDateTime createdTo;
+    private LocalDateTime updatedFrom;
+    private LocalDateTime updatedTo;
+    private SortField sortField = SortField.ID;
+    private boolean descending;
+    private int limit;
+
+    public IssueQuery statuses(String... values) {
+        for (String value : values) {
+            statuses.add(value.trim());
+        }
+        return this;
+    }
+
+    public IssueQuery statuses(Collection<IssueStatus> values) {
+        for (IssueStatus value : values) {
+            statuses.add(value.name());
+        }
+        return this;
+    }
+
+    public IssueQuery priorities(String... values) {
+        for (String value : values) {
+            priorities.add(value.trim());
+        }
+        return this;
+    }
+
+    public IssueQuery priorities(Collection<IssuePriority> values) {
+        for (IssuePriority value : values) {
+            priorities.add(value.name());
+        }
+        return this;
+    }
+
+    public IssueQuery assignees(int... ids) {
+        for (int id : ids) {
+            assigneeIds.add(id);
+        }
+        return this;
+    }
+
+    public IssueQuery createdBetween(LocalDateTime from, LocalDateTime to) {
+        this.createdFrom = from;
+        this.createdTo = to;
+        return this;
+    }
+
+    public IssueQuery updatedBetween(LocalDateTime from, LocalDateTime to) {
+        this.updatedFrom = from;
+        this.updatedTo = to;
+        return this;
+    }
+
+    public IssueQuery orderBy(SortField sortField, boolean descending) {
+        this.sortField = sortField;
+        this.descending = descending;
+        return this;
+    }
+
+    public IssueQuery limit(int limit) {
+        if (limit < 0) {
+            throw new IllegalArgumentException("limit must not be negative: " + limit);
+        }
+        this.limit = limit;
+        return this;
+    }
+
+    public Set<String> getStatuses() {
+        return Collections.unmodifiableSet(statuses);
+    }
+
+    public Set<String> getPriorities() {
+        return Collections.unmodifiableSet(priorities);
+    }
+
+    public Set<Integer> getAssigneeIds() {
+        return Collections.unmodifiableSet(assigneeIds);
+    }
+
+    public LocalDateTime getCreatedFrom() {
+        return createdFrom;
+    }
+
+    public LocalDateTime getCreatedTo() {
+        return createdTo;
+    }
+
+    public LocalDateTime getUpdatedFrom() {
+        return updatedFrom;
+    }
+
+    public LocalDateTime getUpdatedTo() {
+        return updatedTo;
+    }
+
+    public SortField getSortField() {
+        return sortField;
+    }
+
+    public boolean isDescending() {
+        return descending;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    // The same test the SQL applies, for backends that filter in memory. Status and priority compare
+    // case-insensitively, as MySQL's default collation does.
+    public boolean matches(Issue issue) {
+        return matchesAny(statuses, issue.getStatus())
+                && matchesAny(priorities, issue.getPriority())
+                && (assigneeIds.isEmpty() || assigneeIds.contains(issue.getAssigneeId()))
+                && inRange(issue.getCreatedAt(), createdFrom, createdTo)
+                && inRange(issue.getUpdatedAt(), updatedFrom, updatedTo);
+    }
+
+    public Comparator<Issue> comparator() {
+        Comparator<Issue> order;
+        switch (sortField) {
+            case CREATED_AT:
+                order = Comparator.comparing(Issue::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparingInt(Issue::getId);
+                break;
+            case UPDATED_AT:
+                order = Comparator.comparing(Issue::getUpdatedAt, Comparator.nullsFirst(Comparator.naturalOrder()))
+                        .thenComparingInt(Issue::getId);
+                break;
+            default:
+                order = Comparator.comparingInt(Issue::getId);
+        }
+        return descending ? order.reversed() : order;
+    }
+
+    private static boolean matchesAny(Set<String> values, String actual) {
+        if (values.isEmpty()) {
+            return true;
+        }
+        for (String value : values) {
+            if (value.equalsIgnoreCase(actual)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean inRange(LocalDateTime value, LocalDateTime from, LocalDateTime to) {
+        if (from == null && to == null) {
+            return true;
+        }
+        return value != null && (from == null || !value.isBefore(from)) && (to == null || value.isBefore(to));
+    }
+
+    @Override
+    public String toString() {
+        return "IssueQuery [statuses=" + statuses + ", priorities=" + priorities + ", assigneeIds=" + assigneeIds
+                + ", created=[" + createdFrom + ", " + createdTo + "), updated=[" + updatedFrom + ", " + updatedTo
+                + "), sort=" + sortField + (descending ? " DESC" : " ASC") + ", limit=" + limit + "]";
+    }
+}
@@ -0,0 +1,47 @@
+package com.IssueTracker.models;
+
+public enum IssueStatus {
+    OPEN, IN_PROGRESS, RESOLVED, CLOSED;
+
+    // 0 is reserved for values that are not one of the constants above
+    public static final byte UNKNOWN_CODE = 0;
+
+    private static final IssueStatus[] BY_CODE = values();
+
+    public byte code() {
+        return (byte) (ordinal() + 1);
+    }
+
+    public static IssueStatus fromCode(byte code) {
+        return code <= 0 || code > BY_CODE.length ? null : BY_CODE[code - 1];
+    }
+
+    public static IssueStatus parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        for (IssueStatus status : BY_CODE) {
+            if (status.name().equals(value)) {
+                return status;
+            }
+        }
+        String name = value.trim();
+        for (IssueStatus status : BY_CODE) {
+            if (status.name().equalsIgnoreCase(name)) {
+                return status;
+            }
+        }
+        return null;
+    }
+
+    public static byte codeOf(String value) {
+        IssueStatus status = parse(value);
+        return status == null ? UNKNOWN_CODE : status.code();
+    }
+
+    // Swaps an exact match for the constant name, so loaded rows share one String instead of a copy each
+    public static String canonical(String value) {
+        IssueStatus status = parse(value);
+        return status != null && status.name().equals(value) ? status.name() : value;
+    }
+}
@@ -0,0 +1,76 @@
+package com.IssueTracker.models;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+// The columns a list view shows, without the description. getIssue() fetches the full row on first use
+// when the summary came from one of the IssueRepository summary streams.
+public class IssueSummary {
+    private final int id;
+    private final String title;
+    private final String status;
+    private final String priority;
+    private final int assigneeId;
+    private final LocalDateTime updatedAt;
+    private Supplier<Issue> issueLoader;
+    private Issue issue;
+
+    public IssueSummary(int id, String title, String status, String priority, int assigneeId,
+            LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.status = status;
+        this.priority = priority;
+        this.assigneeId = assigneeId;
+        this.updatedAt = updatedAt;
+    }
+
+    public static IssueSummary of(Issue issue) {
+        return new IssueSummary(issue.getId(), issue.getTitle(), issue.getStatus(), issue.getPriority(),
+                issue.getAssigneeId(), issue.getUpdatedAt());
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getPriority() {
+        return priority;
+    }
+
+    public int getAssigneeId() {
+        return assigneeId;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    // Returns null if no loader was attached or the issue has since been deleted
+    public synchronized Issue getIssue() {
+        if (issue == null && issueLoader != null) {
+            issue = issueLoader.get();
+            issueLoader = null;
+        }
+        return issue;
+    }
+
+    public synchronized void setIssueLoader(Supplier<Issue> issueLoader) {
+        this.issue = null;
+        this.issueLoader = issueLoader;
+    }
+
+    @Override
+    public String toString() {
+        return "IssueSummary [id=" + id + ", title=" + title + ", status=" + status + ", priority=" + priority
+                + ", assigneeId=" + assigneeId + ", updatedAt=" + updatedAt + "]";
+    }
+}
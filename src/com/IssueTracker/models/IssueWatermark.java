@@ -0,0 +1,50 @@
+package com.IssueTracker.models;
+
+// A summary of the issues table that changes on every write made through the repositories: a create
+// raises the count and the highest id, an update raises the sum of row versions, a delete lowers the
+// count. Used to tell whether something derived from the table, like the saved search index, is behind.
+public class IssueWatermark {
+    private final long count;
+    private final int maxId;
+    private final long versionSum;
+
+    public IssueWatermark(long count, int maxId, long versionSum) {
+        this.count = count;
+        this.maxId = maxId;
+        this.versionSum = versionSum;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getMaxId() {
+        return maxId;
+    }
+
+    public long getVersionSum() {
+        return versionSum;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof IssueWatermark)) {
+            return false;
+        }
+        IssueWatermark other = (IssueWatermark) o;
+        return count == other.count && maxId == other.maxId && versionSum == other.versionSum;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(count) * 31 * 31 + maxId * 31 + Long.hashCode(versionSum);
+    }
+
+    @Override
+    public String toString() {
+        return "IssueWatermark [count=" + count + ", maxId=" + maxId + ", versionSum=" + versionSum + "]";
+    }
+}
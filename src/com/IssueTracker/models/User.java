@@ -19,6 +19,10 @@ public class User {
         this.email = email;
     }
 
+    public User(User other) {
+        this(other.id, other.name, other.email);
+    }
+
     public int getId() {
         return id;
     }
@@ -0,0 +1,75 @@
+package com.IssueTracker.repository;
+
+import com.IssueTracker.utils.DBConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.ObjIntConsumer;
+
+final class BatchInserter {
+
+    @FunctionalInterface
+    interface Binder<T> {
+        void bind(PreparedStatement stmt, T row) throws SQLException;
+    }
+
+    private BatchInserter() {
+    }
+
+    // Inserts every row in one transaction, batchSize rows per executeBatch. On failure the whole
+    // transaction is rolled back and ids already assigned to the rows are reset to 0.
+    static <T> void insertAll(String query, Collection<T> rows, int batchSize, Binder<T> binder,
+            ObjIntConsumer<T> idSetter) throws SQLException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive: " + batchSize);
+        }
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                List<T> chunk = new ArrayList<>(Math.min(batchSize, rows.size()));
+                for (T row : rows) {
+                    binder.bind(stmt, row);
+                    stmt.addBatch();
+                    chunk.add(row);
+                    if (chunk.size() == batchSize) {
+                        executeChunk(stmt, chunk, idSetter);
+                    }
+                }
+                if (!chunk.isEmpty()) {
+                    executeChunk(stmt, chunk, idSetter);
+                }
+                conn.commit();
+            } catch (SQLException | RuntimeException e) {
+                conn.rollback();
+                for (T row : rows) {
+                    idSetter.accept(row, 0);
+                }
+                throw e;
+            }
+        }
+    }
+
+    private static <T> void executeChunk(PreparedStatement stmt, List<T> chunk, ObjIntConsumer<T> idSetter)
+            throws SQLException {
+        stmt.executeBatch();
+        try (ResultSet rs = stmt.getGeneratedKeys()) {
+            int i = 0;
+            while (rs.next() && i < chunk.size()) {
+                idSetter.accept(chunk.get(i++), rs.getInt(1));
+            }
+            if (i != chunk.size()) {
+                throw new SQLException("Driver returned " + i + " generated keys for a batch of " + chunk.size());
+            }
+        }
+        chunk.clear();
+    }
+}
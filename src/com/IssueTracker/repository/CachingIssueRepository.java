@@ -0,0 +1,170 @@
+package com.IssueTracker.repository;
+
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssueBatch;
+import com.IssueTracker.models.IssueCounts;
+import com.IssueTracker.models.IssuePatch;
+import com.IssueTracker.models.IssueQuery;
+import com.IssueTracker.models.IssueSummary;
+import com.IssueTracker.models.IssueWatermark;
+import com.IssueTracker.utils.CacheStats;
+import com.IssueTracker.utils.LruCache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class CachingIssueRepository implements IssueRepository {
+
+    private final IssueRepository delegate;
+    private final LruCache<Integer, Issue> cache;
+
+    public CachingIssueRepository(IssueRepository delegate) {
+        this(delegate, Integer.getInteger("issuetracker.cache.issues.maxSize", 10_000),
+                Long.getLong("issuetracker.cache.ttlSeconds", 300));
+    }
+
+    public CachingIssueRepository(IssueRepository delegate, int maxSize, long ttlSeconds) {
+        this.delegate = delegate;
+        this.cache = new LruCache<>(maxSize, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    // Callers get their own copy so that mutating a returned Issue cannot corrupt the cached one. Misses
+    // are loaded from the primary, so a lagging replica cannot put an old row back into the cache for
+    // every session until the TTL runs out.
+    @Override
+    public Issue findById(int id) {
+        Issue issue = cache.get(id, delegate::findByIdFromPrimary);
+        return issue == null ? null : new Issue(issue);
+    }
+
+    @Override
+    public Issue findByIdFromPrimary(int id) {
+        return delegate.findByIdFromPrimary(id);
+    }
+
+    @Override
+    public List<Issue> findAll() {
+        return delegate.findAll();
+    }
+
+    @Override
+    public void save(Issue issue) {
+        delegate.save(issue);
+        cache.invalidate(issue.getId());
+    }
+
+    @Override
+    public void saveAll(Collection<Issue> issues, int batchSize) {
+        delegate.saveAll(issues, batchSize);
+    }
+
+    @Override
+    public void update(Issue issue) {
+        delegate.update(issue);
+        cache.invalidate(issue.getId());
+    }
+
+    @Override
+    public PatchResult patch(int id, IssuePatch patch) {
+        PatchResult result = delegate.patch(id, patch);
+        cache.invalidate(id);
+        return result;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        boolean deleted = delegate.delete(id);
+        cache.invalidate(id);
+        return deleted;
+    }
+
+    @Override
+    public List<Issue> getIssuesByStatus(String status) {
+        return delegate.getIssuesByStatus(status);
+    }
+
+    @Override
+    public List<Issue> getIssuesByPriority(String priority) {
+        return delegate.getIssuesByPriority(priority);
+    }
+
+    @Override
+    public List<Issue> getIssuesByUserId(int userId) {
+        return delegate.getIssuesByUserId(userId);
+    }
+
+    @Override
+    public List<Issue> findAllAfter(int afterId, int limit) {
+        return delegate.findAllAfter(afterId, limit);
+    }
+
+    @Override
+    public List<Issue> getIssuesByStatusAfter(String status, int afterId, int limit) {
+        return delegate.getIssuesByStatusAfter(status, afterId, limit);
+    }
+
+    @Override
+    public List<Issue> getIssuesByPriorityAfter(String priority, int afterId, int limit) {
+        return delegate.getIssuesByPriorityAfter(priority, afterId, limit);
+    }
+
+    @Override
+    public List<Issue> getIssuesByUserIdAfter(int userId, int afterId, int limit) {
+        return delegate.getIssuesByUserIdAfter(userId, afterId, limit);
+    }
+
+    @Override
+    public List<IssueSummary> findSummariesAfter(int afterId, int limit) {
+        return delegate.findSummariesAfter(afterId, limit);
+    }
+
+    @Override
+    public List<IssueSummary> getSummariesByStatusAfter(String status, int afterId, int limit) {
+        return delegate.getSummariesByStatusAfter(status, afterId, limit);
+    }
+
+    @Override
+    public List<IssueSummary> getSummariesByPriorityAfter(String priority, int afterId, int limit) {
+        return delegate.getSummariesByPriorityAfter(priority, afterId, limit);
+    }
+
+    @Override
+    public List<IssueSummary> getSummariesByUserIdAfter(int userId, int afterId, int limit) {
+        return delegate.getSummariesByUserIdAfter(userId, afterId, limit);
+    }
+
+    @Override
+    public List<Issue> findByQuery(IssueQuery query) {
+        return delegate.findByQuery(query);
+    }
+
+    @Override
+    public List<IssueSummary> findSummariesByQuery(IssueQuery query) {
+        return delegate.findSummariesByQuery(query);
+    }
+
+    @Override
+    public List<IssueSummary> findSummariesByIds(int[] ids) {
+        return delegate.findSummariesByIds(ids);
+    }
+
+    @Override
+    public int fillBatchAfter(int afterId, IssueBatch batch) {
+        return delegate.fillBatchAfter(afterId, batch);
+    }
+
+    @Override
+    public IssueCounts countGrouped() {
+        return delegate.countGrouped();
+    }
+
+    @Override
+    public IssueWatermark watermark() {
+        return delegate.watermark();
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+}
@@ -0,0 +1,51 @@
+package com.IssueTracker.repository;
+
+import com.IssueTracker.models.User;
+import com.IssueTracker.utils.CacheStats;
+import com.IssueTracker.utils.LruCache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+public class CachingUserRepository implements UserRepository {
+
+    private final UserRepository delegate;
+    private final LruCache<Integer, User> cache;
+
+    public CachingUserRepository(UserRepository delegate) {
+        this(delegate, Integer.getInteger("issuetracker.cache.users.maxSize", 10_000),
+                Long.getLong("issuetracker.cache.ttlSeconds", 300));
+    }
+
+    public CachingUserRepository(UserRepository delegate, int maxSize, long ttlSeconds) {
+        this.delegate = delegate;
+        this.cache = new LruCache<>(maxSize, ttlSeconds, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void save(User user) {
+        delegate.save(user);
+        cache.invalidate(user.getId());
+    }
+
+    @Override
+    public void saveAll(Collection<User> users, int batchSize) {
+        delegate.saveAll(users, batchSize);
+    }
+
+    @Override
+    public User findById(int id) {
+        User user = cache.get(id, delegate::findById);
+        return user == null ? null : new User(user);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return delegate.findAll();
+    }
+
+    public CacheStats getCacheStats() {
+        return cache.getStats();
+    }
+}
@@ -1,49 +1,78 @@
 package com.IssueTracker.repository;
 
 import com.IssueTracker.models.Comment;
-import com.IssueTracker.utils.DBConnection;
+import com.IssueTracker.models.CommentSummary;
+import com.IssueTracker.models.Issue;
 
-import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
-public class CommentRepository {
-
-    public void save(Comment comment) {
-        String query = "INSERT INTO comments (issue_id, author, content) VALUES (?, ?, ?)";
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setInt(1, comment.getIssueId());
-            stmt.setString(2, comment.getAuthor());
-            stmt.setString(3, comment.getContent());
-            stmt.executeUpdate();
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    comment.setCommentId(rs.getInt(1));
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+public interface CommentRepository {
+
+    int DEFAULT_BATCH_SIZE = 1000;
+
+    void save(Comment comment);
+
+    default void saveAll(Collection<Comment> comments) {
+        saveAll(comments, DEFAULT_BATCH_SIZE);
+    }
+
+    void saveAll(Collection<Comment> comments, int batchSize);
+
+    List<Comment> findByIssueId(int issueId);
+
+    Map<Integer, List<Comment>> findByIssueIds(Collection<Integer> issueIds);
+
+    // -1 if the count could not be read
+    long countAll();
+
+    // Comments with only a preview of their content, in id order. The JDBC repository fetches just the
+    // preview and loads the rest of a long comment when getContent() is called.
+    default List<CommentSummary> findSummariesByIssueId(int issueId) {
+        List<Comment> comments = findByIssueId(issueId);
+        List<CommentSummary> summaries = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            summaries.add(CommentSummary.of(comment));
+        }
+        return summaries;
+    }
+
+    default void attachComments(List<Issue> issues) {
+        Map<Integer, List<Comment>> byIssue = findByIssueIds(issueIds(issues));
+        for (Issue issue : issues) {
+            issue.setComments(byIssue.getOrDefault(issue.getId(), new ArrayList<>()));
         }
     }
 
-    public List<Comment> findByIssueId(int issueId) {
-        List<Comment> comments = new ArrayList<>();
-        String query = "SELECT * FROM comments WHERE issue_id = ?";
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, issueId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    int id = rs.getInt("id");
-                    String author = rs.getString("author");
-                    String content = rs.getString("content");
-                    comments.add(new Comment(issueId, id, author, content));
+    // Nothing is queried until some issue in the page first calls getComments(); that call then loads
+    // the comments of the whole page in one query.
+    default void attachCommentsLazily(List<Issue> issues) {
+        List<Integer> ids = issueIds(issues);
+        Supplier<Map<Integer, List<Comment>>> pageLoader = new Supplier<Map<Integer, List<Comment>>>() {
+            private Map<Integer, List<Comment>> loaded;
+
+            @Override
+            public synchronized Map<Integer, List<Comment>> get() {
+                if (loaded == null) {
+                    loaded = findByIssueIds(ids);
                 }
+                return loaded;
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        };
+        for (Issue issue : issues) {
+            int issueId = issue.getId();
+            issue.setCommentLoader(() -> pageLoader.get().getOrDefault(issueId, List.of()));
+        }
+    }
+
+    private static List<Integer> issueIds(List<Issue> issues) {
+        List<Integer> ids = new ArrayList<>(issues.size());
+        for (Issue issue : issues) {
+            ids.add(issue.getId());
         }
-        return comments;
+        return ids;
     }
-}
\ No newline at end of file
+}
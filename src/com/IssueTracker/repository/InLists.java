@@ -0,0 +1,60 @@
+package com.IssueTracker.repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collection;
+
+// IN lists padded to the next power of two by repeating the last value. A column then sees a handful of
+// statement shapes (1, 2, 4, 8, ...) instead of one per list length, so the pool's statement cache and the
+// server's prepared plans stay small. Repeated values do not change what IN matches.
+final class InLists {
+
+    private InLists() {
+    }
+
+    static int padded(int size) {
+        return size <= 1 ? size : Integer.highestOneBit(size - 1) << 1;
+    }
+
+    // "column = ?" for one value, otherwise "column IN (?, ...)" with padded(size) placeholders
+    static StringBuilder appendIn(StringBuilder sql, String column, int size) {
+        int count = padded(size);
+        sql.append(column).append(count == 1 ? " = ?" : " IN (?");
+        if (count > 1) {
+            for (int i = 1; i < count; i++) {
+                sql.append(", ?");
+            }
+            sql.append(')');
+        }
+        return sql;
+    }
+
+    // Binds the values from index, then repeats the last one up to padded(size); returns the next index
+    static int bind(PreparedStatement stmt, int index, Collection<?> values) throws SQLException {
+        if (values.isEmpty()) {
+            return index;
+        }
+        Object last = null;
+        for (Object value : values) {
+            stmt.setObject(index++, value);
+            last = value;
+        }
+        for (int i = values.size(); i < padded(values.size()); i++) {
+            stmt.setObject(index++, last);
+        }
+        return index;
+    }
+
+    static int bind(PreparedStatement stmt, int index, int[] values) throws SQLException {
+        if (values.length == 0) {
+            return index;
+        }
+        for (int value : values) {
+            stmt.setInt(index++, value);
+        }
+        for (int i = values.length; i < padded(values.length); i++) {
+            stmt.setInt(index++, values[values.length - 1]);
+        }
+        return index;
+    }
+}
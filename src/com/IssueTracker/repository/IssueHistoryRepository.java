@@ -0,0 +1,28 @@
+package com.IssueTracker.repository;
+
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssueChange;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Append-only log of issue changes. Entries are never updated or deleted; each one gets the next
+// sequence number, which orders the entries of an issue.
+public interface IssueHistoryRepository {
+
+    // Appends the changes as one batch, in list order, and sets their sequence numbers. Returns false, with
+    // none of them written, if the log could not take the batch.
+    boolean append(List<IssueChange> changes);
+
+    // Every change to the issue, oldest first, without the snapshots the log keeps for replay
+    List<IssueChange> findHistory(int issueId);
+
+    // The entries replay needs for the issue at the given time: the last CREATED or SNAPSHOT entry at or
+    // before it, then every later entry up to it, oldest first. Empty if the issue did not exist yet.
+    List<IssueChange> findReplayChain(int issueId, LocalDateTime at);
+
+    // The issue as it was at the given time, or null if it did not exist then (or had been deleted)
+    default Issue findAsOf(int issueId, LocalDateTime at) {
+        return IssueChange.replay(findReplayChain(issueId, at));
+    }
+}
@@ -0,0 +1,117 @@
+package com.IssueTracker.repository;
+
+import com.IssueTracker.models.IssueQuery;
+import com.IssueTracker.utils.CacheStats;
+import com.IssueTracker.utils.LruCache;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+// Turns an IssueQuery into one parameterized SELECT. The SQL depends only on the query's shape (which
+// criteria are present, how many IN values, sort, limit), so it is built once per shape and cached. The
+// same SQL string then hits the pool's per-connection statement cache and the server's prepared plan.
+// IN lists are padded by InLists, which keeps a handful of shapes per column instead of one per list length.
+public final class IssueQueryCompiler {
+
+    private static final int MAX_SHAPES = 256;
+    private static final LruCache<String, String> SHAPES = new LruCache<>(MAX_SHAPES, 1, TimeUnit.DAYS);
+
+    private IssueQueryCompiler() {
+    }
+
+    public static CacheStats getShapeCacheStats() {
+        return SHAPES.getStats();
+    }
+
+    static String sql(IssueQuery query, String columns) {
+        String shape = shape(query, columns);
+        return SHAPES.get(shape, key -> build(query, columns));
+    }
+
+    // Binds the query's values in the order build() wrote their placeholders
+    static void bind(PreparedStatement stmt, IssueQuery query) throws SQLException {
+        int index = 1;
+        index = InLists.bind(stmt, index, query.getStatuses());
+        index = InLists.bind(stmt, index, query.getPriorities());
+        index = InLists.bind(stmt, index, query.getAssigneeIds());
+        index = bindTime(stmt, index, query.getCreatedFrom());
+        index = bindTime(stmt, index, query.getCreatedTo());
+        index = bindTime(stmt, index, query.getUpdatedFrom());
+        index = bindTime(stmt, index, query.getUpdatedTo());
+        if (query.getLimit() > 0) {
+            stmt.setInt(index, query.getLimit());
+        }
+    }
+
+    private static String shape(IssueQuery query, String columns) {
+        return columns + '|' + InLists.padded(query.getStatuses().size()) + '|'
+                + InLists.padded(query.getPriorities().size()) + '|' + InLists.padded(query.getAssigneeIds().size())
+                + '|' + flag(query.getCreatedFrom()) + flag(query.getCreatedTo()) + flag(query.getUpdatedFrom())
+                + flag(query.getUpdatedTo()) + '|'
+                + query.getSortField() + (query.isDescending() ? "-" : "+") + (query.getLimit() > 0 ? "L" : "");
+    }
+
+    private static String build(IssueQuery query, String columns) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM issues");
+        String joiner = " WHERE ";
+        if (!query.getStatuses().isEmpty()) {
+            InLists.appendIn(sql.append(joiner), "status", query.getStatuses().size());
+            joiner = " AND ";
+        }
+        if (!query.getPriorities().isEmpty()) {
+            InLists.appendIn(sql.append(joiner), "priority", query.getPriorities().size());
+            joiner = " AND ";
+        }
+        if (!query.getAssigneeIds().isEmpty()) {
+            InLists.appendIn(sql.append(joiner), "assignee_id", query.getAssigneeIds().size());
+            joiner = " AND ";
+        }
+        if (query.getCreatedFrom() != null) {
+            sql.append(joiner).append("created_at >= ?");
+            joiner = " AND ";
+        }
+        if (query.getCreatedTo() != null) {
+            sql.append(joiner).append("created_at < ?");
+            joiner = " AND ";
+        }
+        if (query.getUpdatedFrom() != null) {
+            sql.append(joiner).append("updated_at >= ?");
+            joiner = " AND ";
+        }
+        if (query.getUpdatedTo() != null) {
+            sql.append(joiner).append("updated_at < ?");
+        }
+        String direction = query.isDescending() ? " DESC" : "";
+        sql.append(" ORDER BY ");
+        switch (query.getSortField()) {
+            case CREATED_AT:
+                sql.append("created_at").append(direction).append(", ");
+                break;
+            case UPDATED_AT:
+                sql.append("updated_at").append(direction).append(", ");
+                break;
+            default:
+                break;
+        }
+        sql.append("id").append(direction);
+        if (query.getLimit() > 0) {
+            sql.append(" LIMIT ?");
+        }
+        return sql.toString();
+    }
+
+    private static int bindTime(PreparedStatement stmt, int index, LocalDateTime value) throws SQLException {
+        if (value == null) {
+            return index;
+        }
+        stmt.setTimestamp(index, Timestamp.valueOf(value));
+        return index + 1;
+    }
+
+    private static char flag(Object value) {
+        return value == null ? '-' : '+';
+    }
+}
@@ -1,153 +1,222 @@
 package com.IssueTracker.repository;
 
 import com.IssueTracker.models.Issue;
-import com.IssueTracker.utils.DBConnection;
+import com.IssueTracker.models.IssueBatch;
+import com.IssueTracker.models.IssueCounts;
+import com.IssueTracker.models.IssuePatch;
+import com.IssueTracker.models.IssuePriority;
+import com.IssueTracker.models.IssueQuery;
+import com.IssueTracker.models.IssueStatus;
+import com.IssueTracker.models.IssueSummary;
+import com.IssueTracker.models.IssueWatermark;
 
-import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
-public class IssueRepository {
-
-    public Issue findById(int id) {
-        String query = "SELECT * FROM issues WHERE id = ?";
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, id);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    return mapResultSetToIssue(rs);
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return null;
+public interface IssueRepository {
+
+    int DEFAULT_BATCH_SIZE = 1000;
+
+    // FAILED: the write itself failed (a constraint violation, a lost connection); nothing was changed
+    enum PatchResult {
+        UPDATED, NOT_FOUND, CONFLICT, FAILED
     }
 
-    public List<Issue> findAll() {
-        List<Issue> issues = new ArrayList<>();
-        String query = "SELECT * FROM issues";
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(query);
-                ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-                issues.add(mapResultSetToIssue(rs));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+    Issue findById(int id);
+
+    // For callers that keep what they read, like CachingIssueRepository. The JDBC repository reads the
+    // primary here: a replica may still return the row as it was before a recent write.
+    default Issue findByIdFromPrimary(int id) {
+        return findById(id);
+    }
+
+    List<Issue> findAll();
+
+    void save(Issue issue);
+
+    default void saveAll(Collection<Issue> issues) {
+        saveAll(issues, DEFAULT_BATCH_SIZE);
+    }
+
+    void saveAll(Collection<Issue> issues, int batchSize);
+
+    void update(Issue issue);
+
+    PatchResult patch(int id, IssuePatch patch);
+
+    // False if nothing was deleted: there is no such issue, or the delete failed (in MySQL, e.g. because the
+    // issue still has comments)
+    boolean delete(int id);
+
+    List<Issue> getIssuesByStatus(String status);
+
+    List<Issue> getIssuesByPriority(String priority);
+
+    List<Issue> getIssuesByUserId(int userId);
+
+    List<Issue> findAllAfter(int afterId, int limit);
+
+    List<Issue> getIssuesByStatusAfter(String status, int afterId, int limit);
+
+    List<Issue> getIssuesByPriorityAfter(String priority, int afterId, int limit);
+
+    List<Issue> getIssuesByUserIdAfter(int userId, int afterId, int limit);
+
+    default Stream<Issue> streamAll(int pageSize) {
+        return KeysetPager.stream(this::findAllAfter, Issue::getId, pageSize);
+    }
+
+    default Stream<Issue> streamByStatus(String status, int pageSize) {
+        return KeysetPager.stream((afterId, limit) -> getIssuesByStatusAfter(status, afterId, limit), Issue::getId,
+                pageSize);
+    }
+
+    default Stream<Issue> streamByPriority(String priority, int pageSize) {
+        return KeysetPager.stream((afterId, limit) -> getIssuesByPriorityAfter(priority, afterId, limit),
+                Issue::getId, pageSize);
+    }
+
+    default Stream<Issue> streamByUserId(int userId, int pageSize) {
+        return KeysetPager.stream((afterId, limit) -> getIssuesByUserIdAfter(userId, afterId, limit), Issue::getId,
+                pageSize);
+    }
+
+    // Summary pages leave out the description. These defaults read full rows and drop it; the JDBC and
+    // embedded repositories override them to skip it at the source.
+    default List<IssueSummary> findSummariesAfter(int afterId, int limit) {
+        return summarize(findAllAfter(afterId, limit));
+    }
+
+    default List<IssueSummary> getSummariesByStatusAfter(String status, int afterId, int limit) {
+        return summarize(getIssuesByStatusAfter(status, afterId, limit));
+    }
+
+    default List<IssueSummary> getSummariesByPriorityAfter(String priority, int afterId, int limit) {
+        return summarize(getIssuesByPriorityAfter(priority, afterId, limit));
+    }
+
+    default List<IssueSummary> getSummariesByUserIdAfter(int userId, int afterId, int limit) {
+        return summarize(getIssuesByUserIdAfter(userId, afterId, limit));
+    }
+
+    // Summaries from these streams load their full issue through findById on the first getIssue() call
+    default Stream<IssueSummary> streamSummaries(int pageSize) {
+        return KeysetPager.stream((afterId, limit) -> attachIssueLoaders(findSummariesAfter(afterId, limit)),
+                IssueSummary::getId, pageSize);
+    }
+
+    default Stream<IssueSummary> streamSummariesByStatus(String status, int pageSize) {
+        return KeysetPager.stream(
+                (afterId, limit) -> attachIssueLoaders(getSummariesByStatusAfter(status, afterId, limit)),
+                IssueSummary::getId, pageSize);
+    }
+
+    default Stream<IssueSummary> streamSummariesByPriority(String priority, int pageSize) {
+        return KeysetPager.stream(
+                (afterId, limit) -> attachIssueLoaders(getSummariesByPriorityAfter(priority, afterId, limit)),
+                IssueSummary::getId, pageSize);
+    }
+
+    default Stream<IssueSummary> streamSummariesByUserId(int userId, int pageSize) {
+        return KeysetPager.stream(
+                (afterId, limit) -> attachIssueLoaders(getSummariesByUserIdAfter(userId, afterId, limit)),
+                IssueSummary::getId, pageSize);
+    }
+
+    default List<IssueSummary> attachIssueLoaders(List<IssueSummary> summaries) {
+        for (IssueSummary summary : summaries) {
+            int id = summary.getId();
+            summary.setIssueLoader(() -> findById(id));
         }
-        return issues;
-    }
-
-    public void save(Issue issue) {
-        String query = "INSERT INTO issues (title, description, status, priority, assignee_id) VALUES (?, ?, ?, ?, ?)";
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, issue.getTitle());
-            stmt.setString(2, issue.getDescription());
-            stmt.setString(3, issue.getStatus());
-            stmt.setString(4, issue.getPriority());
-            stmt.setInt(5, issue.getAssigneeId());
-            stmt.executeUpdate();
-            try (ResultSet rs = stmt.getGeneratedKeys()) {
-                if (rs.next()) {
-                    issue.setId(rs.getInt(1));
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        return summaries;
+    }
+
+    // Every issue matching all of the query's criteria, in its sort order. This default scans all issues
+    // and filters them in memory; the JDBC and embedded repositories override it.
+    default List<Issue> findByQuery(IssueQuery query) {
+        List<Issue> matches = new ArrayList<>();
+        try (Stream<Issue> all = streamAll(DEFAULT_BATCH_SIZE)) {
+            all.filter(query::matches).forEach(matches::add);
         }
+        matches.sort(query.comparator());
+        return query.getLimit() > 0 && matches.size() > query.getLimit()
+                ? new ArrayList<>(matches.subList(0, query.getLimit())) : matches;
     }
 
-    public void update(Issue issue) {
-        String query = "UPDATE issues SET title = ?, description = ?, status = ?, priority = ?, assignee_id = ? WHERE id = ?";
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, issue.getTitle());
-            stmt.setString(2, issue.getDescription());
-            stmt.setString(3, issue.getStatus());
-            stmt.setString(4, issue.getPriority());
-            stmt.setInt(5, issue.getAssigneeId());
-            stmt.setInt(6, issue.getId());
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
+    default List<IssueSummary> findSummariesByQuery(IssueQuery query) {
+        return summarize(findByQuery(query));
+    }
+
+    // Summaries of the given issues in the order of ids; ids with no issue are skipped
+    default List<IssueSummary> findSummariesByIds(int[] ids) {
+        List<IssueSummary> summaries = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            Issue issue = findById(id);
+            if (issue != null) {
+                summaries.add(IssueSummary.of(issue));
+            }
         }
+        return summaries;
     }
 
-    public void delete(int id) {
-        String query = "DELETE FROM issues WHERE id = ?";
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, id);
-            stmt.executeUpdate();
-        } catch (SQLException e) {
-            e.printStackTrace();
+    // Clears the batch and fills it with up to batch.capacity() issues with id > afterId, in id order.
+    // Returns the number of rows read. This default goes through Issue objects; implementations override
+    // it to fill the columns without them.
+    default int fillBatchAfter(int afterId, IssueBatch batch) {
+        batch.clear();
+        for (Issue issue : findAllAfter(afterId, batch.capacity())) {
+            batch.add(issue.getId(), IssueStatus.codeOf(issue.getStatus()), IssuePriority.codeOf(issue.getPriority()),
+                    IssueBatch.toEpochSecond(issue.getCreatedAt()), IssueBatch.toEpochSecond(issue.getUpdatedAt()),
+                    issue.getAssigneeId());
         }
+        return batch.size();
     }
 
-    public List<Issue> getIssuesByStatus(String status) {
-        List<Issue> issues = new ArrayList<>();
-        String query = "SELECT * FROM issues WHERE status = ?";
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, status);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    issues.add(mapResultSetToIssue(rs));
-                }
+    // Walks every issue one batch at a time, reusing the given batch for each page
+    default void scanBatches(IssueBatch batch, Consumer<IssueBatch> consumer) {
+        int afterId = 0;
+        while (fillBatchAfter(afterId, batch) > 0) {
+            consumer.accept(batch);
+            if (!batch.isFull()) {
+                break;
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
+            afterId = batch.lastId();
         }
-        return issues;
-    }
-
-    public List<Issue> getIssuesByPriority(String priority) {
-        List<Issue> issues = new ArrayList<>();
-        String query = "SELECT * FROM issues WHERE priority = ?";
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setString(1, priority);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    issues.add(mapResultSetToIssue(rs));
-                }
+    }
+
+    // Counts every issue by status, priority and assignee
+    default IssueCounts countGrouped() {
+        IssueCounts counts = new IssueCounts();
+        scanBatches(new IssueBatch(DEFAULT_BATCH_SIZE), batch -> {
+            for (int i = 0; i < batch.size(); i++) {
+                counts.add(batch.getStatusCode(i), batch.getPriorityCode(i), batch.getAssigneeId(i), 1);
             }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        });
+        return counts;
+    }
+
+    // This default reads every issue; the JDBC repository asks the primary for the aggregates
+    default IssueWatermark watermark() {
+        long[] countAndSum = new long[2];
+        int[] maxId = new int[1];
+        try (Stream<Issue> all = streamAll(DEFAULT_BATCH_SIZE)) {
+            all.forEach(issue -> {
+                countAndSum[0]++;
+                countAndSum[1] += issue.getVersion();
+                maxId[0] = Math.max(maxId[0], issue.getId());
+            });
         }
-        return issues;
-    }
-
-    public List<Issue> getIssuesByUserId(int userId) {
-        List<Issue> issues = new ArrayList<>();
-        String query = "SELECT * FROM issues WHERE assignee_id = ?";
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, userId);
-            try (ResultSet rs = stmt.executeQuery()) {
-                while (rs.next()) {
-                    issues.add(mapResultSetToIssue(rs));
-                }
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
+        return new IssueWatermark(countAndSum[0], maxId[0], countAndSum[1]);
+    }
+
+    private static List<IssueSummary> summarize(List<Issue> issues) {
+        List<IssueSummary> summaries = new ArrayList<>(issues.size());
+        for (Issue issue : issues) {
+            summaries.add(IssueSummary.of(issue));
         }
-        return issues;
-    }
-
-    private Issue mapResultSetToIssue(ResultSet rs) throws SQLException {
-        Issue issue = new Issue();
-        issue.setId(rs.getInt("id"));
-        issue.setTitle(rs.getString("title"));
-        issue.setDescription(rs.getString("description"));
-        issue.setStatus(rs.getString("status"));
-        issue.setPriority(rs.getString("priority"));
-        issue.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
-        issue.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
-        issue.setAssigneeId(rs.getInt("assignee_id"));
-        return issue;
-    }
-}
\ No newline at end of file
+        return summaries;
+    }
+}
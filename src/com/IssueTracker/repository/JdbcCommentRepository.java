@@ -0,0 +1,158 @@
+package com.IssueTracker.repository;
+
+import com.IssueTracker.models.Comment;
+import com.IssueTracker.models.CommentSummary;
+import com.IssueTracker.utils.DBConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class JdbcCommentRepository implements CommentRepository {
+
+    public static final String FIND_BY_ISSUE_QUERY = "SELECT * FROM comments WHERE issue_id = ?";
+    public static final String SUMMARIES_BY_ISSUE_QUERY = "SELECT id, author, LEFT(content, "
+            + CommentSummary.PREVIEW_LENGTH + "), CHAR_LENGTH(content) FROM comments WHERE issue_id = ? ORDER BY id";
+    private static final String CONTENT_QUERY = "SELECT content FROM comments WHERE id = ?";
+    private static final String COUNT_QUERY = "SELECT COUNT(*) FROM comments";
+
+    // A power of two, so a full chunk needs no padding
+    private static final int MAX_IN_LIST = 1024;
+
+    @Override
+    public void save(Comment comment) {
+        String query = "INSERT INTO comments (issue_id, author, content) VALUES (?, ?, ?)";
+        try (Connection conn = DBConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setInt(1, comment.getIssueId());
+            stmt.setString(2, comment.getAuthor());
+            stmt.setString(3, comment.getContent());
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    comment.setCommentId(rs.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Comment> comments, int batchSize) {
+        String query = "INSERT INTO comments (issue_id, author, content) VALUES (?, ?, ?)";
+        try {
+            BatchInserter.insertAll(query, comments, batchSize, (stmt, comment) -> {
+                stmt.setInt(1, comment.getIssueId());
+                stmt.setString(2, comment.getAuthor());
+                stmt.setString(3, comment.getContent());
+            }, Comment::setCommentId);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public List<Comment> findByIssueId(int issueId) {
+        List<Comment> comments = new ArrayList<>();
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(FIND_BY_ISSUE_QUERY)) {
+            stmt.setInt(1, issueId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt("id");
+                    String author = rs.getString("author");
+                    String content = rs.getString("content");
+                    comments.add(new Comment(issueId, id, author, content));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return comments;
+    }
+
+    @Override
+    public List<CommentSummary> findSummariesByIssueId(int issueId) {
+        List<CommentSummary> summaries = new ArrayList<>();
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(SUMMARIES_BY_ISSUE_QUERY)) {
+            stmt.setInt(1, issueId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    int id = rs.getInt(1);
+                    String preview = rs.getString(3);
+                    CommentSummary summary = new CommentSummary(id, issueId, rs.getString(2),
+                            preview == null ? "" : preview, rs.getInt(4));
+                    if (summary.isTruncated()) {
+                        summary.setContentLoader(() -> findContent(id));
+                    }
+                    summaries.add(summary);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return summaries;
+    }
+
+    // From the primary, like JdbcIssueRepository.watermark()
+    @Override
+    public long countAll() {
+        try (Connection conn = DBConnection.getPrimaryReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(COUNT_QUERY);
+                ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                return rs.getLong(1);
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return -1;
+    }
+
+    private String findContent(int commentId) {
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(CONTENT_QUERY)) {
+            stmt.setInt(1, commentId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return rs.getString(1);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    @Override
+    public Map<Integer, List<Comment>> findByIssueIds(Collection<Integer> issueIds) {
+        Map<Integer, List<Comment>> byIssue = new HashMap<>();
+        List<Integer> ids = issueIds.stream().distinct().collect(Collectors.toList());
+        for (int from = 0; from < ids.size(); from += MAX_IN_LIST) {
+            List<Integer> chunk = ids.subList(from, Math.min(from + MAX_IN_LIST, ids.size()));
+            String query = InLists.appendIn(new StringBuilder("SELECT * FROM comments WHERE "), "issue_id",
+                    chunk.size()).append(" ORDER BY issue_id, id").toString();
+            try (Connection conn = DBConnection.getReadConnection();
+                    PreparedStatement stmt = conn.prepareStatement(query)) {
+                InLists.bind(stmt, 1, chunk);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        int issueId = rs.getInt("issue_id");
+                        Comment comment = new Comment(issueId, rs.getInt("id"), rs.getString("author"),
+                                rs.getString("content"));
+                        byIssue.computeIfAbsent(issueId, k -> new ArrayList<>()).add(comment);
+                    }
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+            }
+        }
+        return byIssue;
+    }
+}
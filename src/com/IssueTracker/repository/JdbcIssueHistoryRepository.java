@@ -0,0 +1,108 @@
+package com.IssueTracker.repository;
+
+import com.IssueTracker.models.IssueChange;
+import com.IssueTracker.utils.DBConnection;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// issue_events holds one row per change. An UPDATED row fills only the columns the change set and leaves
+// the rest NULL, so a status change writes a few bytes rather than a copy of the description. The only
+// secondary index is (issue_id, id), which serves both the history and the replay query.
+public class JdbcIssueHistoryRepository implements IssueHistoryRepository {
+
+    private static final String COLUMNS = "id, issue_id, kind, changed_at, title, description, status, priority, "
+            + "assignee_id";
+    private static final String INSERT_QUERY = "INSERT INTO issue_events (issue_id, kind, changed_at, title, "
+            + "description, status, priority, assignee_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    public static final String HISTORY_QUERY = "SELECT " + COLUMNS + " FROM issue_events"
+            + " WHERE issue_id = ? AND kind <> " + IssueChange.Kind.SNAPSHOT.code() + " ORDER BY id";
+    // One round trip: the newest base entry at or before the time, and everything after it up to that time
+    public static final String REPLAY_QUERY = "SELECT " + COLUMNS + " FROM issue_events"
+            + " WHERE issue_id = ? AND changed_at <= ? AND id >= (SELECT MAX(id) FROM issue_events"
+            + " WHERE issue_id = ? AND kind IN (" + IssueChange.Kind.CREATED.code() + ", "
+            + IssueChange.Kind.SNAPSHOT.code() + ") AND changed_at <= ?) ORDER BY id";
+
+    @Override
+    public boolean append(List<IssueChange> changes) {
+        if (changes.isEmpty()) {
+            return true;
+        }
+        try (Connection conn = DBConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(INSERT_QUERY, Statement.RETURN_GENERATED_KEYS)) {
+                for (IssueChange change : changes) {
+                    stmt.setInt(1, change.getIssueId());
+                    stmt.setByte(2, change.getKind().code());
+                    stmt.setTimestamp(3, Timestamp.valueOf(change.getChangedAt()));
+                    stmt.setString(4, change.getTitle());
+                    stmt.setString(5, change.getDescription());
+                    stmt.setString(6, change.getStatus());
+                    stmt.setString(7, change.getPriority());
+                    stmt.setObject(8, change.getAssigneeId(), Types.INTEGER);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                try (ResultSet rs = stmt.getGeneratedKeys()) {
+                    for (int i = 0; i < changes.size() && rs.next(); i++) {
+                        changes.get(i).setSequence(rs.getLong(1));
+                    }
+                }
+                conn.commit();
+                return true;
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public List<IssueChange> findHistory(int issueId) {
+        List<IssueChange> changes = new ArrayList<>();
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(HISTORY_QUERY)) {
+            stmt.setInt(1, issueId);
+            readChanges(stmt, changes);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return changes;
+    }
+
+    @Override
+    public List<IssueChange> findReplayChain(int issueId, LocalDateTime at) {
+        List<IssueChange> changes = new ArrayList<>();
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(REPLAY_QUERY)) {
+            Timestamp time = Timestamp.valueOf(at);
+            stmt.setInt(1, issueId);
+            stmt.setTimestamp(2, time);
+            stmt.setInt(3, issueId);
+            stmt.setTimestamp(4, time);
+            readChanges(stmt, changes);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return changes;
+    }
+
+    private static void readChanges(PreparedStatement stmt, List<IssueChange> changes) throws SQLException {
+        try (ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                changes.add(mapResultSetToChange(rs));
+            }
+        }
+    }
+
+    public static IssueChange mapResultSetToChange(ResultSet rs) throws SQLException {
+        return new IssueChange(rs.getLong("id"), rs.getInt("issue_id"), IssueChange.Kind.fromCode(rs.getByte("kind")),
+                rs.getTimestamp("changed_at").toLocalDateTime(), rs.getString("title"), rs.getString("description"),
+                rs.getString("status"), rs.getString("priority"), rs.getObject("assignee_id", Integer.class));
+    }
+}
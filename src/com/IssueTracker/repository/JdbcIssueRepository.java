@@ -0,0 +1,517 @@
+package com.IssueTracker.repository;
+
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssueBatch;
+import com.IssueTracker.models.IssueCounts;
+import com.IssueTracker.models.IssuePatch;
+import com.IssueTracker.models.IssuePriority;
+import com.IssueTracker.models.IssueQuery;
+import com.IssueTracker.models.IssueStatus;
+import com.IssueTracker.models.IssueSummary;
+import com.IssueTracker.models.IssueWatermark;
+import com.IssueTracker.utils.DBConnection;
+import com.IssueTracker.utils.IntHashMap;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class JdbcIssueRepository implements IssueRepository {
+
+    public static final String FIND_BY_ID_QUERY = "SELECT * FROM issues WHERE id = ?";
+    public static final String PAGE_QUERY = "SELECT * FROM issues WHERE id > ? ORDER BY id LIMIT ?";
+    public static final String PAGE_BY_STATUS_QUERY =
+            "SELECT * FROM issues WHERE status = ? AND id > ? ORDER BY id LIMIT ?";
+    public static final String PAGE_BY_PRIORITY_QUERY =
+            "SELECT * FROM issues WHERE priority = ? AND id > ? ORDER BY id LIMIT ?";
+    public static final String PAGE_BY_ASSIGNEE_QUERY =
+            "SELECT * FROM issues WHERE assignee_id = ? AND id > ? ORDER BY id LIMIT ?";
+
+    // List views never show the description, so summary pages leave the TEXT column on the server
+    private static final String SUMMARY_COLUMN_LIST = "id, title, status, priority, assignee_id, updated_at";
+    private static final String SUMMARY_COLUMNS = "SELECT " + SUMMARY_COLUMN_LIST + " FROM issues";
+    public static final String SUMMARY_PAGE_QUERY = SUMMARY_COLUMNS + " WHERE id > ? ORDER BY id LIMIT ?";
+    public static final String SUMMARY_PAGE_BY_STATUS_QUERY =
+            SUMMARY_COLUMNS + " WHERE status = ? AND id > ? ORDER BY id LIMIT ?";
+    public static final String SUMMARY_PAGE_BY_PRIORITY_QUERY =
+            SUMMARY_COLUMNS + " WHERE priority = ? AND id > ? ORDER BY id LIMIT ?";
+    public static final String SUMMARY_PAGE_BY_ASSIGNEE_QUERY =
+            SUMMARY_COLUMNS + " WHERE assignee_id = ? AND id > ? ORDER BY id LIMIT ?";
+
+    // Status and priority arrive as byte codes and timestamps as epoch seconds, so the columnar reader
+    // never materializes a String or Timestamp per row
+    public static final String BATCH_PAGE_QUERY = "SELECT id, " + codeCase("status", IssueStatus.values()) + ", "
+            + codeCase("priority", IssuePriority.values())
+            + ", UNIX_TIMESTAMP(created_at), UNIX_TIMESTAMP(updated_at), assignee_id"
+            + " FROM issues WHERE id > ? ORDER BY id LIMIT ?";
+    public static final String COUNT_GROUPED_QUERY =
+            "SELECT status, priority, assignee_id, COUNT(*) FROM issues GROUP BY status, priority, assignee_id";
+    public static final String WATERMARK_QUERY =
+            "SELECT COUNT(*), COALESCE(MAX(id), 0), COALESCE(SUM(version), 0) FROM issues";
+
+    private static final int MAX_FETCH_SIZE = 1000;
+
+    @Override
+    public Issue findById(int id) {
+        try (Connection conn = DBConnection.getReadConnection()) {
+            return findById(conn, id);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    @Override
+    public Issue findByIdFromPrimary(int id) {
+        try (Connection conn = DBConnection.getPrimaryReadConnection()) {
+            return findById(conn, id);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    private static Issue findById(Connection conn, int id) throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(FIND_BY_ID_QUERY)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapResultSetToIssue(rs) : null;
+            }
+        }
+    }
+
+    @Override
+    public List<Issue> findAll() {
+        List<Issue> issues = new ArrayList<>();
+        String query = "SELECT * FROM issues";
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(query);
+                ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                issues.add(mapResultSetToIssue(rs));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return issues;
+    }
+
+    @Override
+    public void save(Issue issue) {
+        String query = "INSERT INTO issues (title, description, status, priority, assignee_id) VALUES (?, ?, ?, ?, ?)";
+        try (Connection conn = DBConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, issue.getTitle());
+            stmt.setString(2, issue.getDescription());
+            stmt.setString(3, issue.getStatus());
+            stmt.setString(4, issue.getPriority());
+            stmt.setInt(5, issue.getAssigneeId());
+            stmt.executeUpdate();
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (rs.next()) {
+                    issue.setId(rs.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<Issue> issues, int batchSize) {
+        String query = "INSERT INTO issues (title, description, status, priority, assignee_id) VALUES (?, ?, ?, ?, ?)";
+        try {
+            BatchInserter.insertAll(query, issues, batchSize, (stmt, issue) -> {
+                stmt.setString(1, issue.getTitle());
+                stmt.setString(2, issue.getDescription());
+                stmt.setString(3, issue.getStatus());
+                stmt.setString(4, issue.getPriority());
+                stmt.setInt(5, issue.getAssigneeId());
+            }, Issue::setId);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void update(Issue issue) {
+        String query = "UPDATE issues SET title = ?, description = ?, status = ?, priority = ?, assignee_id = ?,"
+                + " version = version + 1 WHERE id = ?";
+        try (Connection conn = DBConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, issue.getTitle());
+            stmt.setString(2, issue.getDescription());
+            stmt.setString(3, issue.getStatus());
+            stmt.setString(4, issue.getPriority());
+            stmt.setInt(5, issue.getAssigneeId());
+            stmt.setInt(6, issue.getId());
+            stmt.executeUpdate();
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Writes only the columns present in the patch, in one round trip, and bumps the version. Connector/J
+    // reports matched (not changed) rows by default, so 0 means the id is missing or, with expectedVersion
+    // set, that the row was written since it was read; only then is a second query run to tell which. The
+    // version rather than updated_at is compared: two writes in the same second share an updated_at, and
+    // ON UPDATE CURRENT_TIMESTAMP leaves it alone when no value changes. The new version comes back as
+    // the statement's generated key through LAST_INSERT_ID(expr), still in the same round trip.
+    @Override
+    public PatchResult patch(int id, IssuePatch patch) {
+        if (patch.isEmpty() && patch.getExpectedVersion() == null) {
+            return exists(id) ? PatchResult.UPDATED : PatchResult.NOT_FOUND;
+        }
+        List<Object> params = new ArrayList<>();
+        StringBuilder query = new StringBuilder("UPDATE issues SET ");
+        appendAssignment(query, params, "title", patch.getTitle());
+        appendAssignment(query, params, "description", patch.getDescription());
+        appendAssignment(query, params, "status", patch.getStatus());
+        appendAssignment(query, params, "priority", patch.getPriority());
+        appendAssignment(query, params, "assignee_id", patch.getAssigneeId());
+        if (params.isEmpty()) {
+            query.append("id = id");
+        } else {
+            query.append(", version = LAST_INSERT_ID(version + 1)");
+        }
+        query.append(" WHERE id = ?");
+        params.add(id);
+        if (patch.getExpectedVersion() != null) {
+            query.append(" AND version = ?");
+            params.add(patch.getExpectedVersion());
+        }
+        try (Connection conn = DBConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(query.toString(), Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < params.size(); i++) {
+                stmt.setObject(i + 1, params.get(i));
+            }
+            if (stmt.executeUpdate() > 0) {
+                if (patch.isEmpty()) {
+                    patch.setAppliedVersion(patch.getExpectedVersion());
+                } else {
+                    try (ResultSet rs = stmt.getGeneratedKeys()) {
+                        if (rs.next()) {
+                            patch.setAppliedVersion(rs.getInt(1));
+                        }
+                    }
+                }
+                return PatchResult.UPDATED;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return PatchResult.FAILED;
+        }
+        return patch.getExpectedVersion() != null && exists(id) ? PatchResult.CONFLICT : PatchResult.NOT_FOUND;
+    }
+
+    private static void appendAssignment(StringBuilder query, List<Object> params, String column, Object value) {
+        if (value != null) {
+            if (!params.isEmpty()) {
+                query.append(", ");
+            }
+            query.append(column).append(" = ?");
+            params.add(value);
+        }
+    }
+
+    private boolean exists(int id) {
+        String query = "SELECT 1 FROM issues WHERE id = ?";
+        try (Connection conn = DBConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return false;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        String query = "DELETE FROM issues WHERE id = ?";
+        try (Connection conn = DBConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, id);
+            return stmt.executeUpdate() > 0;
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public List<Issue> getIssuesByStatus(String status) {
+        List<Issue> issues = new ArrayList<>();
+        String query = "SELECT * FROM issues WHERE status = ?";
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, status);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    issues.add(mapResultSetToIssue(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return issues;
+    }
+
+    @Override
+    public List<Issue> getIssuesByPriority(String priority) {
+        List<Issue> issues = new ArrayList<>();
+        String query = "SELECT * FROM issues WHERE priority = ?";
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setString(1, priority);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    issues.add(mapResultSetToIssue(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return issues;
+    }
+
+    @Override
+    public List<Issue> getIssuesByUserId(int userId) {
+        List<Issue> issues = new ArrayList<>();
+        String query = "SELECT * FROM issues WHERE assignee_id = ?";
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setInt(1, userId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    issues.add(mapResultSetToIssue(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return issues;
+    }
+
+    @Override
+    public List<Issue> findAllAfter(int afterId, int limit) {
+        return findPage(PAGE_QUERY, null, afterId, limit);
+    }
+
+    @Override
+    public List<Issue> getIssuesByStatusAfter(String status, int afterId, int limit) {
+        return findPage(PAGE_BY_STATUS_QUERY, status, afterId, limit);
+    }
+
+    @Override
+    public List<Issue> getIssuesByPriorityAfter(String priority, int afterId, int limit) {
+        return findPage(PAGE_BY_PRIORITY_QUERY, priority, afterId, limit);
+    }
+
+    @Override
+    public List<Issue> getIssuesByUserIdAfter(int userId, int afterId, int limit) {
+        return findPage(PAGE_BY_ASSIGNEE_QUERY, userId, afterId, limit);
+    }
+
+    private List<Issue> findPage(String query, Object filter, int afterId, int limit) {
+        return findPage(query, filter, afterId, limit, JdbcIssueRepository::mapResultSetToIssue);
+    }
+
+    @Override
+    public List<IssueSummary> findSummariesAfter(int afterId, int limit) {
+        return findPage(SUMMARY_PAGE_QUERY, null, afterId, limit, JdbcIssueRepository::mapResultSetToSummary);
+    }
+
+    @Override
+    public List<IssueSummary> getSummariesByStatusAfter(String status, int afterId, int limit) {
+        return findPage(SUMMARY_PAGE_BY_STATUS_QUERY, status, afterId, limit,
+                JdbcIssueRepository::mapResultSetToSummary);
+    }
+
+    @Override
+    public List<IssueSummary> getSummariesByPriorityAfter(String priority, int afterId, int limit) {
+        return findPage(SUMMARY_PAGE_BY_PRIORITY_QUERY, priority, afterId, limit,
+                JdbcIssueRepository::mapResultSetToSummary);
+    }
+
+    @Override
+    public List<IssueSummary> getSummariesByUserIdAfter(int userId, int afterId, int limit) {
+        return findPage(SUMMARY_PAGE_BY_ASSIGNEE_QUERY, userId, afterId, limit,
+                JdbcIssueRepository::mapResultSetToSummary);
+    }
+
+    // One IN query for the page, padded by InLists; rows come back in index order, so they are put back into
+    // the order of ids
+    @Override
+    public List<IssueSummary> findSummariesByIds(int[] ids) {
+        List<IssueSummary> summaries = new ArrayList<>(ids.length);
+        if (ids.length == 0) {
+            return summaries;
+        }
+        String query = InLists.appendIn(new StringBuilder(SUMMARY_COLUMNS).append(" WHERE "), "id", ids.length)
+                .toString();
+        IntHashMap<IssueSummary> byId = new IntHashMap<>();
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(query)) {
+            InLists.bind(stmt, 1, ids);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    IssueSummary summary = mapResultSetToSummary(rs);
+                    byId.put(summary.getId(), summary);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        for (int id : ids) {
+            IssueSummary summary = byId.get(id);
+            if (summary != null) {
+                summaries.add(summary);
+            }
+        }
+        return summaries;
+    }
+
+    private <T> List<T> findPage(String query, Object filter, int afterId, int limit, RowMapper<T> mapper) {
+        List<T> rows = new ArrayList<>(Math.min(limit, MAX_FETCH_SIZE));
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(query)) {
+            stmt.setFetchSize(Math.min(limit, MAX_FETCH_SIZE));
+            int index = 1;
+            if (filter != null) {
+                stmt.setObject(index++, filter);
+            }
+            stmt.setInt(index++, afterId);
+            stmt.setInt(index, limit);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return rows;
+    }
+
+    @Override
+    public List<Issue> findByQuery(IssueQuery query) {
+        return findByQuery(query, "*", JdbcIssueRepository::mapResultSetToIssue);
+    }
+
+    @Override
+    public List<IssueSummary> findSummariesByQuery(IssueQuery query) {
+        return findByQuery(query, SUMMARY_COLUMN_LIST, JdbcIssueRepository::mapResultSetToSummary);
+    }
+
+    // The SQL findSummariesByQuery runs for queries of this shape, e.g. for EXPLAIN
+    public static String summaryQuerySql(IssueQuery query) {
+        return IssueQueryCompiler.sql(query, SUMMARY_COLUMN_LIST);
+    }
+
+    private <T> List<T> findByQuery(IssueQuery query, String columns, RowMapper<T> mapper) {
+        List<T> rows = new ArrayList<>();
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(IssueQueryCompiler.sql(query, columns))) {
+            if (query.getLimit() > 0) {
+                stmt.setFetchSize(Math.min(query.getLimit(), MAX_FETCH_SIZE));
+            }
+            IssueQueryCompiler.bind(stmt, query);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(mapper.map(rs));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return rows;
+    }
+
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    @Override
+    public int fillBatchAfter(int afterId, IssueBatch batch) {
+        batch.clear();
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(BATCH_PAGE_QUERY)) {
+            stmt.setFetchSize(Math.min(batch.capacity(), MAX_FETCH_SIZE));
+            stmt.setInt(1, afterId);
+            stmt.setInt(2, batch.capacity());
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    batch.add(rs.getInt(1), rs.getByte(2), rs.getByte(3), rs.getLong(4), rs.getLong(5), rs.getInt(6));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return batch.size();
+    }
+
+    // Only one row per distinct (status, priority, assignee) crosses the wire
+    @Override
+    public IssueCounts countGrouped() {
+        IssueCounts counts = new IssueCounts();
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(COUNT_GROUPED_QUERY);
+                ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                counts.add(IssueStatus.codeOf(rs.getString(1)), IssuePriority.codeOf(rs.getString(2)), rs.getInt(3),
+                        rs.getLong(4));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return counts;
+    }
+
+    // From the primary: a replica that is behind would report a watermark the caller has already passed
+    @Override
+    public IssueWatermark watermark() {
+        try (Connection conn = DBConnection.getPrimaryReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(WATERMARK_QUERY);
+                ResultSet rs = stmt.executeQuery()) {
+            if (rs.next()) {
+                return new IssueWatermark(rs.getLong(1), rs.getInt(2), rs.getLong(3));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    private static String codeCase(String column, Enum<?>[] values) {
+        StringBuilder sql = new StringBuilder("CASE ").append(column);
+        for (Enum<?> value : values) {
+            sql.append(" WHEN '").append(value.name()).append("' THEN ").append(value.ordinal() + 1);
+        }
+        return sql.append(" ELSE 0 END").toString();
+    }
+
+    public static Issue mapResultSetToIssue(ResultSet rs) throws SQLException {
+        Issue issue = new Issue();
+        issue.setId(rs.getInt("id"));
+        issue.setTitle(rs.getString("title"));
+        issue.setDescription(rs.getString("description"));
+        issue.setStatus(IssueStatus.canonical(rs.getString("status")));
+        issue.setPriority(IssuePriority.canonical(rs.getString("priority")));
+        issue.setCreatedAt(rs.getTimestamp("created_at").toLocalDateTime());
+        issue.setUpdatedAt(rs.getTimestamp("updated_at").toLocalDateTime());
+        issue.setAssigneeId(rs.getInt("assignee_id"));
+        issue.setVersion(rs.getInt("version"));
+        return issue;
+    }
+
+    public static IssueSummary mapResultSetToSummary(ResultSet rs) throws SQLException {
+        return new IssueSummary(rs.getInt("id"), rs.getString("title"), IssueStatus.canonical(rs.getString("status")),
+                IssuePriority.canonical(rs.getString("priority")), rs.getInt("assignee_id"),
+                rs.getTimestamp("updated_at").toLocalDateTime());
+    }
+}
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.IssueTracker.repository;
+
+import com.IssueTracker.models.User;
+import com.IssueTracker.utils.DBConnection;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+public class JdbcUserRepository implements UserRepository {
+
+    public static final String FIND_BY_ID_QUERY = "SELECT * FROM users WHERE id = ?";
+    public static final String FIND_ALL_QUERY = "SELECT * FROM users";
+
+    @Override
+    public void save(User user) {
+        String query = "INSERT INTO users (name, email) VALUES (?, ?)";
+        try (Connection conn = DBConnection.getConnection();
+                PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+            stmt.setString(1, user.getName());
+            stmt.setString(2, user.getEmail());
+            stmt.executeUpdate();
+            ResultSet rs = stmt.getGeneratedKeys();
+            if (rs.next()) {
+                user.setId(rs.getInt(1));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void saveAll(Collection<User> users, int batchSize) {
+        String query = "INSERT INTO users (name, email) VALUES (?, ?)";
+        try {
+            BatchInserter.insertAll(query, users, batchSize, (stmt, user) -> {
+                stmt.setString(1, user.getName());
+                stmt.setString(2, user.getEmail());
+            }, User::setId);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public User findById(int id) {
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(FIND_BY_ID_QUERY)) {
+            stmt.setInt(1, id);
+            ResultSet rs = stmt.executeQuery();
+            if (rs.next()) {
+                return new User(rs.getInt("id"), rs.getString("name"), rs.getString("email"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return null;
+    }
+
+    @Override
+    public List<User> findAll() {
+        List<User> users = new ArrayList<>();
+        try (Connection conn = DBConnection.getReadConnection();
+                PreparedStatement stmt = conn.prepareStatement(FIND_ALL_QUERY);
+                ResultSet rs = stmt.executeQuery()) {
+            while (rs.next()) {
+                users.add(new User(rs.getInt("id"), rs.getString("name"), rs.getString("email")));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return users;
+    }
+}
@@ -0,0 +1,60 @@
+package com.IssueTracker.repository;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.ToIntFunction;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public final class KeysetPager {
+
+    @FunctionalInterface
+    public interface PageQuery<T> {
+        List<T> fetch(int afterId, int limit);
+    }
+
+    private KeysetPager() {
+    }
+
+    // Lazily walks the result one page at a time; no connection is held between pages.
+    public static <T> Stream<T> stream(PageQuery<T> query, ToIntFunction<T> key, int pageSize) {
+        Iterator<T> iterator = new Iterator<T>() {
+            private List<T> page = List.of();
+            private int index;
+            private int lastKey;
+            private boolean exhausted;
+
+            @Override
+            public boolean hasNext() {
+                if (index < page.size()) {
+                    return true;
+                }
+                if (exhausted) {
+                    return false;
+                }
+                page = query.fetch(lastKey, pageSize);
+                index = 0;
+                if (page.size() < pageSize) {
+                    exhausted = true;
+                }
+                if (!page.isEmpty()) {
+                    lastKey = key.applyAsInt(page.get(page.size() - 1));
+                }
+                return !page.isEmpty();
+            }
+
+            @Override
+            public T next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.get(index++);
+            }
+        };
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+}
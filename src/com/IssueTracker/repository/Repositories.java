@@ -0,0 +1,125 @@
+package com.IssueTracker.repository;
+
+import com.IssueTracker.metrics.InstrumentedRepository;
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssueChange;
+import com.IssueTracker.repository.embedded.EmbeddedCommentRepository;
+import com.IssueTracker.repository.embedded.EmbeddedIssueHistoryRepository;
+import com.IssueTracker.repository.embedded.EmbeddedIssueRepository;
+import com.IssueTracker.repository.embedded.EmbeddedStore;
+import com.IssueTracker.repository.embedded.EmbeddedUserRepository;
+import com.IssueTracker.utils.DBConnection;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+public class Repositories implements AutoCloseable {
+
+    private final IssueRepository issueRepository;
+    private final UserRepository userRepository;
+    private final CommentRepository commentRepository;
+    private final IssueHistoryRepository historyRepository;
+    private final EmbeddedStore store;
+    private final EmbeddedIssueHistoryRepository embeddedHistory;
+
+    private Repositories(IssueRepository issueRepository, UserRepository userRepository,
+            CommentRepository commentRepository, IssueHistoryRepository historyRepository, EmbeddedStore store,
+            EmbeddedIssueHistoryRepository embeddedHistory) {
+        this.issueRepository = issueRepository;
+        this.userRepository = userRepository;
+        this.commentRepository = commentRepository;
+        this.historyRepository = historyRepository;
+        this.store = store;
+        this.embeddedHistory = embeddedHistory;
+    }
+
+    // -Dissuetracker.storage=embedded selects the in-process store (file from
+    // -Dissuetracker.storage.path); anything else uses MySQL through DBConnection.
+    public static Repositories fromSystemProperties() throws IOException {
+        if ("embedded".equalsIgnoreCase(System.getProperty("issuetracker.storage", "jdbc"))) {
+            return embedded(Paths.get(System.getProperty("issuetracker.storage.path", "issue-tracker.log")));
+        }
+        return jdbc();
+    }
+
+    public static Repositories jdbc() {
+        return instrumented(new CachingIssueRepository(new JdbcIssueRepository()),
+                new CachingUserRepository(new JdbcUserRepository()), new JdbcCommentRepository(),
+                new JdbcIssueHistoryRepository(), null, null);
+    }
+
+    // The change log lives in "<logFile>.history". When that file is new, every existing issue is
+    // recorded as a snapshot first, as the V4 migration does for MySQL.
+    public static Repositories embedded(Path logFile) throws IOException {
+        EmbeddedStore store = EmbeddedStore.open(logFile);
+        Path historyFile = logFile.resolveSibling(logFile.getFileName() + ".history");
+        boolean newHistory = !Files.exists(historyFile);
+        EmbeddedIssueHistoryRepository history = EmbeddedIssueHistoryRepository.open(historyFile);
+        EmbeddedIssueRepository issues = new EmbeddedIssueRepository(store);
+        if (newHistory) {
+            List<IssueChange> snapshots = new ArrayList<>();
+            try (Stream<Issue> all = issues.streamAll(IssueRepository.DEFAULT_BATCH_SIZE)) {
+                all.forEach(issue -> snapshots.add(IssueChange.snapshot(issue,
+                        issue.getUpdatedAt() != null ? issue.getUpdatedAt() : LocalDateTime.now())));
+            }
+            history.append(snapshots);
+        }
+        return instrumented(issues, new EmbeddedUserRepository(store), new EmbeddedCommentRepository(store),
+                history, store, history);
+    }
+
+    // Outermost, so cache hits are timed as well as the calls that reach the backend
+    private static Repositories instrumented(IssueRepository issues, UserRepository users,
+            CommentRepository comments, IssueHistoryRepository history, EmbeddedStore store,
+            EmbeddedIssueHistoryRepository embeddedHistory) {
+        return new Repositories(InstrumentedRepository.wrap(IssueRepository.class, issues),
+                InstrumentedRepository.wrap(UserRepository.class, users),
+                InstrumentedRepository.wrap(CommentRepository.class, comments),
+                InstrumentedRepository.wrap(IssueHistoryRepository.class, history), store, embeddedHistory);
+    }
+
+    // The statements behind the list views, details and start-up scans, for DBConnection.warmUpAsync
+    public static List<String> jdbcWarmUpQueries() {
+        return List.of(JdbcIssueRepository.FIND_BY_ID_QUERY, JdbcIssueRepository.SUMMARY_PAGE_QUERY,
+                JdbcIssueRepository.SUMMARY_PAGE_BY_STATUS_QUERY, JdbcIssueRepository.SUMMARY_PAGE_BY_PRIORITY_QUERY,
+                JdbcIssueRepository.SUMMARY_PAGE_BY_ASSIGNEE_QUERY, JdbcIssueRepository.BATCH_PAGE_QUERY,
+                JdbcUserRepository.FIND_BY_ID_QUERY, JdbcUserRepository.FIND_ALL_QUERY,
+                JdbcCommentRepository.FIND_BY_ISSUE_QUERY, JdbcCommentRepository.SUMMARIES_BY_ISSUE_QUERY);
+    }
+
+    public IssueRepository issues() {
+        return issueRepository;
+    }
+
+    public UserRepository users() {
+        return userRepository;
+    }
+
+    public CommentRepository comments() {
+        return commentRepository;
+    }
+
+    public IssueHistoryRepository history() {
+        return historyRepository;
+    }
+
+    public boolean isEmbedded() {
+        return store != null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (store != null) {
+            embeddedHistory.close();
+            store.close();
+        } else {
+            DBConnection.shutdown();
+        }
+    }
+}
@@ -1,57 +1,23 @@
 package com.IssueTracker.repository;
 
 import com.IssueTracker.models.User;
-import com.IssueTracker.utils.DBConnection;
 
-import java.sql.*;
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 
-public class UserRepository {
-
-    public void save(User user) {
-        String query = "INSERT INTO users (name, email) VALUES (?, ?)";
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-            stmt.setString(1, user.getName());
-            stmt.setString(2, user.getEmail());
-            stmt.executeUpdate();
-            ResultSet rs = stmt.getGeneratedKeys();
-            if (rs.next()) {
-                user.setId(rs.getInt(1));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-    }
+public interface UserRepository {
 
-    public User findById(int id) {
-        String query = "SELECT * FROM users WHERE id = ?";
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(query)) {
-            stmt.setInt(1, id);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new User(rs.getInt("id"), rs.getString("name"), rs.getString("email"));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return null;
-    }
+    int DEFAULT_BATCH_SIZE = 1000;
+
+    void save(User user);
 
-    public List<User> findAll() {
-        List<User> users = new ArrayList<>();
-        String query = "SELECT * FROM users";
-        try (Connection conn = DBConnection.getConnection();
-                PreparedStatement stmt = conn.prepareStatement(query);
-                ResultSet rs = stmt.executeQuery()) {
-            while (rs.next()) {
-                users.add(new User(rs.getInt("id"), rs.getString("name"), rs.getString("email")));
-            }
-        } catch (SQLException e) {
-            e.printStackTrace();
-        }
-        return users;
+    default void saveAll(Collection<User> users) {
+        saveAll(users, DEFAULT_BATCH_SIZE);
     }
+
+    void saveAll(Collection<User> users, int batchSize);
+
+    User findById(int id);
+
+    List<User> findAll();
 }
@@ -0,0 +1,152 @@
+package com.IssueTracker.repository.embedded;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Append-only record log in a memory-mapped file. Each record is
+// [int payloadLength][int crc32][byte type][payload]; the mapping grows by doubling.
+// A single mapping caps the log at 2 GB, after which EmbeddedStore.compact() must be used.
+class AppendLog implements AutoCloseable {
+
+    static final class Record {
+        final byte type;
+        final byte[] payload;
+
+        Record(byte type, byte[] payload) {
+            this.type = type;
+            this.payload = payload;
+        }
+    }
+
+    @FunctionalInterface
+    interface RecordHandler {
+        void accept(byte type, ByteBuffer payload);
+    }
+
+    private static final int MAGIC = 0x49544C47;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    private static final int RECORD_OVERHEAD = 9;
+    private static final int INITIAL_CAPACITY = 1 << 20;
+
+    private final FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int writePosition;
+
+    private AppendLog(FileChannel channel, MappedByteBuffer buffer, int writePosition) {
+        this.channel = channel;
+        this.buffer = buffer;
+        this.writePosition = writePosition;
+    }
+
+    // Opens (or creates) the log and replays every intact record into the handler. A torn or
+    // corrupt tail left by a crash ends the replay and is overwritten by the next append.
+    static AppendLog open(Path path, RecordHandler handler) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        long fileSize = channel.size();
+        if (fileSize > Integer.MAX_VALUE) {
+            channel.close();
+            throw new IOException("Log file " + path + " exceeds 2 GB; compact it first");
+        }
+        int capacity = (int) Math.max(fileSize, INITIAL_CAPACITY);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        if (fileSize == 0 || buffer.getInt(0) == 0) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, FORMAT_VERSION);
+            return new AppendLog(channel, buffer, HEADER_SIZE);
+        }
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != FORMAT_VERSION) {
+            channel.close();
+            throw new IOException(path + " is not an issue tracker log (or has an unsupported version)");
+        }
+
+        int position = HEADER_SIZE;
+        CRC32 crc = new CRC32();
+        while (position + RECORD_OVERHEAD <= capacity) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + RECORD_OVERHEAD + length > capacity) {
+                break;
+            }
+            int expectedCrc = buffer.getInt(position + 4);
+            ByteBuffer body = buffer.duplicate();
+            body.limit(position + RECORD_OVERHEAD + length).position(position + 8);
+            crc.reset();
+            crc.update(body.duplicate());
+            if ((int) crc.getValue() != expectedCrc) {
+                break;
+            }
+            byte type = body.get();
+            handler.accept(type, body.slice());
+            position += RECORD_OVERHEAD + length;
+        }
+        return new AppendLog(channel, buffer, position);
+    }
+
+    // Writes all records or none: on failure the write position is left where it was and the
+    // partially written bytes are zeroed so a later replay stops before them.
+    void appendAll(List<Record> records) throws IOException {
+        int needed = 0;
+        for (Record record : records) {
+            needed += RECORD_OVERHEAD + record.payload.length;
+        }
+        ensureCapacity((long) writePosition + needed + 4);
+        int start = writePosition;
+        try {
+            CRC32 crc = new CRC32();
+            int position = start;
+            for (Record record : records) {
+                crc.reset();
+                crc.update(record.type);
+                crc.update(record.payload);
+                buffer.put(position + 8, record.type);
+                buffer.put(position + RECORD_OVERHEAD, record.payload);
+                buffer.putInt(position + 4, (int) crc.getValue());
+                buffer.putInt(position, record.payload.length);
+                position += RECORD_OVERHEAD + record.payload.length;
+            }
+            buffer.putInt(position, 0);
+            writePosition = position;
+        } catch (RuntimeException e) {
+            for (int i = start; i < start + needed; i++) {
+                buffer.put(i, (byte) 0);
+            }
+            throw new IOException("Failed to append to log", e);
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    int size() {
+        return writePosition;
+    }
+
+    private void ensureCapacity(long required) throws IOException {
+        if (required <= buffer.capacity()) {
+            return;
+        }
+        if (required > Integer.MAX_VALUE) {
+            throw new IOException("Log is full (2 GB); compact it first");
+        }
+        long capacity = buffer.capacity();
+        while (capacity < required) {
+            capacity *= 2;
+        }
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.min(capacity, Integer.MAX_VALUE));
+    }
+
+    @Override
+    public void close() throws IOException {
+        buffer.force();
+        channel.close();
+    }
+}
@@ -0,0 +1,47 @@
+package com.IssueTracker.repository.embedded;
+
+import com.IssueTracker.models.Comment;
+import com.IssueTracker.repository.CommentRepository;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class EmbeddedCommentRepository implements CommentRepository {
+
+    private final EmbeddedStore store;
+
+    public EmbeddedCommentRepository(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void save(Comment comment) {
+        saveAll(List.of(comment), 1);
+    }
+
+    @Override
+    public void saveAll(Collection<Comment> comments, int batchSize) {
+        try {
+            store.insertComments(comments);
+        } catch (IOException | IllegalArgumentException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public List<Comment> findByIssueId(int issueId) {
+        return store.findComments(issueId);
+    }
+
+    @Override
+    public Map<Integer, List<Comment>> findByIssueIds(Collection<Integer> issueIds) {
+        return store.findComments(issueIds);
+    }
+
+    @Override
+    public long countAll() {
+        return store.countComments();
+    }
+}
@@ -0,0 +1,129 @@
+package com.IssueTracker.repository.embedded;
+
+import com.IssueTracker.models.IssueChange;
+import com.IssueTracker.repository.IssueHistoryRepository;
+import com.IssueTracker.utils.IntHashMap;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// The change log in its own append-only file next to the store, so EmbeddedStore.compact() never drops
+// history. Every entry is also kept in memory per issue, in sequence order.
+public class EmbeddedIssueHistoryRepository implements IssueHistoryRepository, AutoCloseable {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntHashMap<List<IssueChange>> changesByIssue = new IntHashMap<>();
+    private long lastSequence;
+    private AppendLog log;
+
+    private EmbeddedIssueHistoryRepository() {
+    }
+
+    public static EmbeddedIssueHistoryRepository open(Path path) throws IOException {
+        EmbeddedIssueHistoryRepository history = new EmbeddedIssueHistoryRepository();
+        history.log = AppendLog.open(path, (type, payload) -> {
+            if (type != RecordCodec.ISSUE_CHANGE) {
+                throw new IllegalStateException("Unknown history record type " + type + " in " + path);
+            }
+            history.apply(RecordCodec.decodeIssueChange(payload));
+        });
+        return history;
+    }
+
+    @Override
+    public boolean append(List<IssueChange> changes) {
+        lock.writeLock().lock();
+        try {
+            List<AppendLog.Record> records = new ArrayList<>(changes.size());
+            long sequence = lastSequence;
+            for (IssueChange change : changes) {
+                change.setSequence(++sequence);
+                records.add(RecordCodec.issueChange(change));
+            }
+            try {
+                log.appendAll(records);
+            } catch (IOException e) {
+                for (IssueChange change : changes) {
+                    change.setSequence(0);
+                }
+                e.printStackTrace();
+                return false;
+            }
+            for (IssueChange change : changes) {
+                apply(change);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public List<IssueChange> findHistory(int issueId) {
+        lock.readLock().lock();
+        try {
+            List<IssueChange> history = new ArrayList<>();
+            List<IssueChange> changes = changesByIssue.get(issueId);
+            if (changes != null) {
+                for (IssueChange change : changes) {
+                    if (change.getKind() != IssueChange.Kind.SNAPSHOT) {
+                        history.add(change);
+                    }
+                }
+            }
+            return history;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public List<IssueChange> findReplayChain(int issueId, LocalDateTime at) {
+        lock.readLock().lock();
+        try {
+            List<IssueChange> chain = new ArrayList<>();
+            List<IssueChange> changes = changesByIssue.get(issueId);
+            if (changes == null) {
+                return chain;
+            }
+            int base = changes.size() - 1;
+            while (base >= 0 && !(changes.get(base).getKind().isBase() && isAtOrBefore(changes.get(base), at))) {
+                base--;
+            }
+            if (base < 0) {
+                return chain;
+            }
+            for (int i = base; i < changes.size(); i++) {
+                if (isAtOrBefore(changes.get(i), at)) {
+                    chain.add(changes.get(i));
+                }
+            }
+            return chain;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            log.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean isAtOrBefore(IssueChange change, LocalDateTime at) {
+        return !change.getChangedAt().isAfter(at);
+    }
+
+    private void apply(IssueChange change) {
+        changesByIssue.computeIfAbsent(change.getIssueId(), id -> new ArrayList<>()).add(change);
+        lastSequence = Math.max(lastSequence, change.getSequence());
+    }
+}
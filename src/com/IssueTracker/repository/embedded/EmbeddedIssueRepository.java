@@ -0,0 +1,149 @@
+package com.IssueTracker.repository.embedded;
+
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssueBatch;
+import com.IssueTracker.models.IssuePatch;
+import com.IssueTracker.models.IssueQuery;
+import com.IssueTracker.models.IssueSummary;
+import com.IssueTracker.repository.IssueRepository;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+public class EmbeddedIssueRepository implements IssueRepository {
+
+    private final EmbeddedStore store;
+
+    public EmbeddedIssueRepository(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Issue findById(int id) {
+        return store.findIssue(id);
+    }
+
+    @Override
+    public List<Issue> findAll() {
+        return store.findIssuesAfter(0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void save(Issue issue) {
+        saveAll(List.of(issue), 1);
+    }
+
+    @Override
+    public void saveAll(Collection<Issue> issues, int batchSize) {
+        try {
+            store.insertIssues(issues);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public void update(Issue issue) {
+        try {
+            store.updateIssue(issue);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public PatchResult patch(int id, IssuePatch patch) {
+        try {
+            return store.patchIssue(id, patch);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return PatchResult.FAILED;
+        }
+    }
+
+    @Override
+    public boolean delete(int id) {
+        try {
+            return store.deleteIssue(id);
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    public List<Issue> getIssuesByStatus(String status) {
+        return store.findIssuesByStatusAfter(status, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Issue> getIssuesByPriority(String priority) {
+        return store.findIssuesByPriorityAfter(priority, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Issue> getIssuesByUserId(int userId) {
+        return store.findIssuesByAssigneeAfter(userId, 0, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public List<Issue> findAllAfter(int afterId, int limit) {
+        return store.findIssuesAfter(afterId, limit);
+    }
+
+    @Override
+    public List<Issue> getIssuesByStatusAfter(String status, int afterId, int limit) {
+        return store.findIssuesByStatusAfter(status, afterId, limit);
+    }
+
+    @Override
+    public List<Issue> getIssuesByPriorityAfter(String priority, int afterId, int limit) {
+        return store.findIssuesByPriorityAfter(priority, afterId, limit);
+    }
+
+    @Override
+    public List<Issue> getIssuesByUserIdAfter(int userId, int afterId, int limit) {
+        return store.findIssuesByAssigneeAfter(userId, afterId, limit);
+    }
+
+    @Override
+    public List<IssueSummary> findSummariesAfter(int afterId, int limit) {
+        return store.findIssueSummariesAfter(afterId, limit);
+    }
+
+    @Override
+    public List<IssueSummary> getSummariesByStatusAfter(String status, int afterId, int limit) {
+        return store.findIssueSummariesByStatusAfter(status, afterId, limit);
+    }
+
+    @Override
+    public List<IssueSummary> getSummariesByPriorityAfter(String priority, int afterId, int limit) {
+        return store.findIssueSummariesByPriorityAfter(priority, afterId, limit);
+    }
+
+    @Override
+    public List<IssueSummary> getSummariesByUserIdAfter(int userId, int afterId, int limit) {
+        return store.findIssueSummariesByAssigneeAfter(userId, afterId, limit);
+    }
+
+    @Override
+    public List<Issue> findByQuery(IssueQuery query) {
+        return store.findIssues(query);
+    }
+
+    @Override
+    public List<IssueSummary> findSummariesByQuery(IssueQuery query) {
+        return store.findIssueSummaries(query);
+    }
+
+    @Override
+    public List<IssueSummary> findSummariesByIds(int[] ids) {
+        return store.findIssueSummariesByIds(ids);
+    }
+
+    @Override
+    public int fillBatchAfter(int afterId, IssueBatch batch) {
+        return store.fillIssuesAfter(afterId, batch);
+    }
+}
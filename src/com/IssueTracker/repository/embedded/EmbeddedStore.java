@@ -0,0 +1,701 @@
+package com.IssueTracker.repository.embedded;
+
+import com.IssueTracker.models.Comment;
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssueBatch;
+import com.IssueTracker.models.IssuePatch;
+import com.IssueTracker.models.IssuePriority;
+import com.IssueTracker.models.IssueQuery;
+import com.IssueTracker.models.IssueStatus;
+import com.IssueTracker.models.IssueSummary;
+import com.IssueTracker.models.User;
+import com.IssueTracker.repository.IssueRepository.PatchResult;
+import com.IssueTracker.utils.IntHashMap;
+import com.IssueTracker.utils.SortedIntSet;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+// In-process storage engine: all rows live in memory behind int-keyed primary indexes and
+// status/priority/assignee secondary indexes, and every change is appended to a memory-mapped log
+// that is replayed on open. Reads take a shared lock, writes an exclusive one.
+public class EmbeddedStore implements AutoCloseable {
+
+    private final Path path;
+    private final boolean syncOnWrite;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final IntHashMap<User> users = new IntHashMap<>();
+    private final SortedIntSet userIds = new SortedIntSet();
+    private final IntHashMap<Issue> issues = new IntHashMap<>();
+    private final SortedIntSet issueIds = new SortedIntSet();
+    private final Map<String, SortedIntSet> issuesByStatus = new HashMap<>();
+    private final Map<String, SortedIntSet> issuesByPriority = new HashMap<>();
+    private final IntHashMap<SortedIntSet> issuesByAssignee = new IntHashMap<>();
+    private final IntHashMap<List<Comment>> commentsByIssue = new IntHashMap<>();
+
+    private int lastUserId;
+    private int lastIssueId;
+    private int lastCommentId;
+    private AppendLog log;
+
+    private EmbeddedStore(Path path, boolean syncOnWrite) {
+        this.path = path;
+        this.syncOnWrite = syncOnWrite;
+    }
+
+    public static EmbeddedStore open(Path path) throws IOException {
+        return open(path, false);
+    }
+
+    // syncOnWrite forces every write to disk before returning; otherwise the OS flushes the
+    // mapping and a crash can lose the most recent writes (but never corrupt older ones).
+    public static EmbeddedStore open(Path path, boolean syncOnWrite) throws IOException {
+        EmbeddedStore store = new EmbeddedStore(path, syncOnWrite);
+        store.log = AppendLog.open(path, store::replay);
+        return store;
+    }
+
+    private void replay(byte type, ByteBuffer payload) {
+        switch (type) {
+            case RecordCodec.PUT_USER:
+                applyUser(RecordCodec.decodeUser(payload));
+                break;
+            case RecordCodec.PUT_ISSUE:
+                applyIssue(RecordCodec.decodeIssue(payload));
+                break;
+            case RecordCodec.DELETE_ISSUE:
+                applyDeleteIssue(payload.getInt());
+                break;
+            case RecordCodec.PUT_COMMENT:
+                applyComment(RecordCodec.decodeComment(payload));
+                break;
+            case RecordCodec.SEQUENCES:
+                lastUserId = Math.max(lastUserId, payload.getInt());
+                lastIssueId = Math.max(lastIssueId, payload.getInt());
+                lastCommentId = Math.max(lastCommentId, payload.getInt());
+                break;
+            default:
+                throw new IllegalStateException("Unknown log record type " + type + " in " + path);
+        }
+    }
+
+    // ---- users ----
+
+    public void insertUsers(Collection<User> newUsers) throws IOException {
+        lock.writeLock().lock();
+        try {
+            List<AppendLog.Record> records = new ArrayList<>(newUsers.size());
+            List<User> stored = new ArrayList<>(newUsers.size());
+            int id = lastUserId;
+            for (User user : newUsers) {
+                User copy = new User(++id, user.getName(), user.getEmail());
+                records.add(RecordCodec.user(copy));
+                stored.add(copy);
+            }
+            append(records);
+            int i = 0;
+            for (User user : newUsers) {
+                User copy = stored.get(i++);
+                applyUser(copy);
+                user.setId(copy.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public User findUser(int id) {
+        lock.readLock().lock();
+        try {
+            User user = users.get(id);
+            return user == null ? null : new User(user);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<User> findAllUsers() {
+        lock.readLock().lock();
+        try {
+            List<User> result = new ArrayList<>(userIds.size());
+            for (int i = 0; i < userIds.size(); i++) {
+                result.add(new User(users.get(userIds.get(i))));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ---- issues ----
+
+    public void insertIssues(Collection<Issue> newIssues) throws IOException {
+        lock.writeLock().lock();
+        try {
+            LocalDateTime now = now();
+            List<AppendLog.Record> records = new ArrayList<>(newIssues.size());
+            List<Issue> stored = new ArrayList<>(newIssues.size());
+            int id = lastIssueId;
+            for (Issue issue : newIssues) {
+                Issue copy = new Issue(issue);
+                copy.setId(++id);
+                copy.setCreatedAt(now);
+                copy.setUpdatedAt(now);
+                copy.setComments(null);
+                records.add(RecordCodec.issue(copy));
+                stored.add(copy);
+            }
+            append(records);
+            int i = 0;
+            for (Issue issue : newIssues) {
+                Issue copy = stored.get(i++);
+                applyIssue(copy);
+                issue.setId(copy.getId());
+                issue.setCreatedAt(now);
+                issue.setUpdatedAt(now);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean updateIssue(Issue issue) throws IOException {
+        lock.writeLock().lock();
+        try {
+            Issue current = issues.get(issue.getId());
+            if (current == null) {
+                return false;
+            }
+            Issue copy = new Issue(issue);
+            copy.setCreatedAt(current.getCreatedAt());
+            copy.setUpdatedAt(now());
+            copy.setVersion(current.getVersion() + 1);
+            copy.setComments(null);
+            append(List.of(RecordCodec.issue(copy)));
+            applyIssue(copy);
+            issue.setUpdatedAt(copy.getUpdatedAt());
+            issue.setVersion(copy.getVersion());
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public PatchResult patchIssue(int id, IssuePatch patch) throws IOException {
+        lock.writeLock().lock();
+        try {
+            Issue current = issues.get(id);
+            if (current == null) {
+                return PatchResult.NOT_FOUND;
+            }
+            if (patch.getExpectedVersion() != null && patch.getExpectedVersion() != current.getVersion()) {
+                return PatchResult.CONFLICT;
+            }
+            if (patch.isEmpty()) {
+                patch.setAppliedVersion(current.getVersion());
+                return PatchResult.UPDATED;
+            }
+            Issue copy = new Issue(current);
+            patch.applyTo(copy);
+            copy.setUpdatedAt(now());
+            copy.setVersion(current.getVersion() + 1);
+            append(List.of(RecordCodec.issue(copy)));
+            applyIssue(copy);
+            patch.setAppliedVersion(copy.getVersion());
+            return PatchResult.UPDATED;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Refused while the issue has comments, as the comments table's foreign key refuses it in MySQL
+    public boolean deleteIssue(int id) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (!issues.containsKey(id)) {
+                return false;
+            }
+            List<Comment> comments = commentsByIssue.get(id);
+            if (comments != null && !comments.isEmpty()) {
+                return false;
+            }
+            append(List.of(RecordCodec.deleteIssue(id)));
+            applyDeleteIssue(id);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Issue findIssue(int id) {
+        lock.readLock().lock();
+        try {
+            Issue issue = issues.get(id);
+            return issue == null ? null : new Issue(issue);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Issue> findIssuesAfter(int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return page(issueIds, afterId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Reads the live rows directly instead of copying them, see IssueRepository.fillBatchAfter
+    public int fillIssuesAfter(int afterId, IssueBatch batch) {
+        batch.clear();
+        lock.readLock().lock();
+        try {
+            int from = issueIds.indexAfter(afterId);
+            int to = Math.min(issueIds.size(), from + batch.capacity());
+            for (int i = from; i < to; i++) {
+                Issue issue = issues.get(issueIds.get(i));
+                batch.add(issue.getId(), IssueStatus.codeOf(issue.getStatus()),
+                        IssuePriority.codeOf(issue.getPriority()), IssueBatch.toEpochSecond(issue.getCreatedAt()),
+                        IssueBatch.toEpochSecond(issue.getUpdatedAt()), issue.getAssigneeId());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return batch.size();
+    }
+
+    public List<Issue> findIssuesByStatusAfter(String status, int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return page(issuesByStatus.get(normalize(status)), afterId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Issue> findIssuesByPriorityAfter(String priority, int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return page(issuesByPriority.get(normalize(priority)), afterId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Issue> findIssuesByAssigneeAfter(int assigneeId, int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return page(issuesByAssignee.get(assigneeId), afterId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Summaries are built from the live rows, so neither the description nor a full Issue copy is made
+    public List<IssueSummary> findIssueSummariesAfter(int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return page(issueIds, afterId, limit, IssueSummary::of);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<IssueSummary> findIssueSummariesByStatusAfter(String status, int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return page(issuesByStatus.get(normalize(status)), afterId, limit, IssueSummary::of);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<IssueSummary> findIssueSummariesByPriorityAfter(String priority, int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return page(issuesByPriority.get(normalize(priority)), afterId, limit, IssueSummary::of);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<IssueSummary> findIssueSummariesByAssigneeAfter(int assigneeId, int afterId, int limit) {
+        lock.readLock().lock();
+        try {
+            return page(issuesByAssignee.get(assigneeId), afterId, limit, IssueSummary::of);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<IssueSummary> findIssueSummariesByIds(int[] ids) {
+        lock.readLock().lock();
+        try {
+            List<IssueSummary> result = new ArrayList<>(ids.length);
+            for (int id : ids) {
+                Issue issue = issues.get(id);
+                if (issue != null) {
+                    result.add(IssueSummary.of(issue));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Issue> findIssues(IssueQuery query) {
+        lock.readLock().lock();
+        try {
+            return query(query, Issue::new);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<IssueSummary> findIssueSummaries(IssueQuery query) {
+        lock.readLock().lock();
+        try {
+            return query(query, IssueSummary::of);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Starts from whichever of the status, priority or assignee indexes gives the fewest candidates and
+    // checks the rest of the criteria on each live row. Only matches are copied. Sorted by id, a limited
+    // query stops as soon as it has enough.
+    private <T> List<T> query(IssueQuery query, Function<Issue, T> mapper) {
+        int[] candidates = candidates(query);
+        boolean idOrder = query.getSortField() == IssueQuery.SortField.ID;
+        int limit = query.getLimit() > 0 ? query.getLimit() : Integer.MAX_VALUE;
+        List<Issue> matches = new ArrayList<>();
+        for (int i = 0; i < candidates.length && !(idOrder && matches.size() >= limit); i++) {
+            Issue issue = issues.get(candidates[query.isDescending() ? candidates.length - 1 - i : i]);
+            if (issue != null && query.matches(issue)) {
+                matches.add(issue);
+            }
+        }
+        if (!idOrder) {
+            matches.sort(query.comparator());
+        }
+        List<T> result = new ArrayList<>(Math.min(matches.size(), limit));
+        for (int i = 0; i < matches.size() && i < limit; i++) {
+            result.add(mapper.apply(matches.get(i)));
+        }
+        return result;
+    }
+
+    // Ascending ids that may match
+    private int[] candidates(IssueQuery query) {
+        List<SortedIntSet> best = null;
+        int bestSize = issueIds.size();
+        if (!query.getStatuses().isEmpty()) {
+            List<SortedIntSet> sets = new ArrayList<>();
+            for (String status : query.getStatuses()) {
+                addDistinct(sets, issuesByStatus.get(normalize(status)));
+            }
+            if (total(sets) < bestSize) {
+                best = sets;
+                bestSize = total(sets);
+            }
+        }
+        if (!query.getPriorities().isEmpty()) {
+            List<SortedIntSet> sets = new ArrayList<>();
+            for (String priority : query.getPriorities()) {
+                addDistinct(sets, issuesByPriority.get(normalize(priority)));
+            }
+            if (total(sets) < bestSize) {
+                best = sets;
+                bestSize = total(sets);
+            }
+        }
+        if (!query.getAssigneeIds().isEmpty()) {
+            List<SortedIntSet> sets = new ArrayList<>();
+            for (int assigneeId : query.getAssigneeIds()) {
+                addDistinct(sets, issuesByAssignee.get(assigneeId));
+            }
+            if (total(sets) < bestSize) {
+                best = sets;
+            }
+        }
+        if (best == null) {
+            return issueIds.toArray();
+        }
+        int[] ids = new int[total(best)];
+        int n = 0;
+        for (SortedIntSet set : best) {
+            int[] values = set.toArray();
+            System.arraycopy(values, 0, ids, n, values.length);
+            n += values.length;
+        }
+        // Each issue is in exactly one set per column, so the union has no duplicates
+        if (best.size() > 1) {
+            Arrays.sort(ids);
+        }
+        return ids;
+    }
+
+    // "open" and "OPEN" name the same index
+    private static void addDistinct(List<SortedIntSet> sets, SortedIntSet set) {
+        if (set != null && !sets.contains(set)) {
+            sets.add(set);
+        }
+    }
+
+    private static int total(List<SortedIntSet> sets) {
+        int total = 0;
+        for (SortedIntSet set : sets) {
+            total += set.size();
+        }
+        return total;
+    }
+
+    private List<Issue> page(SortedIntSet index, int afterId, int limit) {
+        return page(index, afterId, limit, Issue::new);
+    }
+
+    private <T> List<T> page(SortedIntSet index, int afterId, int limit, Function<Issue, T> mapper) {
+        if (index == null) {
+            return new ArrayList<>();
+        }
+        int[] ids = index.range(afterId, limit);
+        List<T> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(mapper.apply(issues.get(id)));
+        }
+        return result;
+    }
+
+    // ---- comments ----
+
+    // Rejects the whole batch if any comment points at an issue that does not exist.
+    public void insertComments(Collection<Comment> newComments) throws IOException {
+        lock.writeLock().lock();
+        try {
+            List<AppendLog.Record> records = new ArrayList<>(newComments.size());
+            List<Comment> stored = new ArrayList<>(newComments.size());
+            int id = lastCommentId;
+            for (Comment comment : newComments) {
+                if (!issues.containsKey(comment.getIssueId())) {
+                    throw new IllegalArgumentException("Issue " + comment.getIssueId() + " does not exist");
+                }
+                Comment copy = new Comment(comment.getIssueId(), ++id, comment.getAuthor(), comment.getContent());
+                records.add(RecordCodec.comment(copy));
+                stored.add(copy);
+            }
+            append(records);
+            int i = 0;
+            for (Comment comment : newComments) {
+                Comment copy = stored.get(i++);
+                applyComment(copy);
+                comment.setCommentId(copy.getCommentId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Comment> findComments(int issueId) {
+        lock.readLock().lock();
+        try {
+            return copyComments(commentsByIssue.get(issueId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<Integer, List<Comment>> findComments(Collection<Integer> issueIds) {
+        lock.readLock().lock();
+        try {
+            Map<Integer, List<Comment>> result = new HashMap<>();
+            for (int issueId : issueIds) {
+                List<Comment> comments = commentsByIssue.get(issueId);
+                if (comments != null) {
+                    result.put(issueId, copyComments(comments));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long countComments() {
+        lock.readLock().lock();
+        try {
+            long[] count = new long[1];
+            commentsByIssue.forEach((issueId, comments) -> count[0] += comments.size());
+            return count[0];
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static List<Comment> copyComments(List<Comment> comments) {
+        List<Comment> result = new ArrayList<>(comments == null ? 0 : comments.size());
+        if (comments != null) {
+            for (Comment c : comments) {
+                result.add(new Comment(c.getIssueId(), c.getCommentId(), c.getAuthor(), c.getContent()));
+            }
+        }
+        return result;
+    }
+
+    // ---- maintenance ----
+
+    // Rewrites the log with only the live rows, dropping superseded updates and deleted issues. The id
+    // high-water marks go first, so ids of dropped rows (still named in the history log and the saved
+    // search index) are never handed out again.
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            Path tmp = path.resolveSibling(path.getFileName() + ".compact");
+            Files.deleteIfExists(tmp);
+            try (AppendLog fresh = AppendLog.open(tmp, (type, payload) -> {
+            })) {
+                List<AppendLog.Record> records = new ArrayList<>();
+                records.add(RecordCodec.sequences(lastUserId, lastIssueId, lastCommentId));
+                for (int i = 0; i < userIds.size(); i++) {
+                    records.add(RecordCodec.user(users.get(userIds.get(i))));
+                }
+                for (int i = 0; i < issueIds.size(); i++) {
+                    int issueId = issueIds.get(i);
+                    records.add(RecordCodec.issue(issues.get(issueId)));
+                    List<Comment> comments = commentsByIssue.get(issueId);
+                    if (comments != null) {
+                        for (Comment comment : comments) {
+                            records.add(RecordCodec.comment(comment));
+                        }
+                    }
+                }
+                fresh.appendAll(records);
+            }
+            // The old log is closed first, since some platforms cannot replace a file that is open. If the
+            // move fails the old log is still in place and matches memory, so writes go on to it.
+            log.close();
+            try {
+                Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                try {
+                    reopenLog();
+                    Files.deleteIfExists(tmp);
+                } catch (IOException reopenFailure) {
+                    e.addSuppressed(reopenFailure);
+                }
+                throw e;
+            }
+            reopenLog();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public long logSize() {
+        lock.readLock().lock();
+        try {
+            return log.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            log.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Opens the log at path for appending; memory already holds its rows, so nothing is replayed
+    private void reopenLog() throws IOException {
+        log = AppendLog.open(path, (type, payload) -> {
+        });
+    }
+
+    private void append(List<AppendLog.Record> records) throws IOException {
+        if (records.isEmpty()) {
+            return;
+        }
+        log.appendAll(records);
+        if (syncOnWrite) {
+            log.force();
+        }
+    }
+
+    // ---- in-memory index maintenance (caller holds the write lock, or is replaying) ----
+
+    private void applyUser(User user) {
+        users.put(user.getId(), user);
+        userIds.add(user.getId());
+        lastUserId = Math.max(lastUserId, user.getId());
+    }
+
+    private void applyIssue(Issue issue) {
+        Issue previous = issues.put(issue.getId(), issue);
+        if (previous != null) {
+            unindex(previous);
+        }
+        issueIds.add(issue.getId());
+        issuesByStatus.computeIfAbsent(normalize(issue.getStatus()), k -> new SortedIntSet()).add(issue.getId());
+        issuesByPriority.computeIfAbsent(normalize(issue.getPriority()), k -> new SortedIntSet()).add(issue.getId());
+        issuesByAssignee.computeIfAbsent(issue.getAssigneeId(), k -> new SortedIntSet()).add(issue.getId());
+        lastIssueId = Math.max(lastIssueId, issue.getId());
+    }
+
+    // deleteIssue refuses an issue with comments, but logs written before it did may delete one; its
+    // comments go with it, so a replay never leaves orphans.
+    private void applyDeleteIssue(int id) {
+        Issue previous = issues.remove(id);
+        if (previous != null) {
+            unindex(previous);
+            issueIds.remove(id);
+        }
+        commentsByIssue.remove(id);
+    }
+
+    private void applyComment(Comment comment) {
+        commentsByIssue.computeIfAbsent(comment.getIssueId(), k -> new ArrayList<>()).add(comment);
+        lastCommentId = Math.max(lastCommentId, comment.getCommentId());
+    }
+
+    private void unindex(Issue issue) {
+        removeFrom(issuesByStatus.get(normalize(issue.getStatus())), issue.getId());
+        removeFrom(issuesByPriority.get(normalize(issue.getPriority())), issue.getId());
+        removeFrom(issuesByAssignee.get(issue.getAssigneeId()), issue.getId());
+    }
+
+    private static void removeFrom(SortedIntSet index, int id) {
+        if (index != null) {
+            index.remove(id);
+        }
+    }
+
+    // MySQL's default collation compares status/priority case-insensitively; match that.
+    private static String normalize(String value) {
+        return value == null ? "" : value.toUpperCase(Locale.ROOT);
+    }
+
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+}
@@ -0,0 +1,41 @@
+package com.IssueTracker.repository.embedded;
+
+import com.IssueTracker.models.User;
+import com.IssueTracker.repository.UserRepository;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+
+public class EmbeddedUserRepository implements UserRepository {
+
+    private final EmbeddedStore store;
+
+    public EmbeddedUserRepository(EmbeddedStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public void save(User user) {
+        saveAll(List.of(user), 1);
+    }
+
+    @Override
+    public void saveAll(Collection<User> users, int batchSize) {
+        try {
+            store.insertUsers(users);
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    @Override
+    public User findById(int id) {
+        return store.findUser(id);
+    }
+
+    @Override
+    public List<User> findAll() {
+        return store.findAllUsers();
+    }
+}
@@ -0,0 +1,182 @@
+package com.IssueTracker.repository.embedded;
+
+import com.IssueTracker.models.Comment;
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssueChange;
+import com.IssueTracker.models.User;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+final class RecordCodec {
+
+    static final byte PUT_USER = 1;
+    static final byte PUT_ISSUE = 2;
+    static final byte DELETE_ISSUE = 3;
+    static final byte PUT_COMMENT = 4;
+    static final byte ISSUE_CHANGE = 5;
+    static final byte SEQUENCES = 6;
+
+    private static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    private RecordCodec() {
+    }
+
+    static AppendLog.Record user(User user) {
+        return encode(PUT_USER, out -> {
+            out.writeInt(user.getId());
+            writeString(out, user.getName());
+            writeString(out, user.getEmail());
+        });
+    }
+
+    static User decodeUser(ByteBuffer in) {
+        return new User(in.getInt(), readString(in), readString(in));
+    }
+
+    static AppendLog.Record issue(Issue issue) {
+        return encode(PUT_ISSUE, out -> {
+            out.writeInt(issue.getId());
+            writeString(out, issue.getTitle());
+            writeString(out, issue.getDescription());
+            writeString(out, issue.getStatus());
+            writeString(out, issue.getPriority());
+            out.writeInt(issue.getAssigneeId());
+            writeTimestamp(out, issue.getCreatedAt());
+            writeTimestamp(out, issue.getUpdatedAt());
+            out.writeInt(issue.getVersion());
+        });
+    }
+
+    static Issue decodeIssue(ByteBuffer in) {
+        Issue issue = new Issue();
+        issue.setId(in.getInt());
+        issue.setTitle(readString(in));
+        issue.setDescription(readString(in));
+        issue.setStatus(readString(in));
+        issue.setPriority(readString(in));
+        issue.setAssigneeId(in.getInt());
+        issue.setCreatedAt(readTimestamp(in));
+        issue.setUpdatedAt(readTimestamp(in));
+        // Logs written before the version was added end here
+        if (in.hasRemaining()) {
+            issue.setVersion(in.getInt());
+        }
+        return issue;
+    }
+
+    static AppendLog.Record deleteIssue(int id) {
+        return encode(DELETE_ISSUE, out -> out.writeInt(id));
+    }
+
+    static AppendLog.Record comment(Comment comment) {
+        return encode(PUT_COMMENT, out -> {
+            out.writeInt(comment.getCommentId());
+            out.writeInt(comment.getIssueId());
+            writeString(out, comment.getAuthor());
+            writeString(out, comment.getContent());
+        });
+    }
+
+    static Comment decodeComment(ByteBuffer in) {
+        int commentId = in.getInt();
+        int issueId = in.getInt();
+        return new Comment(issueId, commentId, readString(in), readString(in));
+    }
+
+    // The last user, issue and comment ids handed out, so compaction can drop deleted rows without their
+    // ids being reused
+    static AppendLog.Record sequences(int lastUserId, int lastIssueId, int lastCommentId) {
+        return encode(SEQUENCES, out -> {
+            out.writeInt(lastUserId);
+            out.writeInt(lastIssueId);
+            out.writeInt(lastCommentId);
+        });
+    }
+
+    // The assignee is written as Integer.MIN_VALUE when the change leaves it unset
+    static AppendLog.Record issueChange(IssueChange change) {
+        return encode(ISSUE_CHANGE, out -> {
+            out.writeLong(change.getSequence());
+            out.writeInt(change.getIssueId());
+            out.writeByte(change.getKind().code());
+            writeTimestamp(out, change.getChangedAt());
+            writeString(out, change.getTitle());
+            writeString(out, change.getDescription());
+            writeString(out, change.getStatus());
+            writeString(out, change.getPriority());
+            out.writeInt(change.getAssigneeId() == null ? Integer.MIN_VALUE : change.getAssigneeId());
+        });
+    }
+
+    static IssueChange decodeIssueChange(ByteBuffer in) {
+        long sequence = in.getLong();
+        int issueId = in.getInt();
+        IssueChange.Kind kind = IssueChange.Kind.fromCode(in.get());
+        LocalDateTime changedAt = readTimestamp(in);
+        String title = readString(in);
+        String description = readString(in);
+        String status = readString(in);
+        String priority = readString(in);
+        int assigneeId = in.getInt();
+        return new IssueChange(sequence, issueId, kind, changedAt, title, description, status, priority,
+                assigneeId == Integer.MIN_VALUE ? null : assigneeId);
+    }
+
+    @FunctionalInterface
+    private interface Encoder {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    private static AppendLog.Record encode(byte type, Encoder encoder) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            encoder.write(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new AppendLog.Record(type, bytes.toByteArray());
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeTimestamp(DataOutputStream out, LocalDateTime value) throws IOException {
+        if (value == null) {
+            out.writeLong(NO_TIMESTAMP);
+            out.writeInt(0);
+        } else {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    private static LocalDateTime readTimestamp(ByteBuffer in) {
+        long seconds = in.getLong();
+        int nanos = in.getInt();
+        return seconds == NO_TIMESTAMP ? null : LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,175 @@
+package com.IssueTracker.runner;
+
+import com.IssueTracker.api.ApiServer;
+import com.IssueTracker.events.BackpressurePolicy;
+import com.IssueTracker.events.EventBus;
+import com.IssueTracker.metrics.MetricsExporter;
+import com.IssueTracker.metrics.QueryMetrics;
+import com.IssueTracker.models.IssueQuery;
+import com.IssueTracker.repository.JdbcCommentRepository;
+import com.IssueTracker.repository.JdbcIssueHistoryRepository;
+import com.IssueTracker.repository.JdbcIssueRepository;
+import com.IssueTracker.repository.Repositories;
+import com.IssueTracker.search.SearchIndex;
+import com.IssueTracker.service.AdmissionController;
+import com.IssueTracker.service.AssigneeInbox;
+import com.IssueTracker.service.IssueHistoryService;
+import com.IssueTracker.service.IssueService;
+import com.IssueTracker.service.IssueStatsService;
+import com.IssueTracker.service.SearchService;
+import com.IssueTracker.service.UserService;
+import com.IssueTracker.utils.DBConnection;
+import com.IssueTracker.utils.QueryPlanVerifier;
+import com.IssueTracker.utils.SchemaMigrator;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+// Main's start-up, up to the menu: storage, metrics, schema, the event bus and its subscribers, the services
+// and the API. StartupBenchmark runs the same code. The search index, the dashboard counters and the
+// assignee inbox read nothing here; each loads on first use, so a short run that never needs them never
+// scans the issues.
+public class Application implements AutoCloseable {
+
+    private final Repositories repositories;
+    private final MetricsExporter metricsExporter;
+    private final Path searchPath;
+    private final SearchIndex searchIndex;
+    private final IssueStatsService statsService;
+    private final EventBus eventBus;
+    private final IssueHistoryService historyService;
+    private final AdmissionController admission;
+    private final UserService userService;
+    private final IssueService issueService;
+    private final SearchService searchService;
+    private final ApiServer apiServer;
+
+    private Application(Repositories repositories, MetricsExporter metricsExporter) throws IOException {
+        this.repositories = repositories;
+        this.metricsExporter = metricsExporter;
+        if (!repositories.isEmbedded()) {
+            prepareSchema();
+        }
+        userService = new UserService(repositories.users());
+        searchPath = Paths.get(System.getProperty("issuetracker.search.path", "issue-tracker.search"));
+        searchIndex = SearchIndex.open(searchPath, repositories.issues(), repositories.comments(),
+                IssueService.PAGE_SIZE, Boolean.getBoolean("issuetracker.search.rebuild"));
+        // Incremental counters scan the issues once, on first use; "database" runs a GROUP BY per dashboard view
+        statsService = new IssueStatsService(repositories.issues(),
+                !"database".equalsIgnoreCase(System.getProperty("issuetracker.stats", "incremental")));
+        eventBus = new EventBus();
+        eventBus.subscribe("search-index", searchIndex, BackpressurePolicy.BLOCK);
+        if (statsService.isIncremental()) {
+            eventBus.subscribe("issue-stats", statsService, BackpressurePolicy.BLOCK);
+        }
+        // Per-user views read their issue ids from an in-memory inbox; -Dissuetracker.inbox=false queries instead
+        AssigneeInbox inbox = null;
+        if (Boolean.parseBoolean(System.getProperty("issuetracker.inbox", "true"))) {
+            inbox = new AssigneeInbox(repositories.issues());
+            eventBus.subscribe("assignee-inbox", inbox, BackpressurePolicy.BLOCK);
+        }
+        historyService = new IssueHistoryService(repositories.history(),
+                Integer.getInteger("issuetracker.history.snapshotInterval",
+                        IssueHistoryService.DEFAULT_SNAPSHOT_INTERVAL));
+        eventBus.subscribe("issue-history", historyService, BackpressurePolicy.BLOCK);
+        // Per-user write rates and an adaptive limit on writes in flight; -Dissuetracker.admission.enabled=false
+        // admits everything
+        admission = AdmissionController.fromSystemProperties();
+        metricsExporter.setAdmissionController(admission);
+        issueService = new IssueService(repositories.issues(), repositories.comments(), eventBus, inbox, admission);
+        searchService = new SearchService(searchIndex, repositories.issues());
+        apiServer = ApiServer.fromSystemProperties(userService, issueService);
+    }
+
+    public static Application start() throws IOException {
+        Repositories repositories = Repositories.fromSystemProperties();
+        // The driver load and connection handshakes run while JMX and the exporter start;
+        // -Dissuetracker.db.warmUp=false connects on the first query instead
+        if (!repositories.isEmbedded()
+                && Boolean.parseBoolean(System.getProperty("issuetracker.db.warmUp", "true"))) {
+            DBConnection.warmUpAsync(Repositories.jdbcWarmUpQueries());
+        }
+        if (QueryMetrics.isEnabled()) {
+            QueryMetrics.global().registerMBean();
+        }
+        return new Application(repositories, MetricsExporter.fromSystemProperties());
+    }
+
+    public Repositories getRepositories() {
+        return repositories;
+    }
+
+    public IssueStatsService getStatsService() {
+        return statsService;
+    }
+
+    public IssueHistoryService getHistoryService() {
+        return historyService;
+    }
+
+    // Null when admission control is off
+    public AdmissionController getAdmission() {
+        return admission;
+    }
+
+    public UserService getUserService() {
+        return userService;
+    }
+
+    public IssueService getIssueService() {
+        return issueService;
+    }
+
+    public SearchService getSearchService() {
+        return searchService;
+    }
+
+    // Null unless -Dissuetracker.api.port is set
+    public ApiServer getApiServer() {
+        return apiServer;
+    }
+
+    // Stops taking requests, lets the subscribers finish, then saves the search index
+    @Override
+    public void close() throws IOException {
+        if (apiServer != null) {
+            apiServer.close();
+        }
+        eventBus.close();
+        searchIndex.save(searchPath);
+        repositories.close();
+        metricsExporter.close();
+    }
+
+    private static void prepareSchema() {
+        try {
+            int applied = new SchemaMigrator().migrate();
+            if (applied > 0) {
+                System.out.println("Applied " + applied + " schema migration(s).");
+            }
+            if (Boolean.getBoolean("issuetracker.db.verifyPlans")) {
+                QueryPlanVerifier verifier = new QueryPlanVerifier();
+                verifier.register("issues by status", JdbcIssueRepository.PAGE_BY_STATUS_QUERY, "OPEN", 0, 100);
+                verifier.register("issues by priority", JdbcIssueRepository.PAGE_BY_PRIORITY_QUERY, "HIGH", 0, 100);
+                verifier.register("issues by assignee", JdbcIssueRepository.PAGE_BY_ASSIGNEE_QUERY, 1, 0, 100);
+                verifier.register("issue summaries by status", JdbcIssueRepository.SUMMARY_PAGE_BY_STATUS_QUERY,
+                        "OPEN", 0, 100);
+                verifier.register("combined filter", JdbcIssueRepository.summaryQuerySql(
+                        new IssueQuery().statuses("OPEN").priorities("HIGH")), "OPEN", "HIGH");
+                verifier.register("comments by issue", JdbcCommentRepository.FIND_BY_ISSUE_QUERY, 1);
+                verifier.register("comment summaries by issue", JdbcCommentRepository.SUMMARIES_BY_ISSUE_QUERY, 1);
+                verifier.register("grouped issue counts", JdbcIssueRepository.COUNT_GROUPED_QUERY);
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                verifier.register("issue history", JdbcIssueHistoryRepository.HISTORY_QUERY, 1);
+                verifier.register("issue replay chain", JdbcIssueHistoryRepository.REPLAY_QUERY, 1, now, 1, now);
+                verifier.verify();
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+    }
+}
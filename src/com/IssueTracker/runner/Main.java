@@ -1,23 +1,63 @@
 package com.IssueTracker.runner;
 
+import com.IssueTracker.api.ApiServer;
+import com.IssueTracker.metrics.OperationStats;
+import com.IssueTracker.metrics.QueryMetrics;
 import com.IssueTracker.models.Issue;
 import com.IssueTracker.models.User;
 import com.IssueTracker.models.Comment;
+import com.IssueTracker.models.CommentSummary;
+import com.IssueTracker.models.IssueChange;
+import com.IssueTracker.models.IssueCounts;
+import com.IssueTracker.models.IssuePriority;
+import com.IssueTracker.models.IssueQuery;
+import com.IssueTracker.models.IssueStatus;
+import com.IssueTracker.models.IssueSummary;
+import com.IssueTracker.service.AdmissionController;
+import com.IssueTracker.service.AdmissionRejectedException;
+import com.IssueTracker.service.IssueHistoryService;
 import com.IssueTracker.service.IssueService;
+import com.IssueTracker.service.IssueStatsService;
+import com.IssueTracker.service.SearchService;
 import com.IssueTracker.service.UserService;
-import com.IssueTracker.repository.IssueRepository;
-import com.IssueTracker.repository.CommentRepository;
+import com.IssueTracker.repository.IssueRepository.PatchResult;
+import com.IssueTracker.repository.Repositories;
+import com.IssueTracker.transfer.DataExporter;
+import com.IssueTracker.transfer.DataImporter;
+import com.IssueTracker.transfer.TransferFormat;
+import com.IssueTracker.transfer.TransferProgress;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Scanner;
+import java.util.stream.Stream;
 
 public class Main {
-    public static void main(String[] args) {
+    private static final int SCREEN_SIZE = 20;
+    private static final int SEARCH_LIMIT = 20;
+    private static final int FILTER_LIMIT = 100;
+
+    public static void main(String[] args) throws IOException {
+        Application app = Application.start();
+        Repositories repositories = app.getRepositories();
         Scanner scanner = new Scanner(System.in);
-        UserService userService = new UserService();
-        IssueRepository issueRepo = new IssueRepository();
-        CommentRepository commentRepo = new CommentRepository();
-        IssueService issueService = new IssueService(issueRepo, commentRepo);
+        UserService userService = app.getUserService();
+        IssueStatsService statsService = app.getStatsService();
+        IssueHistoryService historyService = app.getHistoryService();
+        AdmissionController admission = app.getAdmission();
+        IssueService issueService = app.getIssueService();
+        SearchService searchService = app.getSearchService();
+        ApiServer apiServer = app.getApiServer();
+        if (apiServer != null) {
+            System.out.println("API listening on http://" + apiServer.getAddress().getHostString() + ":"
+                    + apiServer.getAddress().getPort() + "/issues");
+        }
 
         while (true) {
             System.out.println("\n--- Issue Tracker ---");
@@ -33,6 +73,15 @@ public class Main {
             System.out.println("10. Add Comment to Issue");
             System.out.println("11. View Comments of an Issue");
             System.out.println("12. Exit");
+            System.out.println("13. Search Issues");
+            System.out.println("14. Issue Dashboard");
+            System.out.println("15. Query Metrics");
+            System.out.println("16. View Issue Details");
+            System.out.println("17. Filter Issues (combined criteria)");
+            System.out.println("18. Export Data");
+            System.out.println("19. Import Data");
+            System.out.println("20. My Open Issues");
+            System.out.println("21. Issue History");
             System.out.print("Choose option: ");
 
             int choice = scanner.nextInt();
@@ -67,14 +116,16 @@ public class Main {
                     int userId = scanner.nextInt();
                     scanner.nextLine();
                     Issue issue = new Issue(title, desc, status, priority, userId);
-                    issueService.createIssue(issue);
-                    System.out.println("Issue created!");
+                    try {
+                        issueService.createIssue(issue);
+                        System.out.println("Issue created!");
+                    } catch (AdmissionRejectedException e) {
+                        System.out.println(e.getMessage());
+                    }
                     break;
 
                 case 4:
-                    for (Issue i : issueService.viewAllIssues()) {
-                        System.out.println(i);
-                    }
+                    printPaged(scanner, issueService.viewIssueSummaries());
                     break;
 
                 case 5:
@@ -99,41 +150,47 @@ public class Main {
                     String assigneeInput = scanner.nextLine();
                     Integer newAssigneeId = assigneeInput.isEmpty() ? null : Integer.parseInt(assigneeInput);
 
-                    issueService.updateIssue(id, titleUpdate, descUpdate, statusUpdate, priorityUpdate, newAssigneeId);
-                    System.out.println("Issue updated!");
+                    PatchResult updated = issueService.updateIssue(id, titleUpdate, descUpdate, statusUpdate,
+                            priorityUpdate, newAssigneeId);
+                    if (updated == PatchResult.UPDATED) {
+                        System.out.println("Issue updated!");
+                    } else if (updated == PatchResult.NOT_FOUND) {
+                        System.out.println("Issue not found!");
+                    } else if (updated == PatchResult.CONFLICT) {
+                        System.out.println("Issue was changed by someone else; reload it and try again.");
+                    } else {
+                        System.out.println("Issue could not be updated.");
+                    }
                     break;
 
                 case 6:
                     System.out.print("Enter issue ID to delete: ");
                     int deleteId = scanner.nextInt();
                     scanner.nextLine();
-                    issueService.deleteIssueById(deleteId);
-                    System.out.println("Issue deleted!");
+                    if (issueService.deleteIssueById(deleteId)) {
+                        System.out.println("Issue deleted!");
+                    } else {
+                        System.out.println("Issue could not be deleted.");
+                    }
                     break;
 
                 case 7:
                     System.out.print("Enter status to filter: ");
                     String fStatus = scanner.nextLine();
-                    for (Issue i : issueService.getIssuesByStatus(fStatus)) {
-                        System.out.println(i);
-                    }
+                    printPaged(scanner, issueService.getIssueSummariesByStatus(fStatus));
                     break;
 
                 case 8:
                     System.out.print("Enter priority to filter: ");
                     String fPriority = scanner.nextLine();
-                    for (Issue i : issueService.getIssuesByPriority(fPriority)) {
-                        System.out.println(i);
-                    }
+                    printPaged(scanner, issueService.getIssueSummariesByPriority(fPriority));
                     break;
 
                 case 9:
                     System.out.print("Enter user ID to filter: ");
                     int fUserId = scanner.nextInt();
                     scanner.nextLine();
-                    for (Issue i : issueService.getIssuesByUserId(fUserId)) {
-                        System.out.println(i);
-                    }
+                    printPaged(scanner, issueService.getIssueSummariesByUserId(fUserId));
                     break;
 
                 case 10:
@@ -147,8 +204,12 @@ public class Main {
                     System.out.print("Enter comment: ");
                     String content = scanner.nextLine();
 
-                    issueService.addCommentToIssue(issueId, author, content);
-                    System.out.println("Comment added!");
+                    try {
+                        issueService.addCommentToIssue(issueId, author, content);
+                        System.out.println("Comment added!");
+                    } catch (AdmissionRejectedException e) {
+                        System.out.println(e.getMessage());
+                    }
                     break;
 
                 case 11:
@@ -156,11 +217,11 @@ public class Main {
                     id = scanner.nextInt();
                     scanner.nextLine();
 
-                    List<Comment> comments = issueService.getCommentsForIssue(id);
+                    List<CommentSummary> comments = issueService.getCommentSummariesForIssue(id);
                     if (comments.isEmpty()) {
                         System.out.println("No comments.");
                     } else {
-                        for (Comment c : comments) {
+                        for (CommentSummary c : comments) {
                             System.out.println(c);
                         }
                     }
@@ -169,11 +230,239 @@ public class Main {
                 case 12:
                     System.out.println("Exiting...");
                     scanner.close();
+                    app.close();
                     return;
 
+                case 13:
+                    System.out.print("Enter search terms (end a word with * to match a prefix): ");
+                    String query = scanner.nextLine();
+                    List<Issue> found = searchService.searchIssues(query, SEARCH_LIMIT);
+                    if (found.isEmpty()) {
+                        System.out.println("No issues found.");
+                    }
+                    for (Issue match : found) {
+                        System.out.println(match);
+                    }
+                    break;
+
+                case 14:
+                    System.out.print("Enter user ID (leave blank for all users): ");
+                    String dashboardUser = scanner.nextLine().trim();
+                    printDashboard(statsService.getCounts(),
+                            dashboardUser.isEmpty() ? null : Integer.parseInt(dashboardUser));
+                    break;
+
+                case 15:
+                    printMetrics(QueryMetrics.global());
+                    if (admission != null) {
+                        System.out.println("Write admission: " + admission.getStats());
+                    }
+                    break;
+
+                case 16:
+                    System.out.print("Enter issue ID: ");
+                    int detailId = scanner.nextInt();
+                    scanner.nextLine();
+                    Issue details = issueService.getIssueById(detailId);
+                    if (details == null) {
+                        System.out.println("Issue not found!");
+                        break;
+                    }
+                    System.out.println(details);
+                    for (Comment c : issueService.getCommentsForIssue(detailId)) {
+                        System.out.println(c);
+                    }
+                    break;
+
+                case 17:
+                    IssueQuery filter;
+                    try {
+                        filter = readIssueQuery(scanner);
+                    } catch (DateTimeParseException | IllegalArgumentException e) {
+                        System.out.println("Invalid filter: " + e.getMessage());
+                        break;
+                    }
+                    List<IssueSummary> filtered = issueService.findIssues(filter);
+                    if (filtered.isEmpty()) {
+                        System.out.println("No issues found.");
+                    }
+                    for (IssueSummary summary : filtered) {
+                        System.out.println(summary);
+                    }
+                    break;
+
+                case 18:
+                    System.out.print("Export to directory: ");
+                    Path exportDir = Paths.get(scanner.nextLine().trim());
+                    System.out.print("Format (csv or jsonl): ");
+                    try {
+                        TransferFormat format = TransferFormat.parse(scanner.nextLine());
+                        new DataExporter(repositories.users(), repositories.issues(), repositories.comments(),
+                                IssueService.PAGE_SIZE).exportAll(exportDir, format, Main::printProgress);
+                    } catch (IOException | IllegalArgumentException | IllegalStateException e) {
+                        System.out.println("Export failed: " + e.getMessage());
+                    }
+                    break;
+
+                case 19:
+                    System.out.print("Import from directory: ");
+                    Path importDir = Paths.get(scanner.nextLine().trim());
+                    try {
+                        new DataImporter(userService, issueService,
+                                Integer.getInteger("issuetracker.import.threads", 4),
+                                Integer.getInteger("issuetracker.import.chunkSize", 1000))
+                                .importAll(importDir, Main::printProgress);
+                    } catch (IOException | IllegalArgumentException e) {
+                        System.out.println("Import failed: " + e.getMessage());
+                    }
+                    break;
+
+                case 20:
+                    System.out.print("Enter your user ID: ");
+                    int myUserId = scanner.nextInt();
+                    scanner.nextLine();
+                    printPaged(scanner, issueService.getOpenIssueSummariesForUser(myUserId));
+                    break;
+
+                case 21:
+                    System.out.print("Enter issue ID: ");
+                    int historyId = scanner.nextInt();
+                    scanner.nextLine();
+                    List<IssueChange> changes = historyService.getHistory(historyId);
+                    if (changes.isEmpty()) {
+                        System.out.println("No history recorded for this issue.");
+                        break;
+                    }
+                    for (IssueChange change : changes) {
+                        System.out.println(change);
+                    }
+                    System.out.print("Show the issue as of (yyyy-MM-dd HH:mm, blank to skip): ");
+                    LocalDateTime asOf;
+                    try {
+                        asOf = readDateTime(scanner);
+                    } catch (DateTimeParseException e) {
+                        System.out.println("Invalid time: " + e.getMessage());
+                        break;
+                    }
+                    if (asOf != null) {
+                        Issue past = historyService.getIssueAsOf(historyId, asOf);
+                        System.out.println(past != null ? past : "The issue did not exist at that time.");
+                    }
+                    break;
+
                 default:
                     System.out.println("Invalid choice. Try again.");
             }
         }
     }
+
+    // Blank answers leave a criterion out; lists are comma separated and dates are yyyy-MM-dd
+    private static IssueQuery readIssueQuery(Scanner scanner) {
+        IssueQuery query = new IssueQuery();
+        System.out.print("Statuses (e.g., OPEN,IN_PROGRESS): ");
+        String statuses = scanner.nextLine().trim();
+        if (!statuses.isEmpty()) {
+            query.statuses(statuses.split("\\s*,\\s*"));
+        }
+        System.out.print("Priorities (e.g., HIGH,MEDIUM): ");
+        String priorities = scanner.nextLine().trim();
+        if (!priorities.isEmpty()) {
+            query.priorities(priorities.split("\\s*,\\s*"));
+        }
+        System.out.print("Assignee IDs (e.g., 1,4): ");
+        String assignees = scanner.nextLine().trim();
+        if (!assignees.isEmpty()) {
+            for (String assignee : assignees.split("\\s*,\\s*")) {
+                query.assignees(Integer.parseInt(assignee));
+            }
+        }
+        System.out.print("Created on or after (yyyy-MM-dd): ");
+        LocalDateTime createdFrom = readDate(scanner);
+        System.out.print("Created before (yyyy-MM-dd): ");
+        LocalDateTime createdTo = readDate(scanner);
+        query.createdBetween(createdFrom, createdTo);
+        System.out.print("Updated on or after (yyyy-MM-dd): ");
+        LocalDateTime updatedFrom = readDate(scanner);
+        System.out.print("Updated before (yyyy-MM-dd): ");
+        LocalDateTime updatedTo = readDate(scanner);
+        query.updatedBetween(updatedFrom, updatedTo);
+        System.out.print("Sort by (id, created or updated; add \" desc\" for newest first): ");
+        String[] sort = scanner.nextLine().trim().toLowerCase().split("\\s+");
+        IssueQuery.SortField field = sort[0].startsWith("created") ? IssueQuery.SortField.CREATED_AT
+                : sort[0].startsWith("updated") ? IssueQuery.SortField.UPDATED_AT : IssueQuery.SortField.ID;
+        query.orderBy(field, sort.length > 1 && sort[1].equals("desc"));
+        return query.limit(FILTER_LIMIT);
+    }
+
+    private static LocalDateTime readDate(Scanner scanner) {
+        String date = scanner.nextLine().trim();
+        return date.isEmpty() ? null : LocalDate.parse(date).atStartOfDay();
+    }
+
+    // A date alone means the start of that day
+    private static LocalDateTime readDateTime(Scanner scanner) {
+        String text = scanner.nextLine().trim();
+        if (text.isEmpty()) {
+            return null;
+        }
+        return text.length() <= 10 ? LocalDate.parse(text).atStartOfDay()
+                : LocalDateTime.parse(text.replace(' ', 'T'));
+    }
+
+    private static void printProgress(TransferProgress progress) {
+        System.out.println((progress.isFinished() ? "Done " : "") + progress);
+    }
+
+    private static void printDashboard(IssueCounts counts, Integer assigneeId) {
+        System.out.printf("%-12s", "");
+        for (IssuePriority priority : IssuePriority.values()) {
+            System.out.printf("%10s", priority);
+        }
+        System.out.printf("%10s%n", "TOTAL");
+        for (IssueStatus status : IssueStatus.values()) {
+            System.out.printf("%-12s", status);
+            for (IssuePriority priority : IssuePriority.values()) {
+                System.out.printf("%10d", counts.count(status, priority, assigneeId));
+            }
+            System.out.printf("%10d%n", counts.count(status, null, assigneeId));
+        }
+        System.out.printf("%-12s", "TOTAL");
+        for (IssuePriority priority : IssuePriority.values()) {
+            System.out.printf("%10d", counts.count(null, priority, assigneeId));
+        }
+        System.out.printf("%10d%n", counts.count(null, null, assigneeId));
+    }
+
+    private static void printMetrics(QueryMetrics metrics) {
+        System.out.println("Repository calls:");
+        for (OperationStats stats : metrics.getRepositoryCallStats()) {
+            System.out.println("  " + stats);
+        }
+        List<OperationStats> statements = metrics.getStatementStats();
+        if (!statements.isEmpty()) {
+            System.out.println("SQL statements:");
+            for (OperationStats stats : statements) {
+                System.out.println("  " + stats);
+            }
+            System.out.printf("Connection wait: p99=%.3fms, slow queries=%d%n", metrics.getConnectionWaitP99Millis(),
+                    metrics.getSlowQueries());
+        }
+    }
+
+    private static void printPaged(Scanner scanner, Stream<IssueSummary> issues) {
+        Iterator<IssueSummary> it = issues.iterator();
+        int shown = 0;
+        while (it.hasNext()) {
+            System.out.println(it.next());
+            if (++shown % SCREEN_SIZE == 0 && it.hasNext()) {
+                System.out.print("-- more (Enter to continue, q to stop) -- ");
+                if (scanner.nextLine().trim().equalsIgnoreCase("q")) {
+                    break;
+                }
+            }
+        }
+        if (shown == 0) {
+            System.out.println("No issues found.");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package com.IssueTracker.search;
+
+public class SearchHit {
+    private final int issueId;
+    private final double score;
+
+    public SearchHit(int issueId, double score) {
+        this.issueId = issueId;
+        this.score = score;
+    }
+
+    public int getIssueId() {
+        return issueId;
+    }
+
+    public double getScore() {
+        return score;
+    }
+
+    @Override
+    public String toString() {
+        return "SearchHit [issueId=" + issueId + ", score=" + String.format("%.4f", score) + "]";
+    }
+}
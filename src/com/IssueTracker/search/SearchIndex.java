@@ -0,0 +1,481 @@
+package com.IssueTracker.search;
+
+import com.IssueTracker.events.DeferredEvents;
+import com.IssueTracker.events.EventSubscriber;
+import com.IssueTracker.events.IssueEvent;
+import com.IssueTracker.models.Comment;
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssuePatch;
+import com.IssueTracker.models.IssueWatermark;
+import com.IssueTracker.repository.CommentRepository;
+import com.IssueTracker.repository.IssueRepository;
+import com.IssueTracker.utils.IntHashMap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Inverted index over issue titles, descriptions and comments with BM25 ranking. Each issue is one
+// document; title terms count TITLE_WEIGHT times. The forward index (term counts per field) is kept
+// so a field can be replaced incrementally, and it is what save()/load() persist; postings are
+// derived from it on load without touching the database or re-tokenizing any text. Subscribed to the
+// event bus, it applies each batch of changes under a single write lock. Each document also keeps the
+// row version, comment count and highest comment id it reflects, so isCurrent() can compare a loaded index
+// against the repositories' watermark and catch writes made while the index was not listening, and an
+// event the document already reflects (e.g. replayed on top of a load or rebuild that read the write) is
+// skipped instead of counting its terms twice. open() defers all of that to the first search.
+public class SearchIndex implements EventSubscriber {
+
+    private static final int MAGIC = 0x49545358;
+    private static final int FORMAT_VERSION = 3;
+    private static final int TITLE_WEIGHT = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final int TITLE = 0;
+    private static final int DESCRIPTION = 1;
+    private static final int COMMENTS = 2;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, IntHashMap<Integer>> postings = new TreeMap<>();
+    private final IntHashMap<Document> documents = new IntHashMap<>();
+    private long totalLength;
+    // Set by open() until the index is first used
+    private volatile Opener opener;
+
+    private static final class Opener {
+        final Path path;
+        final IssueRepository issues;
+        final CommentRepository comments;
+        final int pageSize;
+        final boolean rebuild;
+        final DeferredEvents deferred = new DeferredEvents();
+
+        Opener(Path path, IssueRepository issues, CommentRepository comments, int pageSize, boolean rebuild) {
+            this.path = path;
+            this.issues = issues;
+            this.comments = comments;
+            this.pageSize = pageSize;
+            this.rebuild = rebuild;
+        }
+
+        // The saved index plus the changes since start-up, if that matches the repositories; else a rebuild.
+        // The changes are applied to a rebuild as well, in case it read a replica that had not caught up;
+        // those it did read are skipped by version and comment id.
+        SearchIndex read() {
+            List<IssueEvent> changes = deferred.drain();
+            if (!rebuild && Files.exists(path)) {
+                try {
+                    SearchIndex index = load(path);
+                    index.onEvents(changes);
+                    if (index.isCurrent(issues, comments)) {
+                        return index;
+                    }
+                    System.out.println("Search index is behind the database; rebuilding it.");
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+            SearchIndex index = SearchIndex.rebuild(issues, comments, pageSize);
+            index.onEvents(changes);
+            return index;
+        }
+    }
+
+    private static final class Document {
+        private final List<Map<String, Integer>> fields = List.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+        private int length;
+        // -1 until the issue itself is indexed (a comment can arrive first)
+        private int version = -1;
+        private int comments;
+        private int lastCommentId;
+    }
+
+    // An index backed by the file at path that reads nothing until it is first searched (or changed more
+    // than DeferredEvents holds). Changes published before then are applied to the saved index when it is
+    // read. If the result does not match the repositories' watermark, or rebuild is set or the file is
+    // missing, it is rebuilt from the repositories instead.
+    public static SearchIndex open(Path path, IssueRepository issues, CommentRepository comments, int pageSize,
+            boolean rebuild) {
+        SearchIndex index = new SearchIndex();
+        index.opener = new Opener(path, issues, comments, pageSize, rebuild);
+        return index;
+    }
+
+    public static SearchIndex rebuild(IssueRepository issues, CommentRepository comments, int pageSize) {
+        SearchIndex index = new SearchIndex();
+        int afterId = 0;
+        List<Issue> page;
+        do {
+            page = issues.findAllAfter(afterId, pageSize);
+            comments.attachComments(page);
+            for (Issue issue : page) {
+                index.indexIssue(issue);
+                for (Comment comment : issue.getComments()) {
+                    index.addComment(comment);
+                }
+                afterId = issue.getId();
+            }
+        } while (page.size() == pageSize);
+        return index;
+    }
+
+    public void indexIssue(Issue issue) {
+        ensureOpen();
+        lock.writeLock().lock();
+        try {
+            setField(issue.getId(), TITLE, issue.getTitle());
+            setField(issue.getId(), DESCRIPTION, issue.getDescription());
+            documents.get(issue.getId()).version = issue.getVersion();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void addComment(Comment comment) {
+        ensureOpen();
+        lock.writeLock().lock();
+        try {
+            appendComment(comment);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeIssue(int issueId) {
+        ensureOpen();
+        lock.writeLock().lock();
+        try {
+            removeDocument(issueId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void onEvents(List<IssueEvent> events) {
+        lock.writeLock().lock();
+        try {
+            Opener current = opener;
+            if (current != null && current.deferred.defer(events)) {
+                return;
+            }
+            ensureOpen();
+            for (IssueEvent event : events) {
+                switch (event.getType()) {
+                    case ISSUE_CREATED:
+                        Document created = documents.get(event.getIssueId());
+                        if (created == null || created.version < 0) {
+                            setField(event.getIssueId(), TITLE, event.getIssue().getTitle());
+                            setField(event.getIssueId(), DESCRIPTION, event.getIssue().getDescription());
+                            documents.get(event.getIssueId()).version = event.getVersion();
+                        }
+                        break;
+                    case ISSUE_UPDATED:
+                        // A patch for an issue the index has never seen (e.g. just deleted) must not recreate it
+                        Document doc = documents.get(event.getIssueId());
+                        if (doc != null && (event.getVersion() < 0 || event.getVersion() > doc.version)) {
+                            applyPatch(event.getIssueId(), doc, event.getPatch(), event.getVersion());
+                        }
+                        break;
+                    case ISSUE_DELETED:
+                        removeDocument(event.getIssueId());
+                        break;
+                    case COMMENT_ADDED:
+                        appendComment(event.getComment());
+                        break;
+                    default:
+                        break;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        ensureOpen();
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // False if any issue or comment was written without the index seeing it, e.g. by another process
+    // or while the saved index was on disk, or if the watermark could not be read
+    public boolean isCurrent(IssueRepository issues, CommentRepository comments) {
+        ensureOpen();
+        // count, version sum, comment count; and the highest issue id
+        long[] totals = new long[3];
+        int[] maxId = new int[1];
+        lock.readLock().lock();
+        try {
+            documents.forEach((docId, doc) -> {
+                if (doc.version >= 0) {
+                    totals[0]++;
+                    totals[1] += doc.version;
+                    maxId[0] = Math.max(maxId[0], docId);
+                }
+                totals[2] += doc.comments;
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new IssueWatermark(totals[0], maxId[0], totals[1]).equals(issues.watermark())
+                && totals[2] == comments.countAll();
+    }
+
+    // Ranks issues by BM25 over the query terms. A term ending in '*' matches every indexed term
+    // with that prefix.
+    public List<SearchHit> search(String query, int limit) {
+        ensureOpen();
+        lock.readLock().lock();
+        try {
+            if (documents.isEmpty()) {
+                return new ArrayList<>();
+            }
+            double avgLength = (double) totalLength / documents.size();
+            IntHashMap<double[]> scores = new IntHashMap<>();
+            for (String raw : query.trim().split("\\s+")) {
+                boolean prefix = raw.endsWith("*");
+                for (String term : Tokenizer.tokenize(prefix ? raw.substring(0, raw.length() - 1) : raw)) {
+                    Map<String, IntHashMap<Integer>> matches = prefix
+                            ? postings.subMap(term, true, term + Character.MAX_VALUE, false)
+                            : single(term);
+                    for (IntHashMap<Integer> docs : matches.values()) {
+                        score(docs, avgLength, scores);
+                    }
+                }
+            }
+            return topHits(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, IntHashMap<Integer>> single(String term) {
+        IntHashMap<Integer> docs = postings.get(term);
+        return docs == null ? Map.of() : Map.of(term, docs);
+    }
+
+    private void score(IntHashMap<Integer> docs, double avgLength, IntHashMap<double[]> scores) {
+        int n = documents.size();
+        int df = docs.size();
+        double idf = Math.log(1 + (n - df + 0.5) / (df + 0.5));
+        docs.forEach((docId, tf) -> {
+            double norm = K1 * (1 - B + B * documents.get(docId).length / avgLength);
+            scores.computeIfAbsent(docId, id -> new double[1])[0] += idf * tf * (K1 + 1) / (tf + norm);
+        });
+    }
+
+    private static List<SearchHit> topHits(IntHashMap<double[]> scores, int limit) {
+        PriorityQueue<SearchHit> top = new PriorityQueue<>((a, b) -> Double.compare(a.getScore(), b.getScore()));
+        scores.forEach((docId, score) -> {
+            top.add(new SearchHit(docId, score[0]));
+            if (top.size() > limit) {
+                top.poll();
+            }
+        });
+        List<SearchHit> hits = new ArrayList<>(top);
+        hits.sort((a, b) -> Double.compare(b.getScore(), a.getScore()));
+        return hits;
+    }
+
+    // ---- persistence ----
+
+    // An index opened but never used is left as it is on disk, unless changes came in meanwhile
+    public void save(Path path) throws IOException {
+        Opener current = opener;
+        if (current != null) {
+            lock.readLock().lock();
+            try {
+                if (current.deferred.size() == 0) {
+                    return;
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            ensureOpen();
+        }
+        Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+        lock.readLock().lock();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(FORMAT_VERSION);
+            out.writeInt(documents.size());
+            IOException[] failure = new IOException[1];
+            documents.forEach((docId, doc) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    out.writeInt(docId);
+                    out.writeInt(doc.version);
+                    out.writeInt(doc.comments);
+                    out.writeInt(doc.lastCommentId);
+                    for (Map<String, Integer> field : doc.fields) {
+                        out.writeInt(field.size());
+                        for (Map.Entry<String, Integer> entry : field.entrySet()) {
+                            out.writeUTF(entry.getKey());
+                            out.writeInt(entry.getValue());
+                        }
+                    }
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    public static SearchIndex load(Path path) throws IOException {
+        SearchIndex index = new SearchIndex();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                throw new IOException(path + " is not a search index (or has an unsupported version)");
+            }
+            int docCount = in.readInt();
+            for (int i = 0; i < docCount; i++) {
+                int docId = in.readInt();
+                Document doc = new Document();
+                doc.version = in.readInt();
+                doc.comments = in.readInt();
+                doc.lastCommentId = in.readInt();
+                index.documents.put(docId, doc);
+                for (int field = 0; field < doc.fields.size(); field++) {
+                    int termCount = in.readInt();
+                    Map<String, Integer> counts = new HashMap<>();
+                    for (int t = 0; t < termCount; t++) {
+                        counts.put(in.readUTF(), in.readInt());
+                    }
+                    index.addTerms(docId, doc, field, counts);
+                }
+            }
+        }
+        return index;
+    }
+
+    private void ensureOpen() {
+        if (opener == null) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Opener current = opener;
+            if (current == null) {
+                return;
+            }
+            SearchIndex read = current.read();
+            postings.putAll(read.postings);
+            read.documents.forEach(documents::put);
+            totalLength = read.totalLength;
+            opener = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ---- forward/inverted index maintenance (caller holds the write lock) ----
+
+    private void applyPatch(int issueId, Document doc, IssuePatch patch, int version) {
+        if (patch.getTitle() != null) {
+            setField(issueId, TITLE, patch.getTitle());
+        }
+        if (patch.getDescription() != null) {
+            setField(issueId, DESCRIPTION, patch.getDescription());
+        }
+        if (version >= 0) {
+            doc.version = version;
+        } else if (doc.version >= 0 && !patch.isEmpty()) {
+            // Not reported; the repositories bump the version for every non-empty patch
+            doc.version++;
+        }
+    }
+
+    // Comment ids grow with each issue's comments, so one at or below the highest indexed is already in
+    private void appendComment(Comment comment) {
+        Document doc = documents.computeIfAbsent(comment.getIssueId(), id -> new Document());
+        if (comment.getCommentId() > 0 && comment.getCommentId() <= doc.lastCommentId) {
+            return;
+        }
+        addTerms(comment.getIssueId(), doc, COMMENTS, countTerms(comment.getContent()));
+        doc.comments++;
+        doc.lastCommentId = Math.max(doc.lastCommentId, comment.getCommentId());
+    }
+
+    private void removeDocument(int issueId) {
+        Document doc = documents.remove(issueId);
+        if (doc != null) {
+            for (int field = 0; field < doc.fields.size(); field++) {
+                removeTerms(issueId, doc, field);
+            }
+        }
+    }
+
+    private void setField(int docId, int field, String text) {
+        Document doc = documents.computeIfAbsent(docId, id -> new Document());
+        removeTerms(docId, doc, field);
+        addTerms(docId, doc, field, countTerms(text));
+    }
+
+    private static Map<String, Integer> countTerms(String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String token : Tokenizer.tokenize(text)) {
+            counts.merge(token, 1, Integer::sum);
+        }
+        return counts;
+    }
+
+    private void addTerms(int docId, Document doc, int field, Map<String, Integer> counts) {
+        int weight = field == TITLE ? TITLE_WEIGHT : 1;
+        for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+            doc.fields.get(field).merge(entry.getKey(), entry.getValue(), Integer::sum);
+            IntHashMap<Integer> docs = postings.computeIfAbsent(entry.getKey(), t -> new IntHashMap<>(4));
+            Integer tf = docs.get(docId);
+            docs.put(docId, (tf == null ? 0 : tf) + weight * entry.getValue());
+            doc.length += weight * entry.getValue();
+            totalLength += weight * entry.getValue();
+        }
+    }
+
+    private void removeTerms(int docId, Document doc, int field) {
+        int weight = field == TITLE ? TITLE_WEIGHT : 1;
+        for (Map.Entry<String, Integer> entry : doc.fields.get(field).entrySet()) {
+            IntHashMap<Integer> docs = postings.get(entry.getKey());
+            if (docs == null) {
+                continue;
+            }
+            int remaining = docs.get(docId) - weight * entry.getValue();
+            if (remaining > 0) {
+                docs.put(docId, remaining);
+            } else {
+                docs.remove(docId);
+                if (docs.isEmpty()) {
+                    postings.remove(entry.getKey());
+                }
+            }
+            doc.length -= weight * entry.getValue();
+            totalLength -= weight * entry.getValue();
+        }
+        doc.fields.get(field).clear();
+    }
+}
@@ -0,0 +1,41 @@
+package com.IssueTracker.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+final class Tokenizer {
+
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "by", "for",
+            "in", "is", "it", "of", "on", "or", "the", "to", "was", "with");
+
+    private Tokenizer() {
+    }
+
+    // Lower-cased runs of letters and digits, minus single characters and stop words
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addToken(tokens, text.substring(start, i));
+                start = -1;
+            }
+        }
+        return tokens;
+    }
+
+    private static void addToken(List<String> tokens, String word) {
+        String token = word.toLowerCase(Locale.ROOT);
+        if (token.length() > 1 && !STOP_WORDS.contains(token)) {
+            tokens.add(token);
+        }
+    }
+}
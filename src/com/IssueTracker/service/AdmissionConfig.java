@@ -0,0 +1,105 @@
+package com.IssueTracker.service;
+
+public class AdmissionConfig {
+    private double ratePerSecond = 10;
+    private int burst = 20;
+    private int maxTrackedUsers = 10_000;
+    private int minLimit = 1;
+    // The pool's default size: more writes in flight than connections only queue inside the pool
+    private int maxLimit = 10;
+    private long targetLatencyMillis = 100;
+    private double backoffRatio = 0.9;
+    private long queueTimeoutMillis = 200;
+    private int maxQueued = 100;
+
+    public static AdmissionConfig fromSystemProperties() {
+        AdmissionConfig config = new AdmissionConfig();
+        config.ratePerSecond = Double.parseDouble(System.getProperty("issuetracker.admission.ratePerSecond",
+                String.valueOf(config.ratePerSecond)));
+        config.burst = Integer.getInteger("issuetracker.admission.burst", config.burst);
+        config.maxTrackedUsers = Integer.getInteger("issuetracker.admission.maxTrackedUsers", config.maxTrackedUsers);
+        config.minLimit = Integer.getInteger("issuetracker.admission.minLimit", config.minLimit);
+        config.maxLimit = Integer.getInteger("issuetracker.admission.maxLimit", config.maxLimit);
+        config.targetLatencyMillis = Long.getLong("issuetracker.admission.targetLatencyMillis",
+                config.targetLatencyMillis);
+        config.queueTimeoutMillis = Long.getLong("issuetracker.admission.queueTimeoutMillis",
+                config.queueTimeoutMillis);
+        config.maxQueued = Integer.getInteger("issuetracker.admission.maxQueued", config.maxQueued);
+        return config;
+    }
+
+    // Writes a second each user may sustain
+    public double getRatePerSecond() {
+        return ratePerSecond;
+    }
+
+    public void setRatePerSecond(double ratePerSecond) {
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    // Writes a user may make at once after being idle
+    public int getBurst() {
+        return burst;
+    }
+
+    public void setBurst(int burst) {
+        this.burst = burst;
+    }
+
+    public int getMaxTrackedUsers() {
+        return maxTrackedUsers;
+    }
+
+    public void setMaxTrackedUsers(int maxTrackedUsers) {
+        this.maxTrackedUsers = maxTrackedUsers;
+    }
+
+    public int getMinLimit() {
+        return minLimit;
+    }
+
+    public void setMinLimit(int minLimit) {
+        this.minLimit = minLimit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+
+    public long getTargetLatencyMillis() {
+        return targetLatencyMillis;
+    }
+
+    public void setTargetLatencyMillis(long targetLatencyMillis) {
+        this.targetLatencyMillis = targetLatencyMillis;
+    }
+
+    // What the concurrency limit is multiplied by when a write is slower than the target
+    public double getBackoffRatio() {
+        return backoffRatio;
+    }
+
+    public void setBackoffRatio(double backoffRatio) {
+        this.backoffRatio = backoffRatio;
+    }
+
+    public long getQueueTimeoutMillis() {
+        return queueTimeoutMillis;
+    }
+
+    public void setQueueTimeoutMillis(long queueTimeoutMillis) {
+        this.queueTimeoutMillis = queueTimeoutMillis;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public void setMaxQueued(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+}
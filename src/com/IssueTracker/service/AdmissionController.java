@@ -0,0 +1,261 @@
+package com.IssueTracker.service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Admission control for the interactive write paths, in two steps:
+//
+// 1. A token bucket per user. Over its rate a write is rejected at once (RATE_LIMITED), so a client
+//    sending bursts spends only its own budget. Each bucket is a single AtomicLong holding the time the
+//    bucket will be full again (the generic cell rate algorithm), so taking a token is one CAS and no
+//    lock. A bucket that has refilled carries no state; idle buckets are swept once more than
+//    maxTrackedUsers are held.
+// 2. A limit on writes in flight across all users, adapted by AIMD from the latency of the admitted writes.
+//    A write that finishes under the target while the limit is in use raises the limit by 1/limit, about
+//    one per round of writes. A slower one multiplies it by the backoff ratio, at most once per round. Over
+//    the limit a write waits up to queueTimeout in a bounded queue, then is rejected (OVERLOADED) and
+//    its token goes back to the user's bucket.
+public class AdmissionController {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final int maxTrackedUsers;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final double backoffRatio;
+    private final long queueTimeoutNanos;
+    private final int maxQueued;
+
+    // user -> time its bucket is full again; a token costs intervalNanos and the bucket holds burstNanos
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweepNanos = new AtomicLong(System.nanoTime());
+
+    // The limit is a double so additive increases of 1/limit add up; stored as its raw bits for CAS
+    private final AtomicLong limitBits;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final ReentrantLock queueLock = new ReentrantLock();
+    private final Condition slotFreed = queueLock.newCondition();
+    private volatile long lastDecreaseNanos = System.nanoTime();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rateLimited = new LongAdder();
+    private final LongAdder shed = new LongAdder();
+    private final LongAdder queueTimeouts = new LongAdder();
+    private final LongAdder queued = new LongAdder();
+    private final LongAdder queueWaitNanos = new LongAdder();
+
+    public AdmissionController(AdmissionConfig config) {
+        if (config.getRatePerSecond() <= 0 || config.getBurst() <= 0) {
+            throw new IllegalArgumentException("ratePerSecond and burst must be positive");
+        }
+        if (config.getMinLimit() <= 0 || config.getMaxLimit() < config.getMinLimit()) {
+            throw new IllegalArgumentException("Need 0 < minLimit <= maxLimit: " + config.getMinLimit() + ", "
+                    + config.getMaxLimit());
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / config.getRatePerSecond()));
+        this.burstNanos = intervalNanos * config.getBurst();
+        this.maxTrackedUsers = config.getMaxTrackedUsers();
+        this.minLimit = config.getMinLimit();
+        this.maxLimit = config.getMaxLimit();
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(config.getTargetLatencyMillis());
+        this.backoffRatio = config.getBackoffRatio();
+        this.queueTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getQueueTimeoutMillis());
+        this.maxQueued = config.getMaxQueued();
+        // Start open and let slow writes bring it down
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(maxLimit));
+    }
+
+    // -Dissuetracker.admission.enabled=false turns admission control off; returns null then
+    public static AdmissionController fromSystemProperties() {
+        if (!Boolean.parseBoolean(System.getProperty("issuetracker.admission.enabled", "true"))) {
+            return null;
+        }
+        return new AdmissionController(AdmissionConfig.fromSystemProperties());
+    }
+
+    // Admits one write for the user, or throws AdmissionRejectedException. Close the permit when the
+    // write is done; its duration is the latency the limit adapts to.
+    public Permit acquire(String user) {
+        long now = System.nanoTime();
+        long wait = takeToken(user, now);
+        if (wait > 0) {
+            rateLimited.increment();
+            throw new AdmissionRejectedException(AdmissionRejectedException.Reason.RATE_LIMITED,
+                    "Too many writes from " + user + "; slow down", ceilMillis(wait));
+        }
+        sweepIdleBuckets(now);
+        // Nobody barges past writes already waiting
+        if (!(waiting.get() == 0 && tryEnter()) && !enterQueued()) {
+            refundToken(user);
+            throw new AdmissionRejectedException(AdmissionRejectedException.Reason.OVERLOADED,
+                    "Too many writes in flight; try again shortly", Math.max(1, ceilMillis(queueTimeoutNanos)));
+        }
+        admitted.increment();
+        return new Permit(inFlight.get());
+    }
+
+    public AdmissionStats getStats() {
+        return new AdmissionStats(admitted.sum(), rateLimited.sum(), shed.sum(), queueTimeouts.sum(), queued.sum(),
+                queueWaitNanos.sum(), inFlight.get(), waiting.get(), limit(), buckets.size());
+    }
+
+    // Returns 0 if a token was taken, otherwise how long until the next one
+    private long takeToken(String user, long now) {
+        AtomicLong bucket = buckets.get(user);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(user, key -> new AtomicLong(now));
+        }
+        while (true) {
+            long fullAt = bucket.get();
+            long next = (fullAt - now > 0 ? fullAt : now) + intervalNanos;
+            long wait = next - now - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // For a write that took a token but was then shed: an overload is not the user's doing and must not
+    // use up its rate. A bucket pushed into the past is simply full.
+    private void refundToken(String user) {
+        AtomicLong bucket = buckets.get(user);
+        if (bucket != null) {
+            bucket.addAndGet(-intervalNanos);
+        }
+    }
+
+    // At most once a second, and only over the cap. A token taken from a bucket as it is swept is lost,
+    // which can only hand that user one extra token.
+    private void sweepIdleBuckets(long now) {
+        long due = nextSweepNanos.get();
+        if (buckets.size() <= maxTrackedUsers || now - due < 0
+                || !nextSweepNanos.compareAndSet(due, now + TimeUnit.SECONDS.toNanos(1))) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+    }
+
+    private boolean tryEnter() {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= (int) limit()) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private boolean enterQueued() {
+        if (waiting.incrementAndGet() > maxQueued) {
+            waiting.decrementAndGet();
+            shed.increment();
+            return false;
+        }
+        queued.increment();
+        long start = System.nanoTime();
+        long remaining = queueTimeoutNanos;
+        queueLock.lock();
+        try {
+            while (!tryEnter()) {
+                if (remaining <= 0) {
+                    queueTimeouts.increment();
+                    return false;
+                }
+                remaining = slotFreed.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            queueTimeouts.increment();
+            return false;
+        } finally {
+            queueLock.unlock();
+            waiting.decrementAndGet();
+            queueWaitNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private void release(long startNanos, int inFlightAtStart) {
+        long latency = System.nanoTime() - startNanos;
+        inFlight.decrementAndGet();
+        adjustLimit(startNanos, latency, inFlightAtStart);
+        if (waiting.get() > 0) {
+            queueLock.lock();
+            try {
+                slotFreed.signalAll();
+            } finally {
+                queueLock.unlock();
+            }
+        }
+    }
+
+    private void adjustLimit(long startNanos, long latency, int inFlightAtStart) {
+        while (true) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            double next;
+            boolean decrease = latency > targetLatencyNanos;
+            if (decrease) {
+                // Writes that started before the last cut ran under the old limit; they would cut again for
+                // the same congestion
+                if (startNanos - lastDecreaseNanos < 0) {
+                    return;
+                }
+                next = Math.max(minLimit, limit * backoffRatio);
+            } else if (inFlightAtStart * 2 >= limit) {
+                next = Math.min(maxLimit, limit + 1 / limit);
+            } else {
+                // A limit that is not being used says nothing about whether a higher one would be safe
+                return;
+            }
+            if (next == limit) {
+                return;
+            }
+            if (limitBits.compareAndSet(bits, Double.doubleToLongBits(next))) {
+                if (decrease) {
+                    lastDecreaseNanos = System.nanoTime();
+                }
+                return;
+            }
+        }
+    }
+
+    private double limit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    private static long ceilMillis(long nanos) {
+        return (nanos + 999_999) / 1_000_000;
+    }
+
+    public final class Permit implements AutoCloseable {
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private boolean closed;
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release(startNanos, inFlightAtStart);
+            }
+        }
+    }
+}
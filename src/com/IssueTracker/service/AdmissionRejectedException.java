@@ -0,0 +1,31 @@
+package com.IssueTracker.service;
+
+// Thrown by AdmissionController when a write is not admitted; nothing has been written
+public class AdmissionRejectedException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Reason {
+        // The user is over its write rate; retrying before retryAfterMillis is rejected again
+        RATE_LIMITED,
+        // Too many writes in flight across all users
+        OVERLOADED
+    }
+
+    private final Reason reason;
+    private final long retryAfterMillis;
+
+    public AdmissionRejectedException(Reason reason, String message, long retryAfterMillis) {
+        super(message);
+        this.reason = reason;
+        this.retryAfterMillis = retryAfterMillis;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+
+    public long getRetryAfterMillis() {
+        return retryAfterMillis;
+    }
+}
@@ -0,0 +1,86 @@
+package com.IssueTracker.service;
+
+public class AdmissionStats {
+    private final long admitted;
+    private final long rateLimited;
+    private final long shed;
+    private final long queueTimeouts;
+    private final long queued;
+    private final long queueWaitNanos;
+    private final int inFlight;
+    private final int waiting;
+    private final double limit;
+    private final int trackedUsers;
+
+    public AdmissionStats(long admitted, long rateLimited, long shed, long queueTimeouts, long queued,
+            long queueWaitNanos, int inFlight, int waiting, double limit, int trackedUsers) {
+        this.admitted = admitted;
+        this.rateLimited = rateLimited;
+        this.shed = shed;
+        this.queueTimeouts = queueTimeouts;
+        this.queued = queued;
+        this.queueWaitNanos = queueWaitNanos;
+        this.inFlight = inFlight;
+        this.waiting = waiting;
+        this.limit = limit;
+        this.trackedUsers = trackedUsers;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    // Rejected because the user was over its rate
+    public long getRateLimited() {
+        return rateLimited;
+    }
+
+    // Rejected at once because the queue was full
+    public long getShed() {
+        return shed;
+    }
+
+    // Rejected after waiting the whole queue timeout for a slot
+    public long getQueueTimeouts() {
+        return queueTimeouts;
+    }
+
+    public long getRejected() {
+        return rateLimited + shed + queueTimeouts;
+    }
+
+    // Writes that had to wait for a slot, admitted or not
+    public long getQueued() {
+        return queued;
+    }
+
+    public long getQueueWaitNanos() {
+        return queueWaitNanos;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    // Writes waiting for a slot right now
+    public int getWaiting() {
+        return waiting;
+    }
+
+    // The adaptive concurrency limit; writes in flight never exceed its whole part
+    public double getLimit() {
+        return limit;
+    }
+
+    public int getTrackedUsers() {
+        return trackedUsers;
+    }
+
+    @Override
+    public String toString() {
+        return "AdmissionStats [admitted=" + admitted + ", rateLimited=" + rateLimited + ", shed=" + shed
+                + ", queueTimeouts=" + queueTimeouts + ", queued=" + queued + ", queueWaitMs="
+                + queueWaitNanos / 1_000_000 + ", inFlight=" + inFlight + ", waiting=" + waiting + ", limit="
+                + String.format("%.1f", limit) + ", trackedUsers=" + trackedUsers + "]";
+    }
+}
@@ -0,0 +1,223 @@
+package com.IssueTracker.service;
+
+import com.IssueTracker.events.DeferredEvents;
+import com.IssueTracker.events.EventSubscriber;
+import com.IssueTracker.events.IssueEvent;
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssueBatch;
+import com.IssueTracker.models.IssuePatch;
+import com.IssueTracker.models.IssuePriority;
+import com.IssueTracker.models.IssueStatus;
+import com.IssueTracker.repository.IssueRepository;
+import com.IssueTracker.utils.IntHashMap;
+import com.IssueTracker.utils.SortedIntSet;
+
+import java.util.Arrays;
+import java.util.List;
+
+// Per-assignee index of issue ids, loaded on first use and then kept current from the event bus, like
+// IssueStatsService. For every assignee it holds all of their issue ids in id order, and separately their
+// open (OPEN or IN_PROGRESS) issues ordered by priority, then most recently updated, then id. Each list
+// is a pair of sorted primitive arrays, so a page of either is an array slice that the caller turns into
+// rows with one fetch by id. Only changes published through IssueService are seen.
+public class AssigneeInbox implements EventSubscriber {
+
+    private static final long MAX_SECONDS = (1L << 56) - 1;
+    private static final int UNKNOWN_PRIORITY_RANK = 0x7F;
+
+    private static final class Inbox {
+        final SortedIntSet all = new SortedIntSet();
+        // Open issues, sorted by key (see openKey) and then by descending id, so that of two issues updated
+        // in the same second the newer one comes first, as in an ORDER BY updated_at DESC query
+        long[] keys = new long[4];
+        int[] ids = new int[4];
+        int open;
+
+        int find(long key, int id) {
+            int low = 0;
+            int high = open - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int cmp = keys[mid] != key ? Long.compare(keys[mid], key) : Integer.compare(id, ids[mid]);
+                if (cmp < 0) {
+                    low = mid + 1;
+                } else if (cmp > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+
+        void addOpen(long key, int id) {
+            int index = find(key, id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (open == keys.length) {
+                keys = Arrays.copyOf(keys, open * 2);
+                ids = Arrays.copyOf(ids, open * 2);
+            }
+            System.arraycopy(keys, index, keys, index + 1, open - index);
+            System.arraycopy(ids, index, ids, index + 1, open - index);
+            keys[index] = key;
+            ids[index] = id;
+            open++;
+        }
+
+        void removeOpen(long key, int id) {
+            int index = find(key, id);
+            if (index < 0) {
+                return;
+            }
+            System.arraycopy(keys, index + 1, keys, index, open - index - 1);
+            System.arraycopy(ids, index + 1, ids, index, open - index - 1);
+            open--;
+        }
+
+        boolean isEmpty() {
+            return all.isEmpty() && open == 0;
+        }
+    }
+
+    private final IntHashMap<Inbox> inboxes = new IntHashMap<>();
+    // To find an issue's old entry on patch or delete
+    private final IssueCells cells = new IssueCells();
+    // issue id -> its key in the open list, for open issues only
+    private final IntHashMap<Long> openKeys = new IntHashMap<>();
+    private final IssueRepository issueRepository;
+    private final DeferredEvents deferred = new DeferredEvents();
+
+    public AssigneeInbox(IssueRepository issueRepository) {
+        this.issueRepository = issueRepository;
+    }
+
+    public static boolean isOpen(byte statusCode) {
+        return statusCode == IssueStatus.OPEN.code() || statusCode == IssueStatus.IN_PROGRESS.code();
+    }
+
+    // Up to limit ids of the assignee's issues with id > afterId, in id order
+    public synchronized int[] issueIds(int assigneeId, int afterId, int limit) {
+        ensureLoaded();
+        Inbox inbox = inboxes.get(assigneeId);
+        return inbox == null ? new int[0] : inbox.all.range(afterId, limit);
+    }
+
+    // The assignee's open issues from position offset: highest priority first, then most recently updated
+    public synchronized int[] openIssueIds(int assigneeId, int offset, int limit) {
+        ensureLoaded();
+        Inbox inbox = inboxes.get(assigneeId);
+        if (inbox == null || offset >= inbox.open) {
+            return new int[0];
+        }
+        return Arrays.copyOfRange(inbox.ids, offset, offset + Math.min(limit, inbox.open - offset));
+    }
+
+    public synchronized int countIssues(int assigneeId) {
+        ensureLoaded();
+        Inbox inbox = inboxes.get(assigneeId);
+        return inbox == null ? 0 : inbox.all.size();
+    }
+
+    public synchronized int countOpenIssues(int assigneeId) {
+        ensureLoaded();
+        Inbox inbox = inboxes.get(assigneeId);
+        return inbox == null ? 0 : inbox.open;
+    }
+
+    @Override
+    public synchronized void onEvents(List<IssueEvent> events) {
+        if (deferred.defer(events)) {
+            return;
+        }
+        ensureLoaded();
+        apply(events);
+    }
+
+    private void ensureLoaded() {
+        if (!deferred.isDeferring()) {
+            return;
+        }
+        List<IssueEvent> kept = deferred.drain();
+        issueRepository.scanBatches(new IssueBatch(IssueRepository.DEFAULT_BATCH_SIZE), batch -> {
+            for (int i = 0; i < batch.size(); i++) {
+                track(batch.getId(i), IssueCells.pack(batch.getStatusCode(i), batch.getPriorityCode(i),
+                        batch.getAssigneeId(i)), batch.getUpdatedAtEpochSecond(i));
+            }
+        });
+        apply(kept);
+    }
+
+    private void apply(List<IssueEvent> events) {
+        for (IssueEvent event : events) {
+            switch (event.getType()) {
+                case ISSUE_CREATED:
+                    issueCreated(event.getIssue(), event.getTimestampMillis());
+                    break;
+                case ISSUE_UPDATED:
+                    issuePatched(event.getIssueId(), event.getPatch(), event.getTimestampMillis());
+                    break;
+                case ISSUE_DELETED:
+                    untrack(event.getIssueId());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void issueCreated(Issue issue, long timestampMillis) {
+        long updated = issue.getUpdatedAt() != null ? IssueBatch.toEpochSecond(issue.getUpdatedAt())
+                : timestampMillis / 1000;
+        track(issue.getId(), IssueCells.of(issue), updated);
+    }
+
+    // Every patch moves updated_at, so the issue is re-filed with the time the change was published
+    private void issuePatched(int issueId, IssuePatch patch, long timestampMillis) {
+        Long cell = cells.patched(issueId, patch);
+        if (cell != null) {
+            track(issueId, cell, timestampMillis / 1000);
+        }
+    }
+
+    private void track(int issueId, long cell, long updatedEpochSecond) {
+        untrack(issueId);
+        cells.put(issueId, cell);
+        Inbox inbox = inboxes.computeIfAbsent(IssueCells.assignee(cell), id -> new Inbox());
+        inbox.all.add(issueId);
+        if (isOpen(IssueCells.status(cell))) {
+            long key = openKey(IssueCells.priority(cell), updatedEpochSecond);
+            openKeys.put(issueId, key);
+            inbox.addOpen(key, issueId);
+        }
+    }
+
+    private void untrack(int issueId) {
+        Long cell = cells.remove(issueId);
+        if (cell == null) {
+            return;
+        }
+        Inbox inbox = inboxes.get(IssueCells.assignee(cell));
+        if (inbox == null) {
+            return;
+        }
+        inbox.all.remove(issueId);
+        Long key = openKeys.remove(issueId);
+        if (key != null) {
+            inbox.removeOpen(key, issueId);
+        }
+        if (inbox.isEmpty()) {
+            inboxes.remove(IssueCells.assignee(cell));
+        }
+    }
+
+    // Priority rank in the top byte (HIGH sorts first, unknown values last), then the update time
+    // subtracted from a maximum so that newer sorts first
+    private static long openKey(byte priority, long updatedEpochSecond) {
+        long rank = priority == IssuePriority.UNKNOWN_CODE ? UNKNOWN_PRIORITY_RANK : priority;
+        long seconds = Math.max(0, Math.min(MAX_SECONDS, updatedEpochSecond));
+        return rank << 56 | (MAX_SECONDS - seconds);
+    }
+}
@@ -0,0 +1,122 @@
+package com.IssueTracker.service;
+
+import com.IssueTracker.models.Comment;
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssueDetails;
+import com.IssueTracker.models.User;
+import com.IssueTracker.repository.IssueRepository.PatchResult;
+import com.IssueTracker.utils.PoolConfig;
+import com.IssueTracker.utils.VirtualThreads;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+
+// Non-blocking facade over IssueService and UserService. Each call runs on its own virtual thread
+// (platform threads before Java 21), and a semaphore sized to the connection pool caps how many
+// calls touch the repositories at once, so callers queue here instead of timing out in the pool.
+public class AsyncIssueService implements AutoCloseable {
+
+    private final IssueService issueService;
+    private final UserService userService;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+
+    public AsyncIssueService(IssueService issueService, UserService userService) {
+        this(issueService, userService, PoolConfig.fromSystemProperties().getMaxSize());
+    }
+
+    public AsyncIssueService(IssueService issueService, UserService userService, int maxConcurrency) {
+        this.issueService = issueService;
+        this.userService = userService;
+        this.permits = new Semaphore(maxConcurrency, true);
+        this.executor = VirtualThreads.newExecutor("async-issue-service", maxConcurrency);
+    }
+
+    public CompletableFuture<Issue> createIssue(Issue issue) {
+        return supply(() -> {
+            issueService.createIssue(issue);
+            return issue;
+        });
+    }
+
+    public CompletableFuture<Issue> getIssueById(int id) {
+        return supply(() -> issueService.getIssueById(id));
+    }
+
+    public CompletableFuture<List<Issue>> getIssuesPage(int afterId, int limit) {
+        return supply(() -> issueService.getIssuesPage(afterId, limit));
+    }
+
+    public CompletableFuture<PatchResult> updateIssue(int issueId, String newTitle, String newDesc,
+            String newStatus, String newPriority, Integer newAssigneeId) {
+        return supply(() -> issueService.updateIssue(issueId, newTitle, newDesc, newStatus, newPriority,
+                newAssigneeId));
+    }
+
+    public CompletableFuture<Void> deleteIssueById(int id) {
+        return run(() -> issueService.deleteIssueById(id));
+    }
+
+    public CompletableFuture<Void> addCommentToIssue(int issueId, String author, String content) {
+        return run(() -> issueService.addCommentToIssue(issueId, author, content));
+    }
+
+    public CompletableFuture<List<Comment>> getCommentsForIssue(int issueId) {
+        return supply(() -> issueService.getCommentsForIssue(issueId));
+    }
+
+    public CompletableFuture<User> createUser(String name, String email) {
+        return supply(() -> userService.createUser(name, email));
+    }
+
+    public CompletableFuture<User> getUserById(int id) {
+        return supply(() -> userService.getUserById(id));
+    }
+
+    public CompletableFuture<List<User>> getAllUsers() {
+        return supply(userService::getAllUsers);
+    }
+
+    // Fetches the issue and its comments in parallel, then the assignee once the issue is known.
+    // Completes with null if the issue does not exist.
+    public CompletableFuture<IssueDetails> getIssueDetails(int issueId) {
+        CompletableFuture<Issue> issue = getIssueById(issueId);
+        CompletableFuture<List<Comment>> comments = getCommentsForIssue(issueId);
+        CompletableFuture<User> assignee = issue.thenCompose(
+                i -> i == null ? CompletableFuture.completedFuture(null) : getUserById(i.getAssigneeId()));
+        return issue.thenCombine(comments, (i, c) -> i)
+                .thenCombine(assignee, (i, a) -> i == null ? null : new IssueDetails(i, a, comments.join()));
+    }
+
+    private CompletableFuture<Void> run(Runnable task) {
+        return supply(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    private <T> CompletableFuture<T> supply(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CompletionException(e);
+            }
+            try {
+                return task.get();
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,61 @@
+package com.IssueTracker.service;
+
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssuePatch;
+import com.IssueTracker.models.IssuePriority;
+import com.IssueTracker.models.IssueStatus;
+import com.IssueTracker.utils.IntHashMap;
+
+// Issue id -> the issue's (status, priority, assignee) cell, packed into one long. IssueStatsService and
+// AssigneeInbox both keep one: a patch or delete does not say what the old values were, and both need them
+// to move the issue out of its old place. Not thread-safe; the owner's lock guards it.
+final class IssueCells {
+
+    private final IntHashMap<Long> cells = new IntHashMap<>();
+
+    static long pack(byte statusCode, byte priorityCode, int assigneeId) {
+        return ((long) assigneeId << 16) | ((statusCode & 0xFF) << 8) | (priorityCode & 0xFF);
+    }
+
+    static long of(Issue issue) {
+        return pack(IssueStatus.codeOf(issue.getStatus()), IssuePriority.codeOf(issue.getPriority()),
+                issue.getAssigneeId());
+    }
+
+    static byte status(long cell) {
+        return (byte) (cell >>> 8);
+    }
+
+    static byte priority(long cell) {
+        return (byte) cell;
+    }
+
+    static int assignee(long cell) {
+        return (int) (cell >> 16);
+    }
+
+    // Null if the issue is not tracked
+    Long get(int issueId) {
+        return cells.get(issueId);
+    }
+
+    void put(int issueId, long cell) {
+        cells.put(issueId, cell);
+    }
+
+    Long remove(int issueId) {
+        return cells.remove(issueId);
+    }
+
+    // The issue's cell with the patch applied, or null if the issue is not tracked
+    Long patched(int issueId, IssuePatch patch) {
+        Long cell = cells.get(issueId);
+        if (cell == null) {
+            return null;
+        }
+        byte status = patch.getStatus() != null ? IssueStatus.codeOf(patch.getStatus()) : status(cell);
+        byte priority = patch.getPriority() != null ? IssuePriority.codeOf(patch.getPriority()) : priority(cell);
+        int assigneeId = patch.getAssigneeId() != null ? patch.getAssigneeId() : assignee(cell);
+        return pack(status, priority, assigneeId);
+    }
+}
@@ -0,0 +1,128 @@
+package com.IssueTracker.service;
+
+import com.IssueTracker.events.EventSubscriber;
+import com.IssueTracker.events.IssueEvent;
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssueChange;
+import com.IssueTracker.repository.IssueHistoryRepository;
+import com.IssueTracker.utils.IntHashMap;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+// Records issue changes from the event bus into the history log. Each batch the bus delivers becomes one
+// append, so the write path of IssueService never waits on the log. An update is stored as the fields
+// its patch set. After every snapshotInterval updates to an issue, the issue is rebuilt from the log and
+// written back as a snapshot, so reading any past state replays at most that many entries. Only changes
+// published through IssueService are recorded, and the update counts restart from zero on start-up.
+// A failed append is retried a few times, backing off; if the log still refuses it, the changes are kept
+// and go ahead of the next batch, and the snapshots they make due wait until they are written.
+public class IssueHistoryService implements EventSubscriber {
+
+    public static final int DEFAULT_SNAPSHOT_INTERVAL = 20;
+
+    private static final int APPEND_ATTEMPTS = 5;
+    private static final long FIRST_RETRY_MILLIS = 100;
+
+    private final IssueHistoryRepository historyRepository;
+    private final int snapshotInterval;
+    // issue id -> updates recorded since its last CREATED or SNAPSHOT entry; used by the bus thread only
+    private final IntHashMap<Integer> updatesSinceSnapshot = new IntHashMap<>();
+    // Changes the log has not taken yet, in event order, and the updates whose snapshot it has not taken
+    // yet; used by the bus thread only
+    private final List<IssueChange> unwritten = new ArrayList<>();
+    private final List<IssueChange> snapshotsDue = new ArrayList<>();
+
+    public IssueHistoryService(IssueHistoryRepository historyRepository, int snapshotInterval) {
+        if (snapshotInterval <= 0) {
+            throw new IllegalArgumentException("snapshotInterval must be positive: " + snapshotInterval);
+        }
+        this.historyRepository = historyRepository;
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    // Every change to the issue, oldest first
+    public List<IssueChange> getHistory(int issueId) {
+        return historyRepository.findHistory(issueId);
+    }
+
+    // The issue as it was at the given time, or null if it did not exist then
+    public Issue getIssueAsOf(int issueId, LocalDateTime at) {
+        return historyRepository.findAsOf(issueId, at);
+    }
+
+    @Override
+    public void onEvents(List<IssueEvent> events) {
+        for (IssueEvent event : events) {
+            LocalDateTime at = LocalDateTime.ofInstant(Instant.ofEpochMilli(event.getTimestampMillis()),
+                    ZoneId.systemDefault());
+            switch (event.getType()) {
+                case ISSUE_CREATED:
+                    unwritten.add(IssueChange.created(event.getIssue(), at));
+                    updatesSinceSnapshot.remove(event.getIssueId());
+                    break;
+                case ISSUE_UPDATED:
+                    IssueChange change = IssueChange.updated(event.getIssueId(), event.getPatch(), at);
+                    unwritten.add(change);
+                    Integer count = updatesSinceSnapshot.get(event.getIssueId());
+                    int updates = count == null ? 1 : count + 1;
+                    if (updates >= snapshotInterval) {
+                        snapshotsDue.add(change);
+                        updates = 0;
+                    }
+                    updatesSinceSnapshot.put(event.getIssueId(), updates);
+                    break;
+                case ISSUE_DELETED:
+                    unwritten.add(IssueChange.deleted(event.getIssueId(), at));
+                    updatesSinceSnapshot.remove(event.getIssueId());
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (!append(unwritten)) {
+            System.err.println(unwritten.size() + " history change(s) not written; they go with the next batch");
+            return;
+        }
+        unwritten.clear();
+        if (append(snapshots(snapshotsDue))) {
+            snapshotsDue.clear();
+        }
+    }
+
+    // Each snapshot is the issue replayed up to the update that made it due, stamped with that update's time
+    private List<IssueChange> snapshots(List<IssueChange> due) {
+        List<IssueChange> snapshots = new ArrayList<>(due.size());
+        for (IssueChange change : due) {
+            if (change.getSequence() == 0) {
+                continue;
+            }
+            Issue issue = historyRepository.findAsOf(change.getIssueId(), change.getChangedAt());
+            if (issue != null) {
+                snapshots.add(IssueChange.snapshot(issue, change.getChangedAt()));
+            }
+        }
+        return snapshots;
+    }
+
+    // Retries a refused append, doubling the wait each time; false if the log still refuses it
+    private boolean append(List<IssueChange> changes) {
+        long wait = FIRST_RETRY_MILLIS;
+        for (int attempt = 1; !historyRepository.append(changes); attempt++) {
+            if (attempt == APPEND_ATTEMPTS) {
+                return false;
+            }
+            try {
+                Thread.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+            wait *= 2;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,83 @@
+package com.IssueTracker.service;
+
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// Orders IssueService's writes to one issue against their events. A write and its publish run under the
+// issue's stripe, so two writes to an issue reach every subscriber in the order they committed. A create
+// cannot take its issue's stripe before the insert picks the id, so creates hold the shared side of the
+// create fence instead; a write to an existing issue waits out the creates in flight, one of which may be
+// its issue's, before it goes ahead. Writes to different issues on different stripes do not wait on
+// each other.
+class IssueLocks {
+
+    static final int DEFAULT_STRIPES = 64;
+
+    private final ReentrantLock[] stripes;
+    private final ReentrantReadWriteLock createFence = new ReentrantReadWriteLock();
+
+    IssueLocks() {
+        this(DEFAULT_STRIPES);
+    }
+
+    IssueLocks(int stripeCount) {
+        stripes = new ReentrantLock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    void lockCreate() {
+        createFence.readLock().lock();
+    }
+
+    void unlockCreate() {
+        createFence.readLock().unlock();
+    }
+
+    void lockIssue(int issueId) {
+        stripes[stripe(issueId)].lock();
+        awaitCreates();
+    }
+
+    void unlockIssue(int issueId) {
+        stripes[stripe(issueId)].unlock();
+    }
+
+    // Locks every stripe the issues fall on, in stripe order so two callers cannot deadlock. Returns the
+    // stripes for unlockIssues.
+    boolean[] lockIssues(Iterable<Integer> issueIds) {
+        boolean[] held = new boolean[stripes.length];
+        for (int issueId : issueIds) {
+            held[stripe(issueId)] = true;
+        }
+        for (int i = 0; i < held.length; i++) {
+            if (held[i]) {
+                stripes[i].lock();
+            }
+        }
+        awaitCreates();
+        return held;
+    }
+
+    void unlockIssues(boolean[] held) {
+        for (int i = held.length - 1; i >= 0; i--) {
+            if (held[i]) {
+                stripes[i].unlock();
+            }
+        }
+    }
+
+    // Once every create that was in flight has published, the issue's ISSUE_CREATED (if it was made here)
+    // is on the bus. Creates never take a stripe, so waiting here while holding one cannot deadlock.
+    private void awaitCreates() {
+        if (createFence.getReadLockCount() > 0) {
+            createFence.writeLock().lock();
+            createFence.writeLock().unlock();
+        }
+    }
+
+    private int stripe(int issueId) {
+        return Math.floorMod(issueId, stripes.length);
+    }
+}
@@ -1,65 +1,225 @@
 package com.IssueTracker.service;
 
+import com.IssueTracker.events.EventBus;
+import com.IssueTracker.events.IssueEvent;
 import com.IssueTracker.models.Comment;
+import com.IssueTracker.models.CommentSummary;
 import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssuePatch;
+import com.IssueTracker.models.IssuePriority;
+import com.IssueTracker.models.IssueQuery;
+import com.IssueTracker.models.IssueStatus;
+import com.IssueTracker.models.IssueSummary;
 import com.IssueTracker.repository.CommentRepository;
 import com.IssueTracker.repository.IssueRepository;
+import com.IssueTracker.repository.IssueRepository.PatchResult;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class IssueService {
+    public static final int PAGE_SIZE = 500;
+
     private final IssueRepository issueRepository;
     private final CommentRepository commentRepository;
+    private final EventBus eventBus;
+    private final AssigneeInbox inbox;
+    private final AdmissionController admission;
+    private final IssueLocks locks = new IssueLocks();
 
     public IssueService(IssueRepository issueRepository, CommentRepository commentRepository) {
+        this(issueRepository, commentRepository, null);
+    }
+
+    public IssueService(IssueRepository issueRepository, CommentRepository commentRepository, EventBus eventBus) {
+        this(issueRepository, commentRepository, eventBus, null);
+    }
+
+    // Committed changes are published to the bus (if any) after the repository call returns, still holding
+    // the issue's lock, so each issue's events arrive in commit order (see IssueLocks). The inbox, if given,
+    // must be subscribed to that bus; per-user views then read their ids from it.
+    public IssueService(IssueRepository issueRepository, CommentRepository commentRepository, EventBus eventBus,
+            AssigneeInbox inbox) {
+        this(issueRepository, commentRepository, eventBus, inbox, null);
+    }
+
+    // With an admission controller, createIssue and the single-comment paths are admitted per user (the
+    // assignee, the comment's author) and may throw AdmissionRejectedException. Bulk imports are not.
+    public IssueService(IssueRepository issueRepository, CommentRepository commentRepository, EventBus eventBus,
+            AssigneeInbox inbox, AdmissionController admission) {
         this.issueRepository = issueRepository;
         this.commentRepository = commentRepository;
+        this.eventBus = eventBus;
+        this.inbox = inbox;
+        this.admission = admission;
     }
 
     public void createIssue(Issue issue) {
-        issueRepository.save(issue);
+        AdmissionController.Permit permit = admit("assignee " + issue.getAssigneeId());
+        locks.lockCreate();
+        try {
+            try {
+                issueRepository.save(issue);
+            } finally {
+                release(permit);
+            }
+            if (eventBus != null && issue.getId() > 0) {
+                eventBus.publish(IssueEvent.issueCreated(issue));
+            }
+        } finally {
+            locks.unlockCreate();
+        }
     }
 
-    public List<Issue> viewAllIssues() {
-        return issueRepository.findAll();
+    public void createIssues(Collection<Issue> issues) {
+        locks.lockCreate();
+        try {
+            issueRepository.saveAll(issues);
+            if (eventBus != null) {
+                for (Issue issue : issues) {
+                    if (issue.getId() > 0) {
+                        eventBus.publish(IssueEvent.issueCreated(issue));
+                    }
+                }
+            }
+        } finally {
+            locks.unlockCreate();
+        }
     }
 
-    public void updateIssue(int issueId, String newTitle, String newDesc, String newStatus, String newPriority,
-            Integer newAssigneeId) {
-        Issue issue = issueRepository.findById(issueId);
-        if (issue == null) {
-            System.out.println("Issue not found!");
-            return;
+    public Issue getIssueById(int id) {
+        return issueRepository.findById(id);
+    }
+
+    public Stream<Issue> viewAllIssues() {
+        return issueRepository.streamAll(PAGE_SIZE);
+    }
+
+    // List views: no description is read until a summary's getIssue() is called
+    public Stream<IssueSummary> viewIssueSummaries() {
+        return issueRepository.streamSummaries(PAGE_SIZE);
+    }
+
+    public Stream<IssueSummary> getIssueSummariesByStatus(String status) {
+        return issueRepository.streamSummariesByStatus(status, PAGE_SIZE);
+    }
+
+    public Stream<IssueSummary> getIssueSummariesByPriority(String priority) {
+        return issueRepository.streamSummariesByPriority(priority, PAGE_SIZE);
+    }
+
+    public Stream<IssueSummary> getIssueSummariesByUserId(int userId) {
+        if (inbox == null) {
+            return issueRepository.streamSummariesByUserId(userId, PAGE_SIZE);
         }
+        // Paged by the inbox's ids, not the rows found for them: an id without a row (deleted outside the app,
+        // or not yet on a lagging replica) shortens its page but must not end the stream
+        return Stream.iterate(inbox.issueIds(userId, 0, PAGE_SIZE), ids -> ids.length > 0,
+                ids -> ids.length < PAGE_SIZE ? new int[0] : inbox.issueIds(userId, ids[ids.length - 1], PAGE_SIZE))
+                .map(ids -> issueRepository.attachIssueLoaders(issueRepository.findSummariesByIds(ids)))
+                .flatMap(List::stream);
+    }
 
-        if (newTitle != null && !newTitle.isEmpty())
-            issue.setTitle(newTitle);
-        if (newDesc != null && !newDesc.isEmpty())
-            issue.setDescription(newDesc);
-        if (newStatus != null && !newStatus.isEmpty())
-            issue.setStatus(newStatus);
-        if (newPriority != null && !newPriority.isEmpty())
-            issue.setPriority(newPriority);
-        if (newAssigneeId != null)
-            issue.setAssigneeId(newAssigneeId);
+    // The user's OPEN and IN_PROGRESS issues, highest priority first, then most recently updated
+    public Stream<IssueSummary> getOpenIssueSummariesForUser(int userId) {
+        if (inbox == null) {
+            List<IssueSummary> open = findIssues(new IssueQuery()
+                    .statuses(IssueStatus.OPEN.name(), IssueStatus.IN_PROGRESS.name())
+                    .assignees(userId)
+                    .orderBy(IssueQuery.SortField.UPDATED_AT, true));
+            // Stable, so each priority keeps the newest-first order of the query
+            open.sort(Comparator.comparingInt(summary -> priorityRank(summary.getPriority())));
+            return open.stream();
+        }
+        // Pages are positions in the inbox, so a change between pages can shift an issue across a page boundary
+        // and, as above, an empty page of rows does not end the stream while the inbox has ids
+        return Stream.iterate(0, offset -> offset + PAGE_SIZE)
+                .map(offset -> inbox.openIssueIds(userId, offset, PAGE_SIZE))
+                .takeWhile(ids -> ids.length > 0)
+                .map(ids -> issueRepository.attachIssueLoaders(issueRepository.findSummariesByIds(ids)))
+                .flatMap(List::stream);
+    }
 
-        issueRepository.update(issue);
+    private static int priorityRank(String priority) {
+        byte code = IssuePriority.codeOf(priority);
+        return code == IssuePriority.UNKNOWN_CODE ? Integer.MAX_VALUE : code;
     }
 
-    public void deleteIssueById(int id) {
-        issueRepository.delete(id);
+    // Combined filters run as one query; each summary loads its full issue on getIssue()
+    public List<IssueSummary> findIssues(IssueQuery query) {
+        return issueRepository.attachIssueLoaders(issueRepository.findSummariesByQuery(query));
     }
 
-    public List<Issue> getIssuesByStatus(String status) {
-        return issueRepository.getIssuesByStatus(status);
+    public List<Issue> getIssuesPage(int afterId, int limit) {
+        return issueRepository.findAllAfter(afterId, limit);
     }
 
-    public List<Issue> getIssuesByPriority(String priority) {
-        return issueRepository.getIssuesByPriority(priority);
+    public List<Issue> getIssuesPageWithComments(int afterId, int limit, boolean lazy) {
+        List<Issue> page = issueRepository.findAllAfter(afterId, limit);
+        if (lazy) {
+            commentRepository.attachCommentsLazily(page);
+        } else {
+            commentRepository.attachComments(page);
+        }
+        return page;
     }
 
-    public List<Issue> getIssuesByUserId(int userId) {
-        return issueRepository.getIssuesByUserId(userId);
+    // Blank values keep the current ones
+    public PatchResult updateIssue(int issueId, String newTitle, String newDesc, String newStatus,
+            String newPriority, Integer newAssigneeId) {
+        IssuePatch patch = new IssuePatch()
+                .setTitle(blankToNull(newTitle))
+                .setDescription(blankToNull(newDesc))
+                .setStatus(blankToNull(newStatus))
+                .setPriority(blankToNull(newPriority))
+                .setAssigneeId(newAssigneeId);
+        return updateIssue(issueId, patch);
+    }
+
+    public PatchResult updateIssue(int issueId, IssuePatch patch) {
+        PatchResult result;
+        locks.lockIssue(issueId);
+        try {
+            result = issueRepository.patch(issueId, patch);
+            if (result == PatchResult.UPDATED && eventBus != null && !patch.isEmpty()) {
+                eventBus.publish(IssueEvent.issueUpdated(issueId, patch));
+            }
+        } finally {
+            locks.unlockIssue(issueId);
+        }
+        return result;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    public boolean deleteIssueById(int id) {
+        locks.lockIssue(id);
+        try {
+            boolean deleted = issueRepository.delete(id);
+            if (deleted && eventBus != null) {
+                eventBus.publish(IssueEvent.issueDeleted(id));
+            }
+            return deleted;
+        } finally {
+            locks.unlockIssue(id);
+        }
+    }
+
+    public Stream<Issue> getIssuesByStatus(String status) {
+        return issueRepository.streamByStatus(status, PAGE_SIZE);
+    }
+
+    public Stream<Issue> getIssuesByPriority(String priority) {
+        return issueRepository.streamByPriority(priority, PAGE_SIZE);
+    }
+
+    public Stream<Issue> getIssuesByUserId(int userId) {
+        return issueRepository.streamByUserId(userId, PAGE_SIZE);
     }
 
     public void addCommentToIssue(int issueId, String author, String content) {
@@ -69,11 +229,63 @@ public class IssueService {
             return;
         }
         Comment comment = new Comment(issueId, author, content);
-        commentRepository.save(comment);
+        addComment(comment);
         issue.addComment(comment);
     }
 
+    public void addComment(Comment comment) {
+        AdmissionController.Permit permit = admit("author " + comment.getAuthor());
+        locks.lockIssue(comment.getIssueId());
+        try {
+            try {
+                commentRepository.save(comment);
+            } finally {
+                release(permit);
+            }
+            if (eventBus != null && comment.getCommentId() > 0) {
+                eventBus.publish(IssueEvent.commentAdded(comment));
+            }
+        } finally {
+            locks.unlockIssue(comment.getIssueId());
+        }
+    }
+
+    // Null without an admission controller
+    private AdmissionController.Permit admit(String user) {
+        return admission == null ? null : admission.acquire(user);
+    }
+
+    private static void release(AdmissionController.Permit permit) {
+        if (permit != null) {
+            permit.close();
+        }
+    }
+
+    public void addComments(Collection<Comment> comments) {
+        List<Integer> issueIds = new ArrayList<>(comments.size());
+        for (Comment comment : comments) {
+            issueIds.add(comment.getIssueId());
+        }
+        boolean[] held = locks.lockIssues(issueIds);
+        try {
+            commentRepository.saveAll(comments);
+            if (eventBus != null) {
+                for (Comment comment : comments) {
+                    if (comment.getCommentId() > 0) {
+                        eventBus.publish(IssueEvent.commentAdded(comment));
+                    }
+                }
+            }
+        } finally {
+            locks.unlockIssues(held);
+        }
+    }
+
     public List<Comment> getCommentsForIssue(int issueId) {
         return commentRepository.findByIssueId(issueId);
     }
+
+    public List<CommentSummary> getCommentSummariesForIssue(int issueId) {
+        return commentRepository.findSummariesByIssueId(issueId);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,114 @@
+package com.IssueTracker.service;
+
+import com.IssueTracker.events.DeferredEvents;
+import com.IssueTracker.events.EventSubscriber;
+import com.IssueTracker.events.IssueEvent;
+import com.IssueTracker.models.IssueBatch;
+import com.IssueTracker.models.IssueCounts;
+import com.IssueTracker.models.IssuePriority;
+import com.IssueTracker.models.IssueStatus;
+import com.IssueTracker.repository.IssueRepository;
+
+import java.util.List;
+
+// Dashboard counts by status x priority x assignee. In database mode every read runs one grouped
+// aggregate query. In incremental mode the counts are loaded by one scan on first use and then kept
+// current from the event bus on each create/update/delete, so later reads never touch the database.
+// Changes published before the first use are applied after the scan, see DeferredEvents. Only changes
+// published through IssueService are seen.
+public class IssueStatsService implements EventSubscriber {
+
+    private final IssueRepository issueRepository;
+    private final boolean incremental;
+    private final IssueCounts counts;
+    // Incremental mode only
+    private final IssueCells cells;
+    private final DeferredEvents deferred = new DeferredEvents();
+
+    public IssueStatsService(IssueRepository issueRepository, boolean incremental) {
+        this.issueRepository = issueRepository;
+        this.incremental = incremental;
+        this.counts = incremental ? new IssueCounts() : null;
+        this.cells = incremental ? new IssueCells() : null;
+    }
+
+    public boolean isIncremental() {
+        return incremental;
+    }
+
+    // Database mode returns a fresh query result; incremental mode a copy of the live counters
+    public synchronized IssueCounts getCounts() {
+        if (incremental) {
+            ensureLoaded();
+        }
+        return incremental ? new IssueCounts(counts) : issueRepository.countGrouped();
+    }
+
+    // Null arguments match anything
+    public long count(IssueStatus status, IssuePriority priority, Integer assigneeId) {
+        if (!incremental) {
+            return issueRepository.countGrouped().count(status, priority, assigneeId);
+        }
+        synchronized (this) {
+            ensureLoaded();
+            return counts.count(status, priority, assigneeId);
+        }
+    }
+
+    @Override
+    public synchronized void onEvents(List<IssueEvent> events) {
+        if (!incremental || deferred.defer(events)) {
+            return;
+        }
+        ensureLoaded();
+        apply(events);
+    }
+
+    private void ensureLoaded() {
+        if (!deferred.isDeferring()) {
+            return;
+        }
+        List<IssueEvent> kept = deferred.drain();
+        issueRepository.scanBatches(new IssueBatch(IssueRepository.DEFAULT_BATCH_SIZE), batch -> {
+            for (int i = 0; i < batch.size(); i++) {
+                track(batch.getId(i), IssueCells.pack(batch.getStatusCode(i), batch.getPriorityCode(i),
+                        batch.getAssigneeId(i)));
+            }
+        });
+        apply(kept);
+    }
+
+    private void apply(List<IssueEvent> events) {
+        for (IssueEvent event : events) {
+            switch (event.getType()) {
+                case ISSUE_CREATED:
+                    track(event.getIssueId(), IssueCells.of(event.getIssue()));
+                    break;
+                case ISSUE_UPDATED:
+                    Long cell = cells.patched(event.getIssueId(), event.getPatch());
+                    if (cell != null) {
+                        track(event.getIssueId(), cell);
+                    }
+                    break;
+                case ISSUE_DELETED:
+                    untrack(event.getIssueId());
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private void track(int issueId, long cell) {
+        untrack(issueId);
+        cells.put(issueId, cell);
+        counts.add(IssueCells.status(cell), IssueCells.priority(cell), IssueCells.assignee(cell), 1);
+    }
+
+    private void untrack(int issueId) {
+        Long cell = cells.remove(issueId);
+        if (cell != null) {
+            counts.add(IssueCells.status(cell), IssueCells.priority(cell), IssueCells.assignee(cell), -1);
+        }
+    }
+}
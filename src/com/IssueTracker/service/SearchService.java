@@ -0,0 +1,31 @@
+package com.IssueTracker.service;
+
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.repository.IssueRepository;
+import com.IssueTracker.search.SearchHit;
+import com.IssueTracker.search.SearchIndex;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SearchService {
+    private final SearchIndex searchIndex;
+    private final IssueRepository issueRepository;
+
+    public SearchService(SearchIndex searchIndex, IssueRepository issueRepository) {
+        this.searchIndex = searchIndex;
+        this.issueRepository = issueRepository;
+    }
+
+    // Issues in rank order; hits whose issue has since been deleted are skipped
+    public List<Issue> searchIssues(String query, int limit) {
+        List<Issue> results = new ArrayList<>();
+        for (SearchHit hit : searchIndex.search(query, limit)) {
+            Issue issue = issueRepository.findById(hit.getIssueId());
+            if (issue != null) {
+                results.add(issue);
+            }
+        }
+        return results;
+    }
+}
@@ -1,12 +1,22 @@
 package com.IssueTracker.service;
 
 import com.IssueTracker.models.User;
+import com.IssueTracker.repository.JdbcUserRepository;
 import com.IssueTracker.repository.UserRepository;
 
+import java.util.Collection;
 import java.util.List;
 
 public class UserService {
-    private final UserRepository userRepository = new UserRepository();
+    private final UserRepository userRepository;
+
+    public UserService() {
+        this(new JdbcUserRepository());
+    }
+
+    public UserService(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
 
     public User createUser(String name, String email) {
         User user = new User(name, email);
@@ -14,6 +24,10 @@ public class UserService {
         return user;
     }
 
+    public void createUsers(Collection<User> users) {
+        userRepository.saveAll(users);
+    }
+
     public User getUserById(int id) {
         return userRepository.findById(id);
     }
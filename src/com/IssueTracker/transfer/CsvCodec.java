@@ -0,0 +1,160 @@
+package com.IssueTracker.transfer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// RFC 4180 CSV with a header row. Fields containing commas, quotes or line breaks are quoted, so
+// descriptions and comments may span lines. An empty field reads back as null.
+final class CsvCodec {
+
+    private CsvCodec() {
+    }
+
+    static final class Writer implements RecordWriter {
+        private final java.io.Writer out;
+
+        Writer(java.io.Writer out, EntityType entity, boolean writeHeader) throws IOException {
+            this.out = out;
+            if (writeHeader) {
+                write(entity.columns());
+            }
+        }
+
+        @Override
+        public void write(String[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    out.write(',');
+                }
+                writeField(values[i]);
+            }
+            out.write('\n');
+        }
+
+        private void writeField(String value) throws IOException {
+            if (value == null || value.isEmpty()) {
+                return;
+            }
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                out.write(value);
+                return;
+            }
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"') {
+                    out.write('"');
+                }
+                out.write(c);
+            }
+            out.write('"');
+        }
+    }
+
+    static final class Reader implements RecordReader {
+        private final java.io.Reader in;
+        private final int[] positions;
+        private final int columnCount;
+        private final StringBuilder field = new StringBuilder();
+        private long record;
+        private int peeked = -2;
+
+        // Columns are matched to the header by name, so their order in the file does not matter
+        Reader(java.io.Reader in, EntityType entity) throws IOException {
+            this.in = in;
+            this.columnCount = entity.columns().length;
+            String[] header = readFields();
+            if (header == null) {
+                throw new IOException("Missing CSV header");
+            }
+            positions = new int[header.length];
+            for (int i = 0; i < header.length; i++) {
+                positions[i] = header[i] == null ? -1 : entity.columnIndex(header[i].trim());
+            }
+        }
+
+        @Override
+        public String[] read() throws IOException {
+            String[] fields = readFields();
+            if (fields == null) {
+                return null;
+            }
+            record++;
+            String[] values = new String[columnCount];
+            for (int i = 0; i < fields.length && i < positions.length; i++) {
+                if (positions[i] >= 0) {
+                    values[positions[i]] = fields[i];
+                }
+            }
+            return values;
+        }
+
+        // Blank lines between records are skipped
+        private String[] readFields() throws IOException {
+            int c = next();
+            while (c == '\n' || c == '\r') {
+                c = next();
+            }
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>(columnCount);
+            while (true) {
+                field.setLength(0);
+                boolean quoted = false;
+                if (c == '"') {
+                    quoted = true;
+                    while (true) {
+                        c = next();
+                        if (c == -1) {
+                            throw new IOException("Unterminated quoted field in CSV record " + (record + 1));
+                        }
+                        if (c == '"') {
+                            if (peek() != '"') {
+                                break;
+                            }
+                            next();
+                        }
+                        field.append((char) c);
+                    }
+                    c = next();
+                }
+                while (c != ',' && c != '\n' && c != '\r' && c != -1) {
+                    field.append((char) c);
+                    c = next();
+                }
+                fields.add(field.length() == 0 && !quoted ? null : field.toString());
+                if (c == ',') {
+                    c = next();
+                    continue;
+                }
+                if (c == '\r' && peek() == '\n') {
+                    next();
+                }
+                return fields.toArray(new String[0]);
+            }
+        }
+
+        private int next() throws IOException {
+            if (peeked != -2) {
+                int c = peeked;
+                peeked = -2;
+                return c;
+            }
+            return in.read();
+        }
+
+        private int peek() throws IOException {
+            if (peeked == -2) {
+                peeked = in.read();
+            }
+            return peeked;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.IssueTracker.transfer;
+
+import com.IssueTracker.models.Comment;
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssueBatch;
+import com.IssueTracker.models.User;
+import com.IssueTracker.repository.CommentRepository;
+import com.IssueTracker.repository.IssueRepository;
+import com.IssueTracker.repository.UserRepository;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+// Writes users, issues and comments to one file each in a directory. Issues are read in keyset pages
+// and comments one page of issues at a time, so memory stays flat however large the tables are; users
+// have no keyset query and are read in one go. After every page the file is flushed and its length and
+// last id are appended to export.checkpoint. Rerunning an interrupted export truncates each file back to
+// its last checkpoint and carries on from there; the checkpoint is removed once every file is finished.
+public class DataExporter {
+
+    private static final int WRITE_BUFFER = 64 * 1024;
+
+    private final UserRepository userRepository;
+    private final IssueRepository issueRepository;
+    private final CommentRepository commentRepository;
+    private final int pageSize;
+
+    // Writes the records after afterId, up to one page, and returns the id to continue after. Returning
+    // afterId itself means nothing was left.
+    @FunctionalInterface
+    private interface Pager {
+        int writePage(int afterId, RecordWriter writer, long[] records) throws IOException;
+    }
+
+    public DataExporter(UserRepository userRepository, IssueRepository issueRepository,
+            CommentRepository commentRepository, int pageSize) {
+        if (pageSize <= 0) {
+            throw new IllegalArgumentException("pageSize must be positive: " + pageSize);
+        }
+        this.userRepository = userRepository;
+        this.issueRepository = issueRepository;
+        this.commentRepository = commentRepository;
+        this.pageSize = pageSize;
+    }
+
+    public List<TransferProgress> exportAll(Path dir, TransferFormat format, ProgressListener listener)
+            throws IOException {
+        Files.createDirectories(dir);
+        List<TransferProgress> results = new ArrayList<>();
+        ExportCheckpoint checkpoint = ExportCheckpoint.open(dir, format);
+        try {
+            for (EntityType entity : EntityType.values()) {
+                results.add(export(entity, dir.resolve(entity.fileName(format)), format, checkpoint, listener));
+            }
+        } finally {
+            checkpoint.close();
+        }
+        checkpoint.delete();
+        return results;
+    }
+
+    private TransferProgress export(EntityType entity, Path file, TransferFormat format, ExportCheckpoint checkpoint,
+            ProgressListener listener) throws IOException {
+        ExportCheckpoint.Position position = checkpoint.position(entity);
+        long skipped = position == null ? 0 : position.records;
+        if (checkpoint.isFinished(entity)) {
+            TransferProgress done = new TransferProgress(entity, 0, 0, skipped, 0, 0, true);
+            listener.onProgress(done);
+            return done;
+        }
+        long offset = position == null ? 0 : position.bytes;
+        int afterId = position == null ? 0 : position.lastId;
+        Pager pager = pager(entity);
+        long[] records = new long[1];
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+                Writer out = new BufferedWriter(
+                        Channels.newWriter(channel, StandardCharsets.UTF_8.newEncoder(), WRITE_BUFFER), WRITE_BUFFER)) {
+            // Anything past the checkpoint was written after the last page that is known to be complete
+            channel.truncate(offset);
+            channel.position(offset);
+            RecordWriter writer = format.newWriter(out, entity, position == null);
+            while (true) {
+                int lastId = pager.writePage(afterId, writer, records);
+                out.flush();
+                if (lastId == afterId) {
+                    break;
+                }
+                afterId = lastId;
+                checkpoint.save(entity, channel.position(), afterId, skipped + records[0]);
+                listener.onProgress(new TransferProgress(entity, records[0], 0, skipped, channel.position() - offset,
+                        System.nanoTime() - start, false));
+            }
+            channel.force(false);
+            checkpoint.markFinished(entity);
+            TransferProgress done = new TransferProgress(entity, records[0], 0, skipped, channel.position() - offset,
+                    System.nanoTime() - start, true);
+            listener.onProgress(done);
+            return done;
+        }
+    }
+
+    private Pager pager(EntityType entity) {
+        switch (entity) {
+            case USERS:
+                return usersPager();
+            case ISSUES:
+                return this::writeIssues;
+            default:
+                return this::writeComments;
+        }
+    }
+
+    private Pager usersPager() {
+        List<User> users = new ArrayList<>(userRepository.findAll());
+        users.sort(Comparator.comparingInt(User::getId));
+        return (afterId, writer, records) -> {
+            int lastId = afterId;
+            int written = 0;
+            for (User user : users) {
+                if (user.getId() <= afterId) {
+                    continue;
+                }
+                writer.write(new String[] {
+                        Integer.toString(user.getId()), user.getName(), user.getEmail() });
+                lastId = user.getId();
+                records[0]++;
+                if (++written == pageSize) {
+                    break;
+                }
+            }
+            return lastId;
+        };
+    }
+
+    private int writeIssues(int afterId, RecordWriter writer, long[] records) throws IOException {
+        int lastId = afterId;
+        for (Issue issue : issueRepository.findAllAfter(afterId, pageSize)) {
+            writer.write(new String[] {
+                    Integer.toString(issue.getId()), issue.getTitle(), issue.getDescription(), issue.getStatus(),
+                    issue.getPriority(), Integer.toString(issue.getAssigneeId()), format(issue.getCreatedAt()),
+                    format(issue.getUpdatedAt()) });
+            lastId = issue.getId();
+            records[0]++;
+        }
+        return lastId;
+    }
+
+    // Pages by issue id, so the checkpoint for comments records the last issue whose comments are written
+    private int writeComments(int afterId, RecordWriter writer, long[] records) throws IOException {
+        IssueBatch batch = new IssueBatch(pageSize);
+        if (issueRepository.fillBatchAfter(afterId, batch) == 0) {
+            return afterId;
+        }
+        List<Integer> issueIds = new ArrayList<>(batch.size());
+        for (int row = 0; row < batch.size(); row++) {
+            issueIds.add(batch.getId(row));
+        }
+        Map<Integer, List<Comment>> byIssue = commentRepository.findByIssueIds(issueIds);
+        for (Integer issueId : issueIds) {
+            List<Comment> comments = byIssue.get(issueId);
+            if (comments == null) {
+                continue;
+            }
+            for (Comment comment : comments) {
+                writer.write(new String[] {
+                        Integer.toString(comment.getCommentId()), Integer.toString(comment.getIssueId()),
+                        comment.getAuthor(), comment.getContent() });
+                records[0]++;
+            }
+        }
+        return batch.lastId();
+    }
+
+    private static String format(LocalDateTime time) {
+        return time == null ? null : time.toString();
+    }
+}
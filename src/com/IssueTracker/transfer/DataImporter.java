@@ -0,0 +1,307 @@
+package com.IssueTracker.transfer;
+
+import com.IssueTracker.models.Comment;
+import com.IssueTracker.models.Issue;
+import com.IssueTracker.models.IssuePriority;
+import com.IssueTracker.models.IssueStatus;
+import com.IssueTracker.models.User;
+import com.IssueTracker.service.IssueService;
+import com.IssueTracker.service.UserService;
+import com.IssueTracker.utils.VirtualThreads;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+// Loads users.*, issues.* and comments.* from a directory, in that order, each file in whichever format
+// its extension names. One thread reads and parses a file in constant memory and hands chunks of rows
+// to workers, which validate them and insert each chunk in one transaction through the services, so
+// the usual events fire. Imported rows get new ids; references to rows imported earlier are remapped,
+// and created/updated times are assigned by the repositories rather than taken from the file.
+//
+// Progress is kept in import.checkpoint in the same directory. If a chunk fails to insert, the files
+// after it are left for the next run, which skips the chunks already committed and retries the rest.
+// The checkpoint is removed once every chunk is in.
+public class DataImporter {
+
+    private static final int READ_BUFFER = 64 * 1024;
+    private static final int MAX_LOGGED_ERRORS = 20;
+
+    private final UserService userService;
+    private final IssueService issueService;
+    private final int threads;
+    private final int chunkSize;
+    private final AtomicInteger loggedErrors = new AtomicInteger();
+
+    public DataImporter(UserService userService, IssueService issueService, int threads, int chunkSize) {
+        if (threads <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("threads and chunkSize must be positive");
+        }
+        this.userService = userService;
+        this.issueService = issueService;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    public List<TransferProgress> importAll(Path dir, ProgressListener listener) throws IOException {
+        Set<EntityType> present = EnumSet.noneOf(EntityType.class);
+        for (EntityType entity : EntityType.values()) {
+            if (find(dir, entity) != null) {
+                present.add(entity);
+            }
+        }
+        if (present.isEmpty()) {
+            throw new IOException("No users, issues or comments file in " + dir);
+        }
+        loggedErrors.set(0);
+        List<TransferProgress> results = new ArrayList<>();
+        AtomicLong failedChunks = new AtomicLong();
+        ImportCheckpoint checkpoint = ImportCheckpoint.open(dir, chunkSize);
+        ExecutorService executor = VirtualThreads.newExecutor("data-import", threads);
+        try {
+            for (EntityType entity : present) {
+                // Rows referring to a chunk that failed would be rejected for good, so stop and let a rerun
+                // retry that chunk first
+                if (failedChunks.get() > 0) {
+                    break;
+                }
+                Path file = find(dir, entity);
+                results.add(importFile(entity, file, present, checkpoint, executor, failedChunks, listener));
+            }
+        } finally {
+            executor.shutdown();
+            checkpoint.close();
+        }
+        if (failedChunks.get() == 0) {
+            checkpoint.delete();
+        } else {
+            System.err.println(failedChunks.get() + " chunk(s) failed; run the import again to retry them");
+        }
+        return results;
+    }
+
+    private static Path find(Path dir, EntityType entity) throws IOException {
+        Path found = null;
+        for (TransferFormat format : TransferFormat.values()) {
+            Path file = dir.resolve(entity.fileName(format));
+            if (Files.isRegularFile(file)) {
+                if (found != null) {
+                    throw new IOException("Both " + found.getFileName() + " and " + file.getFileName() + " are in "
+                            + dir + "; remove one");
+                }
+                found = file;
+            }
+        }
+        return found;
+    }
+
+    private TransferProgress importFile(EntityType entity, Path file, Set<EntityType> present,
+            ImportCheckpoint checkpoint, ExecutorService executor, AtomicLong failedChunks, ProgressListener listener)
+            throws IOException {
+        switch (entity) {
+            case USERS:
+                return importFile(entity, file, this::toUser, userService::createUsers, User::getId, checkpoint,
+                        executor, failedChunks, listener);
+            case ISSUES:
+                boolean remapUsers = present.contains(EntityType.USERS);
+                return importFile(entity, file, row -> toIssue(row, checkpoint, remapUsers),
+                        issueService::createIssues, Issue::getId, checkpoint, executor, failedChunks, listener);
+            default:
+                boolean remapIssues = present.contains(EntityType.ISSUES);
+                return importFile(entity, file, row -> toComment(row, checkpoint, remapIssues),
+                        issueService::addComments, Comment::getCommentId, checkpoint, executor, failedChunks,
+                        listener);
+        }
+    }
+
+    private <T> TransferProgress importFile(EntityType entity, Path file, Function<String[], T> parser,
+            Consumer<List<T>> saver, ToIntFunction<T> idGetter, ImportCheckpoint checkpoint, ExecutorService executor,
+            AtomicLong failedChunks, ProgressListener listener) throws IOException {
+        TransferFormat format = TransferFormat.parse(file.getFileName().toString()
+                .substring(file.getFileName().toString().lastIndexOf('.') + 1));
+        int maxInFlight = threads * 2;
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        AtomicLong records = new AtomicLong();
+        AtomicLong rejected = new AtomicLong();
+        long skipped = 0;
+        long read = 0;
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+                BufferedReader in = new BufferedReader(
+                        Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), READ_BUFFER), READ_BUFFER)) {
+            RecordReader reader = format.newReader(in, entity);
+            int chunk = 0;
+            List<String[]> rows = new ArrayList<>(checkpoint.chunkSize());
+            String[] row;
+            while (true) {
+                row = reader.read();
+                if (row != null) {
+                    rows.add(row);
+                    if (rows.size() < checkpoint.chunkSize()) {
+                        continue;
+                    }
+                }
+                if (rows.isEmpty()) {
+                    break;
+                }
+                if (checkpoint.isDone(entity, chunk)) {
+                    skipped += rows.size();
+                } else {
+                    inFlight.acquireUninterruptibly();
+                    List<String[]> chunkRows = rows;
+                    int chunkIndex = chunk;
+                    long firstRecord = read;
+                    executor.execute(() -> {
+                        try {
+                            importChunk(entity, chunkIndex, chunkRows, firstRecord, parser, saver, idGetter,
+                                    checkpoint, records, rejected, failedChunks);
+                        } finally {
+                            inFlight.release();
+                        }
+                    });
+                }
+                read += rows.size();
+                chunk++;
+                rows = new ArrayList<>(checkpoint.chunkSize());
+                listener.onProgress(new TransferProgress(entity, records.get(), rejected.get(), skipped,
+                        channel.position(), System.nanoTime() - start, false));
+                if (row == null) {
+                    break;
+                }
+            }
+            // Every chunk of this file must be in before the next file's references can be remapped
+            inFlight.acquireUninterruptibly(maxInFlight);
+            TransferProgress done = new TransferProgress(entity, records.get(), rejected.get(), skipped,
+                    channel.size(), System.nanoTime() - start, true);
+            listener.onProgress(done);
+            return done;
+        }
+    }
+
+    private <T> void importChunk(EntityType entity, int chunk, List<String[]> rows, long firstRecord,
+            Function<String[], T> parser, Consumer<List<T>> saver, ToIntFunction<T> idGetter,
+            ImportCheckpoint checkpoint, AtomicLong records, AtomicLong rejected, AtomicLong failedChunks) {
+        List<T> valid = new ArrayList<>(rows.size());
+        int[] oldIds = new int[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            String[] row = rows.get(i);
+            try {
+                oldIds[valid.size()] = parseId(row[0], "id", 0);
+                valid.add(parser.apply(row));
+            } catch (IllegalArgumentException e) {
+                rejected.incrementAndGet();
+                logError(entity + " record " + (firstRecord + i + 1) + ": " + e.getMessage());
+            }
+        }
+        try {
+            saver.accept(valid);
+            int[] newIds = new int[valid.size()];
+            for (int i = 0; i < valid.size(); i++) {
+                newIds[i] = idGetter.applyAsInt(valid.get(i));
+                if (newIds[i] <= 0) {
+                    throw new IllegalStateException("the insert was rolled back");
+                }
+            }
+            checkpoint.commit(entity, chunk, trim(oldIds, valid.size()), newIds);
+            records.addAndGet(valid.size());
+        } catch (IOException | RuntimeException e) {
+            rejected.addAndGet(valid.size());
+            failedChunks.incrementAndGet();
+            logError(entity + " records " + (firstRecord + 1) + "-" + (firstRecord + rows.size()) + " failed: " + e);
+        }
+    }
+
+    private User toUser(String[] row) {
+        String name = required(row[1], "name");
+        String email = required(row[2], "email");
+        if (email.indexOf('@') <= 0) {
+            throw new IllegalArgumentException("invalid email: " + email);
+        }
+        return new User(name, email);
+    }
+
+    private Issue toIssue(String[] row, ImportCheckpoint checkpoint, boolean remapUsers) {
+        String title = required(row[1], "title");
+        IssueStatus status = IssueStatus.parse(required(row[3], "status"));
+        if (status == null) {
+            throw new IllegalArgumentException("unknown status: " + row[3]);
+        }
+        IssuePriority priority = IssuePriority.parse(required(row[4], "priority"));
+        if (priority == null) {
+            throw new IllegalArgumentException("unknown priority: " + row[4]);
+        }
+        int assigneeId = parseId(row[5], "assignee_id", 0);
+        if (remapUsers && assigneeId != 0) {
+            assigneeId = remap(checkpoint, EntityType.USERS, assigneeId, "assignee_id");
+        }
+        return new Issue(title, row[2] == null ? "" : row[2], status.name(), priority.name(), assigneeId);
+    }
+
+    private Comment toComment(String[] row, ImportCheckpoint checkpoint, boolean remapIssues) {
+        int issueId = parseId(required(row[1], "issue_id"), "issue_id", 0);
+        if (remapIssues) {
+            issueId = remap(checkpoint, EntityType.ISSUES, issueId, "issue_id");
+        }
+        return new Comment(issueId, required(row[2], "author"), row[3] == null ? "" : row[3]);
+    }
+
+    private static int remap(ImportCheckpoint checkpoint, EntityType parent, int oldId, String column) {
+        Integer newId = checkpoint.newId(parent, oldId);
+        if (newId == null) {
+            throw new IllegalArgumentException(column + " " + oldId + " was not imported");
+        }
+        return newId;
+    }
+
+    private static String required(String value, String column) {
+        if (value == null || value.trim().isEmpty()) {
+            throw new IllegalArgumentException(column + " is required");
+        }
+        return value;
+    }
+
+    private static int parseId(String value, String column, int defaultValue) {
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("invalid " + column + ": " + value);
+        }
+    }
+
+    private static int[] trim(int[] values, int length) {
+        if (values.length == length) {
+            return values;
+        }
+        int[] trimmed = new int[length];
+        System.arraycopy(values, 0, trimmed, 0, length);
+        return trimmed;
+    }
+
+    private synchronized void logError(String message) {
+        int count = loggedErrors.incrementAndGet();
+        if (count <= MAX_LOGGED_ERRORS) {
+            System.err.println("Import: " + message);
+        } else if (count == MAX_LOGGED_ERRORS + 1) {
+            System.err.println("Import: further errors are counted but not printed");
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.IssueTracker.transfer;
+
+// The record layout of each exported table. Entities are imported in declaration order so that issues
+// can refer to already-imported users, and comments to already-imported issues.
+public enum EntityType {
+    USERS("users", "id", "name", "email"),
+    ISSUES("issues", "id", "title", "description", "status", "priority", "assignee_id", "created_at", "updated_at"),
+    COMMENTS("comments", "id", "issue_id", "author", "content");
+
+    private final String baseName;
+    private final String[] columns;
+
+    EntityType(String baseName, String... columns) {
+        this.baseName = baseName;
+        this.columns = columns;
+    }
+
+    public String fileName(TransferFormat format) {
+        return baseName + "." + format.getExtension();
+    }
+
+    String[] columns() {
+        return columns;
+    }
+
+    int columnIndex(String name) {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equalsIgnoreCase(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Written as JSON numbers rather than strings
+    boolean isNumeric(int column) {
+        return columns[column].equals("id") || columns[column].endsWith("_id");
+    }
+}
@@ -0,0 +1,115 @@
+package com.IssueTracker.transfer;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+// Append-only record of an export in progress. For each file it holds the byte length that was flushed
+// along with the last exported id, and whether the file is finished. A rerun truncates each file back
+// to its last recorded length and carries on after that id.
+final class ExportCheckpoint implements AutoCloseable {
+
+    static final String FILE_NAME = "export.checkpoint";
+
+    static final class Position {
+        final long bytes;
+        final int lastId;
+        final long records;
+
+        Position(long bytes, int lastId, long records) {
+            this.bytes = bytes;
+            this.lastId = lastId;
+            this.records = records;
+        }
+    }
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Map<EntityType, Position> positions = new EnumMap<>(EntityType.class);
+    private final Set<EntityType> finished = EnumSet.noneOf(EntityType.class);
+
+    private ExportCheckpoint(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    static ExportCheckpoint open(Path dir, TransferFormat format) throws IOException {
+        Path path = dir.resolve(FILE_NAME);
+        boolean resume = Files.exists(path);
+        String[] lines = resume ? new String(Files.readAllBytes(path), StandardCharsets.UTF_8).split("\n") : null;
+        if (resume && lines.length > 0 && lines[0].startsWith("format ")
+                && !lines[0].substring("format ".length()).trim().equals(format.name())) {
+            throw new IllegalStateException("An unfinished " + lines[0].substring("format ".length()).trim()
+                    + " export is in " + dir + "; finish it with that format or delete " + path);
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        ExportCheckpoint checkpoint = new ExportCheckpoint(path, channel);
+        if (resume) {
+            checkpoint.replay(lines);
+        } else {
+            checkpoint.append("format " + format.name() + "\n");
+        }
+        return checkpoint;
+    }
+
+    private void replay(String[] lines) {
+        for (String line : lines) {
+            String[] parts = line.split(" ");
+            try {
+                if (parts.length == 2 && parts[1].equals("done")) {
+                    finished.add(EntityType.valueOf(parts[0]));
+                } else if (parts.length == 4) {
+                    positions.put(EntityType.valueOf(parts[0]), new Position(Long.parseLong(parts[1]),
+                            Integer.parseInt(parts[2]), Long.parseLong(parts[3])));
+                }
+            } catch (IllegalArgumentException e) {
+                // torn line from an interrupted write, or the format header
+            }
+        }
+    }
+
+    boolean isFinished(EntityType entity) {
+        return finished.contains(entity);
+    }
+
+    Position position(EntityType entity) {
+        return positions.get(entity);
+    }
+
+    void save(EntityType entity, long bytes, int lastId, long records) throws IOException {
+        append(entity.name() + " " + bytes + " " + lastId + " " + records + "\n");
+        positions.put(entity, new Position(bytes, lastId, records));
+    }
+
+    void markFinished(EntityType entity) throws IOException {
+        append(entity.name() + " done\n");
+        finished.add(entity);
+    }
+
+    private void append(String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
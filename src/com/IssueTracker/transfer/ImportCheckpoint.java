@@ -0,0 +1,124 @@
+package com.IssueTracker.transfer;
+
+import com.IssueTracker.utils.IntHashMap;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Append-only record of an import in progress: the chunk size, every committed chunk, and the id each
+// imported row was given. A rerun skips committed chunks and still remaps references to their rows.
+// Each commit is one write followed by a force, and a torn last line is ignored on load, so a crash at
+// worst re-imports the chunk it was committing.
+final class ImportCheckpoint implements AutoCloseable {
+
+    static final String FILE_NAME = "import.checkpoint";
+
+    private final Path path;
+    private final FileChannel channel;
+    private final int chunkSize;
+    private final Map<EntityType, BitSet> done = new EnumMap<>(EntityType.class);
+    private final Map<EntityType, IntHashMap<Integer>> idMaps = new EnumMap<>(EntityType.class);
+
+    private ImportCheckpoint(Path path, FileChannel channel, int chunkSize) {
+        this.path = path;
+        this.channel = channel;
+        this.chunkSize = chunkSize;
+        for (EntityType entity : EntityType.values()) {
+            done.put(entity, new BitSet());
+            idMaps.put(entity, new IntHashMap<>());
+        }
+    }
+
+    // An existing checkpoint keeps the chunk size it was started with, so chunk numbers still line up
+    static ImportCheckpoint open(Path dir, int chunkSize) throws IOException {
+        Path path = dir.resolve(FILE_NAME);
+        boolean resume = Files.exists(path);
+        int size = chunkSize;
+        String[] lines = resume ? new String(Files.readAllBytes(path), StandardCharsets.UTF_8).split("\n") : null;
+        if (resume && lines.length > 0 && lines[0].startsWith("chunkSize ")) {
+            size = Integer.parseInt(lines[0].substring("chunkSize ".length()).trim());
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        ImportCheckpoint checkpoint = new ImportCheckpoint(path, channel, size);
+        if (resume) {
+            checkpoint.replay(lines);
+        } else {
+            checkpoint.append("chunkSize " + size + "\n");
+        }
+        return checkpoint;
+    }
+
+    private void replay(String[] lines) {
+        for (String line : lines) {
+            String[] parts = line.split(" ");
+            try {
+                if (parts.length == 4 && parts[0].equals("map")) {
+                    idMaps.get(EntityType.valueOf(parts[1])).put(Integer.parseInt(parts[2]),
+                            Integer.valueOf(parts[3]));
+                } else if (parts.length == 3 && parts[0].equals("done")) {
+                    done.get(EntityType.valueOf(parts[1])).set(Integer.parseInt(parts[2]));
+                }
+            } catch (IllegalArgumentException e) {
+                // torn line from an interrupted write
+            }
+        }
+    }
+
+    int chunkSize() {
+        return chunkSize;
+    }
+
+    synchronized boolean isDone(EntityType entity, int chunk) {
+        return done.get(entity).get(chunk);
+    }
+
+    synchronized int doneChunks(EntityType entity) {
+        return done.get(entity).cardinality();
+    }
+
+    // The id the given exported row was imported as, or null if it was not imported
+    synchronized Integer newId(EntityType entity, int oldId) {
+        return idMaps.get(entity).get(oldId);
+    }
+
+    synchronized void commit(EntityType entity, int chunk, int[] oldIds, int[] newIds) throws IOException {
+        StringBuilder text = new StringBuilder(oldIds.length * 24 + 32);
+        for (int i = 0; i < oldIds.length; i++) {
+            text.append("map ").append(entity.name()).append(' ').append(oldIds[i]).append(' ').append(newIds[i])
+                    .append('\n');
+        }
+        text.append("done ").append(entity.name()).append(' ').append(chunk).append('\n');
+        append(text.toString());
+        for (int i = 0; i < oldIds.length; i++) {
+            idMaps.get(entity).put(oldIds[i], newIds[i]);
+        }
+        done.get(entity).set(chunk);
+    }
+
+    private void append(String text) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        channel.force(false);
+    }
+
+    void delete() throws IOException {
+        close();
+        Files.deleteIfExists(path);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,218 @@
+package com.IssueTracker.transfer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+// One flat JSON object per line. Id columns are written as numbers and everything else as strings;
+// null values are omitted. The reader accepts any flat object: unknown keys are ignored, and numbers,
+// booleans and strings all read back as text.
+final class JsonLinesCodec {
+
+    private JsonLinesCodec() {
+    }
+
+    static final class Writer implements RecordWriter {
+        private final java.io.Writer out;
+        private final EntityType entity;
+
+        Writer(java.io.Writer out, EntityType entity) {
+            this.out = out;
+            this.entity = entity;
+        }
+
+        @Override
+        public void write(String[] values) throws IOException {
+            String[] columns = entity.columns();
+            out.write('{');
+            boolean first = true;
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] == null) {
+                    continue;
+                }
+                if (!first) {
+                    out.write(',');
+                }
+                first = false;
+                writeString(columns[i]);
+                out.write(':');
+                if (entity.isNumeric(i)) {
+                    out.write(values[i]);
+                } else {
+                    writeString(values[i]);
+                }
+            }
+            out.write("}\n");
+        }
+
+        private void writeString(String value) throws IOException {
+            out.write('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                switch (c) {
+                    case '"':
+                        out.write("\\\"");
+                        break;
+                    case '\\':
+                        out.write("\\\\");
+                        break;
+                    case '\n':
+                        out.write("\\n");
+                        break;
+                    case '\r':
+                        out.write("\\r");
+                        break;
+                    case '\t':
+                        out.write("\\t");
+                        break;
+                    default:
+                        if (c < 0x20) {
+                            out.write(String.format("\\u%04x", (int) c));
+                        } else {
+                            out.write(c);
+                        }
+                }
+            }
+            out.write('"');
+        }
+    }
+
+    static final class Reader implements RecordReader {
+        private final BufferedReader in;
+        private final EntityType entity;
+        private final StringBuilder text = new StringBuilder();
+        private long record;
+        private String line;
+        private int pos;
+
+        Reader(java.io.Reader in, EntityType entity) {
+            this.in = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+            this.entity = entity;
+        }
+
+        @Override
+        public String[] read() throws IOException {
+            do {
+                line = in.readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.trim().isEmpty());
+            record++;
+            pos = 0;
+            String[] values = new String[entity.columns().length];
+            expect('{');
+            if (peekNonSpace() == '}') {
+                pos++;
+                return values;
+            }
+            while (true) {
+                String key = readString();
+                expect(':');
+                String value = readValue();
+                int column = entity.columnIndex(key);
+                if (column >= 0) {
+                    values[column] = value;
+                }
+                char c = peekNonSpace();
+                pos++;
+                if (c == '}') {
+                    return values;
+                }
+                if (c != ',') {
+                    throw error("expected ',' or '}'");
+                }
+            }
+        }
+
+        private String readValue() throws IOException {
+            char c = peekNonSpace();
+            if (c == '"') {
+                return readString();
+            }
+            int start = pos;
+            while (pos < line.length() && ",} \t".indexOf(line.charAt(pos)) < 0) {
+                pos++;
+            }
+            String literal = line.substring(start, pos);
+            if (literal.isEmpty()) {
+                throw error("expected a value");
+            }
+            if (literal.equals("null")) {
+                return null;
+            }
+            if (c == '{' || c == '[') {
+                throw error("nested objects and arrays are not supported");
+            }
+            return literal;
+        }
+
+        private String readString() throws IOException {
+            expect('"');
+            text.setLength(0);
+            while (pos < line.length()) {
+                char c = line.charAt(pos++);
+                if (c == '"') {
+                    return text.toString();
+                }
+                if (c != '\\') {
+                    text.append(c);
+                    continue;
+                }
+                if (pos >= line.length()) {
+                    break;
+                }
+                char escaped = line.charAt(pos++);
+                switch (escaped) {
+                    case 'n':
+                        text.append('\n');
+                        break;
+                    case 'r':
+                        text.append('\r');
+                        break;
+                    case 't':
+                        text.append('\t');
+                        break;
+                    case 'b':
+                        text.append('\b');
+                        break;
+                    case 'f':
+                        text.append('\f');
+                        break;
+                    case 'u':
+                        if (pos + 4 > line.length()) {
+                            throw error("truncated \\u escape");
+                        }
+                        try {
+                            text.append((char) Integer.parseInt(line.substring(pos, pos + 4), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("invalid \\u escape");
+                        }
+                        pos += 4;
+                        break;
+                    default:
+                        text.append(escaped);
+                }
+            }
+            throw error("unterminated string");
+        }
+
+        private void expect(char expected) throws IOException {
+            if (peekNonSpace() != expected) {
+                throw error("expected '" + expected + "'");
+            }
+            pos++;
+        }
+
+        private char peekNonSpace() {
+            while (pos < line.length() && Character.isWhitespace(line.charAt(pos))) {
+                pos++;
+            }
+            return pos < line.length() ? line.charAt(pos) : '\0';
+        }
+
+        private IOException error(String message) {
+            return new IOException("Malformed JSON in record " + record + " at column " + (pos + 1) + ": "
+                    + message);
+        }
+    }
+}
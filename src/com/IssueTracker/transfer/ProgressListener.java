@@ -0,0 +1,7 @@
+package com.IssueTracker.transfer;
+
+@FunctionalInterface
+public interface ProgressListener {
+
+    void onProgress(TransferProgress progress);
+}
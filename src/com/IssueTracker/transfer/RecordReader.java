@@ -0,0 +1,10 @@
+package com.IssueTracker.transfer;
+
+import java.io.IOException;
+
+// Returns the next record's values in the entity's column order (null for a missing column), or null
+// at the end of the input. Malformed input throws an IOException naming the record.
+interface RecordReader {
+
+    String[] read() throws IOException;
+}
@@ -0,0 +1,9 @@
+package com.IssueTracker.transfer;
+
+import java.io.IOException;
+
+// Writes one record per call, values in the entity's column order; null means "no value"
+interface RecordWriter {
+
+    void write(String[] values) throws IOException;
+}
@@ -0,0 +1,37 @@
+package com.IssueTracker.transfer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+public enum TransferFormat {
+    CSV("csv"), JSONL("jsonl");
+
+    private final String extension;
+
+    TransferFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static TransferFormat parse(String value) {
+        for (TransferFormat format : values()) {
+            if (format.name().equalsIgnoreCase(value.trim()) || format.extension.equalsIgnoreCase(value.trim())) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Unknown format: " + value);
+    }
+
+    // The header is only written for a new file, not when appending to a resumed export
+    RecordWriter newWriter(Writer out, EntityType entity, boolean writeHeader) throws IOException {
+        return this == CSV ? new CsvCodec.Writer(out, entity, writeHeader) : new JsonLinesCodec.Writer(out, entity);
+    }
+
+    RecordReader newReader(Reader in, EntityType entity) throws IOException {
+        return this == CSV ? new CsvCodec.Reader(in, entity) : new JsonLinesCodec.Reader(in, entity);
+    }
+}
@@ -0,0 +1,70 @@
+package com.IssueTracker.transfer;
+
+import java.util.concurrent.TimeUnit;
+
+public class TransferProgress {
+    private final EntityType entity;
+    private final long records;
+    private final long rejected;
+    private final long skipped;
+    private final long bytes;
+    private final long elapsedNanos;
+    private final boolean finished;
+
+    public TransferProgress(EntityType entity, long records, long rejected, long skipped, long bytes,
+            long elapsedNanos, boolean finished) {
+        this.entity = entity;
+        this.records = records;
+        this.rejected = rejected;
+        this.skipped = skipped;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+        this.finished = finished;
+    }
+
+    public EntityType getEntity() {
+        return entity;
+    }
+
+    // Records written (export) or inserted (import) in this run
+    public long getRecords() {
+        return records;
+    }
+
+    // Records that failed validation or whose chunk could not be inserted
+    public long getRejected() {
+        return rejected;
+    }
+
+    // Records already done by an earlier, interrupted run
+    public long getSkipped() {
+        return skipped;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    public double getRecordsPerSecond() {
+        return elapsedNanos == 0 ? 0 : records * 1e9 / elapsedNanos;
+    }
+
+    public double getMegabytesPerSecond() {
+        return elapsedNanos == 0 ? 0 : bytes / 1e6 * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d records (%d rejected, %d skipped), %.1f MB in %.1fs, %.0f records/s, %.1f MB/s",
+                entity, records, rejected, skipped, bytes / 1e6, TimeUnit.NANOSECONDS.toMillis(elapsedNanos) / 1e3,
+                getRecordsPerSecond(), getMegabytesPerSecond());
+    }
+}
@@ -0,0 +1,56 @@
+package com.IssueTracker.utils;
+
+public class CacheStats {
+    private final int size;
+    private final int maxSize;
+    private final long hitCount;
+    private final long missCount;
+    private final long evictionCount;
+    private final long expirationCount;
+
+    public CacheStats(int size, int maxSize, long hitCount, long missCount, long evictionCount,
+            long expirationCount) {
+        this.size = size;
+        this.maxSize = maxSize;
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    public long getMissCount() {
+        return missCount;
+    }
+
+    public long getEvictionCount() {
+        return evictionCount;
+    }
+
+    public long getExpirationCount() {
+        return expirationCount;
+    }
+
+    public double getHitRate() {
+        long requests = hitCount + missCount;
+        return requests == 0 ? 0 : (double) hitCount / requests;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStats [size=" + size + ", maxSize=" + maxSize + ", hits=" + hitCount + ", misses=" + missCount +
+                ", evictions=" + evictionCount + ", expirations=" + expirationCount +
+                ", hitRate=" + String.format("%.3f", getHitRate()) + "]";
+    }
+}
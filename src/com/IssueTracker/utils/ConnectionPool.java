@@ -0,0 +1,360 @@
+package com.IssueTracker.utils;
+
+import com.IssueTracker.metrics.QueryMetrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+public class ConnectionPool implements AutoCloseable {
+
+    private final PoolConfig config;
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private final QueryMetrics metrics = QueryMetrics.isEnabled() ? QueryMetrics.global() : null;
+
+    private final AtomicLong borrowCount = new AtomicLong();
+    private final AtomicLong createdCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+    private final LongAdder statementHits = new LongAdder();
+    private final LongAdder statementMisses = new LongAdder();
+    private final LongAdder statementEvictions = new LongAdder();
+
+    private volatile Driver driver;
+    private volatile boolean closed;
+
+    public ConnectionPool(PoolConfig config) {
+        this.config = config;
+        this.permits = new Semaphore(config.getMaxSize(), true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = config.getHousekeepingIntervalMillis();
+        housekeeper.scheduleWithFixedDelay(this::housekeep, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    public Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(config.getBorrowTimeoutMillis(), TimeUnit.MILLISECONDS)) {
+                timeoutCount.incrementAndGet();
+                throw new SQLTimeoutException("Timed out after " + config.getBorrowTimeoutMillis()
+                        + "ms waiting for a connection (active=" + active.size() + ", max=" + config.getMaxSize()
+                        + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", e);
+        }
+        recordWait(System.nanoTime() - start);
+
+        try {
+            PooledConnection pooled = takeIdleOrCreate();
+            pooled.onBorrow(config.getLeakThresholdMillis() > 0);
+            active.add(pooled);
+            borrowCount.incrementAndGet();
+            return pooled.proxy;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    private PooledConnection takeIdleOrCreate() throws SQLException {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isUsable(pooled)) {
+                return pooled;
+            }
+            pooled.closePhysical();
+        }
+        return create();
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        long idleMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - pooled.lastReturnedNanos);
+        if (idleMillis < config.getValidationBypassMillis()) {
+            return true;
+        }
+        try {
+            return pooled.physical.isValid(config.getValidationTimeoutSeconds());
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    // The driver is looked up once; DriverManager would otherwise walk its registered drivers on every connect
+    private PooledConnection create() throws SQLException {
+        Driver current = driver;
+        if (current == null) {
+            current = DriverManager.getDriver(config.getUrl());
+            driver = current;
+        }
+        Properties info = new Properties();
+        info.setProperty("user", config.getUser());
+        info.setProperty("password", config.getPassword());
+        Connection physical = current.connect(config.getUrl(), info);
+        if (physical == null) {
+            throw new SQLException("No suitable driver found for " + config.getUrl());
+        }
+        createdCount.incrementAndGet();
+        return new PooledConnection(physical);
+    }
+
+    // Opens connections until minIdle are idle, prepares the statements on each so they sit in its
+    // statement cache (and, with useServerPrepStmts, on the server), then returns them to the pool. Only
+    // free permits are used, so a busy pool is left alone. A statement that fails to prepare (its table
+    // may not exist yet) is skipped. Returns the number of connections opened.
+    public int warmUp(Collection<String> statements) throws SQLException {
+        List<Connection> held = new ArrayList<>();
+        try {
+            while (idle.size() + held.size() < config.getMinIdle() && !closed && permits.tryAcquire()) {
+                PooledConnection pooled;
+                try {
+                    pooled = create();
+                } catch (SQLException | RuntimeException e) {
+                    permits.release();
+                    throw e;
+                }
+                pooled.onBorrow(false);
+                active.add(pooled);
+                held.add(pooled.proxy);
+                for (String sql : statements) {
+                    try {
+                        pooled.proxy.prepareStatement(sql).close();
+                    } catch (SQLException e) {
+                        // left for the first real use to prepare and report
+                    }
+                }
+            }
+        } finally {
+            for (Connection conn : held) {
+                conn.close();
+            }
+        }
+        return held.size();
+    }
+
+    private void recordWait(long waitNanos) {
+        totalWaitNanos.addAndGet(waitNanos);
+        maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        if (metrics != null) {
+            metrics.recordConnectionWait(waitNanos);
+        }
+    }
+
+    void release(PooledConnection pooled) {
+        if (!active.remove(pooled)) {
+            return;
+        }
+        if (pooled.statements != null) {
+            pooled.statements.reclaim();
+        }
+        try {
+            if (!pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (closed || pooled.physical.isClosed()) {
+                pooled.closePhysical();
+            } else {
+                pooled.lastReturnedNanos = System.nanoTime();
+                idle.offerFirst(pooled);
+            }
+        } catch (SQLException e) {
+            pooled.closePhysical();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void housekeep() {
+        long now = System.nanoTime();
+        long leakThresholdNanos = TimeUnit.MILLISECONDS.toNanos(config.getLeakThresholdMillis());
+        if (leakThresholdNanos > 0) {
+            for (PooledConnection pooled : active) {
+                if (!pooled.leakReported && now - pooled.borrowedAtNanos > leakThresholdNanos) {
+                    pooled.leakReported = true;
+                    leakCount.incrementAndGet();
+                    System.err.println("Possible connection leak: connection held for more than "
+                            + config.getLeakThresholdMillis() + "ms, borrowed at:");
+                    if (pooled.borrowTrace != null) {
+                        pooled.borrowTrace.printStackTrace();
+                    }
+                }
+            }
+        }
+
+        long idleTimeoutNanos = TimeUnit.MILLISECONDS.toNanos(config.getIdleTimeoutMillis());
+        Iterator<PooledConnection> it = idle.descendingIterator();
+        while (it.hasNext() && idle.size() > config.getMinIdle()) {
+            PooledConnection pooled = it.next();
+            if (now - pooled.lastReturnedNanos > idleTimeoutNanos && idle.remove(pooled)) {
+                pooled.closePhysical();
+            }
+        }
+    }
+
+    public PoolStats getStats() {
+        return new PoolStats(active.size(), idle.size(), config.getMaxSize(), borrowCount.get(), createdCount.get(),
+                timeoutCount.get(), leakCount.get(), totalWaitNanos.get(), maxWaitNanos.get(), statementHits.sum(),
+                statementMisses.sum(), statementEvictions.sum());
+    }
+
+    int activeCount() {
+        return active.size();
+    }
+
+    public PoolConfig getConfig() {
+        return config;
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            pooled.closePhysical();
+        }
+    }
+
+    private class PooledConnection implements InvocationHandler {
+        private final Connection physical;
+        private final Connection proxy;
+        private final StatementCache statements;
+        private volatile long borrowedAtNanos;
+        private volatile long lastReturnedNanos = System.nanoTime();
+        private volatile Throwable borrowTrace;
+        private volatile boolean leakReported;
+        private volatile boolean logicallyClosed;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.proxy = (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, this);
+            int cacheSize = config.getStatementCacheSize();
+            this.statements = cacheSize > 0 ? new StatementCache(physical, proxy, cacheSize, statementHits,
+                    statementMisses, statementEvictions) : null;
+        }
+
+        void onBorrow(boolean captureTrace) {
+            borrowedAtNanos = System.nanoTime();
+            borrowTrace = captureTrace ? new Throwable("Connection borrowed here") : null;
+            leakReported = false;
+            logicallyClosed = false;
+        }
+
+        void closePhysical() {
+            if (statements != null) {
+                statements.clear();
+            }
+            try {
+                physical.close();
+            } catch (SQLException e) {
+                // already broken, nothing left to release
+            }
+        }
+
+        // Connection (and Wrapper, AutoCloseable) unwrap to the proxy, so closing what unwrap returns still
+        // returns the connection to the pool. A vendor interface the driver's connection implements, such as
+        // Connector/J's JdbcConnection, unwraps to the physical connection while this one is borrowed; the
+        // caller must not close it. Anything else is refused.
+        private Object unwrap(Class<?> type) throws SQLException {
+            if (type.isInstance(proxy)) {
+                return proxy;
+            }
+            if (!isVendorInterface(type)) {
+                throw new SQLException("Pooled connection does not wrap a " + type.getName());
+            }
+            if (logicallyClosed) {
+                throw new SQLException("Connection has been returned to the pool");
+            }
+            return physical.unwrap(type);
+        }
+
+        private boolean isWrapperFor(Class<?> type) throws SQLException {
+            return type.isInstance(proxy) || isVendorInterface(type) && physical.isWrapperFor(type);
+        }
+
+        private boolean isVendorInterface(Class<?> type) {
+            return type.isInterface() && !type.getName().startsWith("java.");
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!logicallyClosed) {
+                        logicallyClosed = true;
+                        release(this);
+                    }
+                    return null;
+                case "isClosed":
+                    return logicallyClosed || physical.isClosed();
+                case "unwrap":
+                    return unwrap((Class<?>) args[0]);
+                case "isWrapperFor":
+                    return isWrapperFor((Class<?>) args[0]);
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + physical + "]";
+                default:
+                    if (logicallyClosed) {
+                        throw new SQLException("Connection has been returned to the pool");
+                    }
+            }
+            Object result;
+            if (statements != null && method.getName().equals("prepareStatement")
+                    && StatementCache.isCacheable(args)) {
+                result = statements.prepare(args);
+            } else {
+                try {
+                    result = method.invoke(physical, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+            if (metrics != null && result instanceof Statement) {
+                String sql = args != null && args.length > 0 && args[0] instanceof String ? (String) args[0] : null;
+                return InstrumentedStatement.wrap(method.getReturnType(), (Statement) result, this.proxy, sql,
+                        metrics);
+            }
+            return result;
+        }
+    }
+}
@@ -1,29 +1,123 @@
 package com.IssueTracker.utils;
 
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
+import java.util.Collection;
 
+// getConnection() always goes to the primary and counts as a write for read-your-writes; repositories
+// use it for writes and for reads that must see them. getPrimaryReadConnection() also goes to the primary
+// but does not count as a write. getReadConnection() is for everything else and is routed to a replica
+// when -Dissuetracker.db.replicas is set, see ReplicaRouter.
 public class DBConnection {
 
-    private static final String URL = "jdbc:mysql://localhost:3306/issue_tracker?useSSL=false&serverTimezone=UTC";
-    private static final String USER = "root";
-    private static final String PASSWORD = "mysqlpassword";
-
-    private static Connection connection;
+    private static volatile ConnectionPool pool;
+    private static volatile ReplicaRouter router;
+    private static final ThreadLocal<String> SESSION = new ThreadLocal<>();
 
     private DBConnection() {
     }
 
     public static Connection getConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
+        ConnectionPool primary = getPool();
+        ReplicaRouter current = router;
+        if (current != null) {
+            current.recordWrite(SESSION.get());
+        }
+        return primary.borrow();
+    }
+
+    // For reads whose result is kept beyond the request, like cache fills: a lagging replica would hand out
+    // a row from before a write that other sessions have already seen
+    public static Connection getPrimaryReadConnection() throws SQLException {
+        return getPool().borrow();
+    }
+
+    public static Connection getReadConnection() throws SQLException {
+        ConnectionPool primary = getPool();
+        ReplicaRouter current = router;
+        return current == null ? primary.borrow() : current.borrowRead(primary, SESSION.get());
+    }
+
+    // Tracks read-your-writes for the given session (an API client, say) instead of the current thread,
+    // until unbindSession(). Work for one session may then move between threads.
+    public static void bindSession(String sessionId) {
+        SESSION.set(sessionId);
+    }
+
+    public static void unbindSession() {
+        SESSION.remove();
+    }
+
+    public static ConnectionPool getPool() throws SQLException {
+        ConnectionPool current = pool;
+        if (current == null) {
+            synchronized (DBConnection.class) {
+                current = pool;
+                if (current == null) {
+                    PoolConfig config = PoolConfig.fromSystemProperties();
+                    // Other drivers (a test double, say) register themselves with DriverManager
+                    if (config.getUrl().startsWith("jdbc:mysql:")) {
+                        try {
+                            Class.forName("com.mysql.cj.jdbc.Driver");
+                        } catch (ClassNotFoundException e) {
+                            throw new SQLException("MySQL JDBC Driver not found!", e);
+                        }
+                    }
+                    if (!config.getReplicaUrls().isEmpty()) {
+                        router = new ReplicaRouter(config);
+                    }
+                    current = new ConnectionPool(config);
+                    pool = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Starts the pool on a background thread: loads the driver, opens the minimum idle connections to the
+    // primary and any replicas, and prepares the statements on them. Start-up work that does not need the
+    // database then overlaps with the handshakes. Failures are left for the first query to report.
+    public static Thread warmUpAsync(Collection<String> statements) {
+        Thread thread = new Thread(() -> {
             try {
-                Class.forName("com.mysql.cj.jdbc.Driver");
-            } catch (ClassNotFoundException e) {
-                throw new SQLException("MySQL JDBC Driver not found!", e);
+                getPool().warmUp(statements);
+                ReplicaRouter current = router;
+                if (current != null) {
+                    current.warmUp(statements);
+                }
+            } catch (SQLException e) {
+                // The first query reports the same problem where the user sees it
             }
-            connection = DriverManager.getConnection(URL, USER, PASSWORD);
+        }, "db-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    public static PoolStats getPoolStats() throws SQLException {
+        return getPool().getStats();
+    }
+
+    // For monitoring: never starts the pool (or loads the driver) just to report on it
+    public static PoolStats getPoolStatsIfStarted() {
+        ConnectionPool current = pool;
+        return current == null ? null : current.getStats();
+    }
+
+    // Null unless replicas are configured and the pool has started
+    public static RoutingStats getRoutingStatsIfStarted() {
+        ReplicaRouter current = router;
+        return current == null ? null : current.getStats();
+    }
+
+    public static synchronized void shutdown() {
+        if (router != null) {
+            router.close();
+            router = null;
+        }
+        if (pool != null) {
+            pool.close();
+            pool = null;
         }
-        return connection;
     }
 }
@@ -0,0 +1,161 @@
+package com.IssueTracker.utils;
+
+import com.IssueTracker.metrics.QueryMetrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Arrays;
+
+// Statement proxy handed out by the pool's connections. Times every execute call into QueryMetrics,
+// remembers bound parameters for the slow-query log, and counts rows: the update count for writes, or
+// the rows actually read once the ResultSet is exhausted or closed.
+final class InstrumentedStatement implements InvocationHandler {
+
+    private static final Object[] NO_PARAMS = new Object[0];
+
+    private final Statement target;
+    private final Connection connection;
+    private final String name;
+    private final QueryMetrics metrics;
+    private Object[] params = NO_PARAMS;
+
+    private InstrumentedStatement(Statement target, Connection connection, String sql, QueryMetrics metrics) {
+        this.target = target;
+        this.connection = connection;
+        this.name = sql == null ? null : QueryMetrics.statementName(sql);
+        this.metrics = metrics;
+    }
+
+    // sql is null for plain Statements, whose SQL arrives with each execute call. getConnection() answers
+    // with the pooled connection so callers never get hold of the physical one.
+    static Statement wrap(Class<?> type, Statement target, Connection connection, String sql,
+            QueryMetrics metrics) {
+        return (Statement) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(), new Class<?>[] { type },
+                new InstrumentedStatement(target, connection, sql, metrics));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        String methodName = method.getName();
+        if (methodName.equals("setNull")) {
+            bind((Integer) args[0], null);
+        } else if (methodName.startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+            bind((Integer) args[0], args[1]);
+        } else if (methodName.equals("clearParameters")) {
+            params = NO_PARAMS;
+        } else if (methodName.startsWith("execute")) {
+            return execute(method, args);
+        } else if (methodName.equals("getConnection")) {
+            return connection;
+        } else if (methodName.equals("equals")) {
+            return proxy == args[0];
+        } else if (methodName.equals("hashCode")) {
+            return System.identityHashCode(proxy);
+        }
+        return call(method, args);
+    }
+
+    private Object execute(Method method, Object[] args) throws Throwable {
+        String statement = name != null ? name
+                : args != null && args.length > 0 && args[0] instanceof String
+                        ? QueryMetrics.statementName((String) args[0]) : "unknown";
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            metrics.recordStatement(statement, System.nanoTime() - start, 0, true, params);
+            throw e.getCause();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (result instanceof ResultSet) {
+            metrics.recordStatement(statement, elapsed, 0, false, params);
+            return RowCounter.wrap((ResultSet) result, statement, metrics);
+        }
+        metrics.recordStatement(statement, elapsed, affectedRows(result), false, params);
+        return result;
+    }
+
+    private Object call(Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void bind(int index, Object value) {
+        if (index < 1 || index > 1000) {
+            return;
+        }
+        if (index > params.length) {
+            params = Arrays.copyOf(params, Math.max(index, params.length * 2));
+        }
+        params[index - 1] = value;
+    }
+
+    private static long affectedRows(Object result) {
+        if (result instanceof Integer || result instanceof Long) {
+            return Math.max(0, ((Number) result).longValue());
+        }
+        long rows = 0;
+        if (result instanceof int[]) {
+            for (int count : (int[]) result) {
+                rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+            }
+        } else if (result instanceof long[]) {
+            for (long count : (long[]) result) {
+                rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(0, count);
+            }
+        }
+        return rows;
+    }
+
+    // Only next() and close() are counted; every column getter goes straight to the driver's ResultSet
+    private static final class RowCounter extends DelegatingResultSet {
+        private final String statement;
+        private final QueryMetrics metrics;
+        private long rows;
+        private boolean reported;
+
+        private RowCounter(ResultSet target, String statement, QueryMetrics metrics) {
+            super(target);
+            this.statement = statement;
+            this.metrics = metrics;
+        }
+
+        static ResultSet wrap(ResultSet target, String statement, QueryMetrics metrics) {
+            return new RowCounter(target, statement, metrics);
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            boolean hasRow = target.next();
+            if (hasRow) {
+                rows++;
+            } else {
+                report();
+            }
+            return hasRow;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            report();
+            target.close();
+        }
+
+        private void report() {
+            if (!reported) {
+                reported = true;
+                metrics.recordRows(statement, rows);
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.IssueTracker.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class PoolConfig {
+    private String url = "jdbc:mysql://localhost:3306/issue_tracker?useSSL=false&serverTimezone=UTC"
+            + "&rewriteBatchedStatements=true&useServerPrepStmts=true&cachePrepStmts=true&prepStmtCacheSize=250"
+            + "&prepStmtCacheSqlLimit=2048";
+    private String user = "root";
+    private String password = "mysqlpassword";
+    private int maxSize = 10;
+    private int minIdle = 2;
+    private long borrowTimeoutMillis = 5_000;
+    private long idleTimeoutMillis = 300_000;
+    private long leakThresholdMillis = 60_000;
+    private long validationBypassMillis = 500;
+    private int validationTimeoutSeconds = 2;
+    private long housekeepingIntervalMillis = 30_000;
+    private int statementCacheSize = 64;
+    private List<String> replicaUrls = new ArrayList<>();
+    private long readYourWritesMillis = 5_000;
+    private long replicaHealthCheckMillis = 5_000;
+
+    public static PoolConfig fromSystemProperties() {
+        PoolConfig config = new PoolConfig();
+        config.url = System.getProperty("issuetracker.db.url", config.url);
+        config.user = System.getProperty("issuetracker.db.user", config.user);
+        config.password = System.getProperty("issuetracker.db.password", config.password);
+        config.maxSize = Integer.getInteger("issuetracker.db.pool.maxSize", config.maxSize);
+        config.minIdle = Integer.getInteger("issuetracker.db.pool.minIdle", config.minIdle);
+        config.borrowTimeoutMillis = Long.getLong("issuetracker.db.pool.borrowTimeoutMillis",
+                config.borrowTimeoutMillis);
+        config.idleTimeoutMillis = Long.getLong("issuetracker.db.pool.idleTimeoutMillis", config.idleTimeoutMillis);
+        config.leakThresholdMillis = Long.getLong("issuetracker.db.pool.leakThresholdMillis",
+                config.leakThresholdMillis);
+        config.statementCacheSize = Integer.getInteger("issuetracker.db.pool.statementCacheSize",
+                config.statementCacheSize);
+        String replicas = System.getProperty("issuetracker.db.replicas", "").trim();
+        if (!replicas.isEmpty()) {
+            for (String replica : replicas.split("\\s*,\\s*")) {
+                config.replicaUrls.add(replica);
+            }
+        }
+        config.readYourWritesMillis = Long.getLong("issuetracker.db.readYourWritesMillis",
+                config.readYourWritesMillis);
+        config.replicaHealthCheckMillis = Long.getLong("issuetracker.db.replicaHealthCheckMillis",
+                config.replicaHealthCheckMillis);
+        return config;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public void setUrl(String url) {
+        this.url = url;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    public void setUser(String user) {
+        this.user = user;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public int getMinIdle() {
+        return minIdle;
+    }
+
+    public void setMinIdle(int minIdle) {
+        this.minIdle = minIdle;
+    }
+
+    public long getBorrowTimeoutMillis() {
+        return borrowTimeoutMillis;
+    }
+
+    public void setBorrowTimeoutMillis(long borrowTimeoutMillis) {
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+    }
+
+    public long getIdleTimeoutMillis() {
+        return idleTimeoutMillis;
+    }
+
+    public void setIdleTimeoutMillis(long idleTimeoutMillis) {
+        this.idleTimeoutMillis = idleTimeoutMillis;
+    }
+
+    // 0 disables leak detection
+    public long getLeakThresholdMillis() {
+        return leakThresholdMillis;
+    }
+
+    public void setLeakThresholdMillis(long leakThresholdMillis) {
+        this.leakThresholdMillis = leakThresholdMillis;
+    }
+
+    // Connections returned more recently than this are handed out without an isValid() round trip
+    public long getValidationBypassMillis() {
+        return validationBypassMillis;
+    }
+
+    public void setValidationBypassMillis(long validationBypassMillis) {
+        this.validationBypassMillis = validationBypassMillis;
+    }
+
+    public int getValidationTimeoutSeconds() {
+        return validationTimeoutSeconds;
+    }
+
+    public void setValidationTimeoutSeconds(int validationTimeoutSeconds) {
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+    }
+
+    public long getHousekeepingIntervalMillis() {
+        return housekeepingIntervalMillis;
+    }
+
+    public void setHousekeepingIntervalMillis(long housekeepingIntervalMillis) {
+        this.housekeepingIntervalMillis = housekeepingIntervalMillis;
+    }
+
+    // Open PreparedStatements kept per connection; 0 disables the pool's statement cache
+    public int getStatementCacheSize() {
+        return statementCacheSize;
+    }
+
+    public void setStatementCacheSize(int statementCacheSize) {
+        this.statementCacheSize = statementCacheSize;
+    }
+
+    // The same settings against another URL, for a replica's pool
+    public PoolConfig forUrl(String url) {
+        PoolConfig copy = new PoolConfig();
+        copy.url = url;
+        copy.user = user;
+        copy.password = password;
+        copy.maxSize = maxSize;
+        copy.minIdle = minIdle;
+        copy.borrowTimeoutMillis = borrowTimeoutMillis;
+        copy.idleTimeoutMillis = idleTimeoutMillis;
+        copy.leakThresholdMillis = leakThresholdMillis;
+        copy.validationBypassMillis = validationBypassMillis;
+        copy.validationTimeoutSeconds = validationTimeoutSeconds;
+        copy.housekeepingIntervalMillis = housekeepingIntervalMillis;
+        copy.statementCacheSize = statementCacheSize;
+        return copy;
+    }
+
+    // Read-only copies of the primary; reads are spread over them when any are set. Replicas use the
+    // primary's user, password and pool settings.
+    public List<String> getReplicaUrls() {
+        return replicaUrls;
+    }
+
+    public void setReplicaUrls(List<String> replicaUrls) {
+        this.replicaUrls = new ArrayList<>(replicaUrls);
+    }
+
+    // After a session writes, its reads go to the primary for this long so it sees its own changes
+    // despite replication lag
+    public long getReadYourWritesMillis() {
+        return readYourWritesMillis;
+    }
+
+    public void setReadYourWritesMillis(long readYourWritesMillis) {
+        this.readYourWritesMillis = readYourWritesMillis;
+    }
+
+    public long getReplicaHealthCheckMillis() {
+        return replicaHealthCheckMillis;
+    }
+
+    public void setReplicaHealthCheckMillis(long replicaHealthCheckMillis) {
+        this.replicaHealthCheckMillis = replicaHealthCheckMillis;
+    }
+}
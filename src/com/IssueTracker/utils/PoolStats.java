@@ -0,0 +1,105 @@
+package com.IssueTracker.utils;
+
+public class PoolStats {
+    private final int active;
+    private final int idle;
+    private final int maxSize;
+    private final long borrowCount;
+    private final long createdCount;
+    private final long timeoutCount;
+    private final long leakCount;
+    private final long totalWaitNanos;
+    private final long maxWaitNanos;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+
+    public PoolStats(int active, int idle, int maxSize, long borrowCount, long createdCount, long timeoutCount,
+            long leakCount, long totalWaitNanos, long maxWaitNanos, long statementCacheHits,
+            long statementCacheMisses, long statementCacheEvictions) {
+        this.active = active;
+        this.idle = idle;
+        this.maxSize = maxSize;
+        this.borrowCount = borrowCount;
+        this.createdCount = createdCount;
+        this.timeoutCount = timeoutCount;
+        this.leakCount = leakCount;
+        this.totalWaitNanos = totalWaitNanos;
+        this.maxWaitNanos = maxWaitNanos;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public int getTotal() {
+        return active + idle;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getCreatedCount() {
+        return createdCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public long getLeakCount() {
+        return leakCount;
+    }
+
+    public long getTotalWaitNanos() {
+        return totalWaitNanos;
+    }
+
+    public double getAverageWaitMillis() {
+        return borrowCount == 0 ? 0 : totalWaitNanos / 1_000_000.0 / borrowCount;
+    }
+
+    public double getMaxWaitMillis() {
+        return maxWaitNanos / 1_000_000.0;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions;
+    }
+
+    public double getStatementCacheHitRatio() {
+        long lookups = statementCacheHits + statementCacheMisses;
+        return lookups == 0 ? 0 : (double) statementCacheHits / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStats [active=" + active + ", idle=" + idle + ", maxSize=" + maxSize +
+                ", borrowCount=" + borrowCount + ", createdCount=" + createdCount +
+                ", timeoutCount=" + timeoutCount + ", leakCount=" + leakCount +
+                ", avgWaitMillis=" + String.format("%.3f", getAverageWaitMillis()) +
+                ", maxWaitMillis=" + String.format("%.3f", getMaxWaitMillis()) +
+                ", statementCacheHits=" + statementCacheHits + ", statementCacheMisses=" + statementCacheMisses +
+                ", statementCacheEvictions=" + statementCacheEvictions + "]";
+    }
+}
@@ -0,0 +1,58 @@
+package com.IssueTracker.utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Runs EXPLAIN on registered queries and fails if any of them is planned as a full table scan.
+// Meant to run against a database with representative row counts: on a handful of rows the
+// optimizer may legitimately prefer a scan.
+public class QueryPlanVerifier {
+
+    private final Map<String, RegisteredQuery> queries = new LinkedHashMap<>();
+
+    public void register(String name, String sql, Object... sampleParams) {
+        queries.put(name, new RegisteredQuery(sql, sampleParams));
+    }
+
+    public void verify() throws SQLException {
+        List<String> failures = new ArrayList<>();
+        try (Connection conn = DBConnection.getConnection()) {
+            for (Map.Entry<String, RegisteredQuery> entry : queries.entrySet()) {
+                RegisteredQuery query = entry.getValue();
+                try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN " + query.sql)) {
+                    for (int i = 0; i < query.params.length; i++) {
+                        stmt.setObject(i + 1, query.params[i]);
+                    }
+                    try (ResultSet rs = stmt.executeQuery()) {
+                        while (rs.next()) {
+                            String type = rs.getString("type");
+                            String key = rs.getString("key");
+                            if ("ALL".equalsIgnoreCase(type) || key == null) {
+                                failures.add(entry.getKey() + " [type=" + type + ", key=" + key + "]: " + query.sql);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Queries not using an index:\n  " + String.join("\n  ", failures));
+        }
+    }
+
+    private static final class RegisteredQuery {
+        private final String sql;
+        private final Object[] params;
+
+        RegisteredQuery(String sql, Object[] params) {
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+}
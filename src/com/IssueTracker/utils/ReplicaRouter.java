@@ -0,0 +1,183 @@
+package com.IssueTracker.utils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Chooses where a read runs. A read goes to the healthy replica with the fewest borrowed connections,
+// and to the primary when the session wrote within the read-your-writes window or no replica can serve
+// it. A replica that fails to hand out a connection leaves the rotation at once. The health check puts it
+// back when a connection from it validates again. A replica whose pool is simply exhausted stays in
+// rotation, and the read tries the next one.
+final class ReplicaRouter implements AutoCloseable {
+
+    private static final class Replica {
+        final String url;
+        final ConnectionPool pool;
+        volatile boolean healthy = true;
+
+        Replica(String url, ConnectionPool pool) {
+            this.url = url;
+            this.pool = pool;
+        }
+    }
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long readYourWritesNanos;
+    private final int validationTimeoutSeconds;
+    private final ScheduledExecutorService healthChecker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    // A null session (none bound with DBConnection.bindSession) means the current thread
+    private final ThreadLocal<long[]> threadLastWrite = ThreadLocal.withInitial(() -> new long[] { Long.MIN_VALUE });
+    private final Map<String, Long> sessionLastWrite = new ConcurrentHashMap<>();
+
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder stickyReads = new LongAdder();
+    private final LongAdder failovers = new LongAdder();
+
+    ReplicaRouter(PoolConfig config) {
+        for (String url : config.getReplicaUrls()) {
+            replicas.add(new Replica(url, new ConnectionPool(config.forUrl(url))));
+        }
+        this.readYourWritesNanos = TimeUnit.MILLISECONDS.toNanos(config.getReadYourWritesMillis());
+        this.validationTimeoutSeconds = config.getValidationTimeoutSeconds();
+        this.healthChecker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "replica-health-check");
+            t.setDaemon(true);
+            return t;
+        });
+        long interval = config.getReplicaHealthCheckMillis();
+        healthChecker.scheduleWithFixedDelay(this::checkHealth, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    Connection borrowRead(ConnectionPool primary, String session) throws SQLException {
+        if (wroteRecently(session)) {
+            stickyReads.increment();
+            return primary.borrow();
+        }
+        int count = replicas.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), count);
+        boolean[] tried = new boolean[count];
+        for (int attempt = 0; attempt < count; attempt++) {
+            int chosen = -1;
+            for (int i = 0; i < count; i++) {
+                int index = (start + i) % count;
+                Replica replica = replicas.get(index);
+                if (!tried[index] && replica.healthy
+                        && (chosen < 0 || replica.pool.activeCount() < replicas.get(chosen).pool.activeCount())) {
+                    chosen = index;
+                }
+            }
+            if (chosen < 0) {
+                break;
+            }
+            tried[chosen] = true;
+            Replica replica = replicas.get(chosen);
+            try {
+                Connection conn = replica.pool.borrow();
+                replicaReads.increment();
+                return conn;
+            } catch (SQLTimeoutException e) {
+                failovers.increment();
+            } catch (SQLException e) {
+                markDown(replica, e);
+                failovers.increment();
+            }
+        }
+        primaryReads.increment();
+        return primary.borrow();
+    }
+
+    // Warms every healthy replica's pool, see ConnectionPool.warmUp; a replica that fails is marked down
+    void warmUp(Collection<String> statements) {
+        for (Replica replica : replicas) {
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                replica.pool.warmUp(statements);
+            } catch (SQLException e) {
+                markDown(replica, e);
+            }
+        }
+    }
+
+    void recordWrite(String session) {
+        long now = System.nanoTime();
+        if (session == null) {
+            threadLastWrite.get()[0] = now;
+        } else {
+            sessionLastWrite.put(session, now);
+        }
+    }
+
+    private boolean wroteRecently(String session) {
+        long lastWrite;
+        if (session == null) {
+            lastWrite = threadLastWrite.get()[0];
+        } else {
+            Long value = sessionLastWrite.get(session);
+            lastWrite = value == null ? Long.MIN_VALUE : value;
+        }
+        return lastWrite != Long.MIN_VALUE && System.nanoTime() - lastWrite < readYourWritesNanos;
+    }
+
+    private void markDown(Replica replica, SQLException cause) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            System.err.println("Replica " + replica.url + " taken out of rotation: " + cause.getMessage());
+        }
+    }
+
+    private void checkHealth() {
+        for (Replica replica : replicas) {
+            boolean valid;
+            try (Connection conn = replica.pool.borrow()) {
+                valid = conn.isValid(validationTimeoutSeconds);
+            } catch (SQLTimeoutException e) {
+                // Every connection is busy, which says nothing about its health
+                continue;
+            } catch (SQLException e) {
+                valid = false;
+            }
+            if (valid && !replica.healthy) {
+                System.err.println("Replica " + replica.url + " is back in rotation");
+            } else if (!valid && replica.healthy) {
+                System.err.println("Replica " + replica.url + " failed its health check");
+            }
+            replica.healthy = valid;
+        }
+        long now = System.nanoTime();
+        sessionLastWrite.values().removeIf(lastWrite -> now - lastWrite >= readYourWritesNanos);
+    }
+
+    RoutingStats getStats() {
+        int healthy = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                healthy++;
+            }
+        }
+        return new RoutingStats(replicas.size(), healthy, replicaReads.sum(), primaryReads.sum(), stickyReads.sum(),
+                failovers.sum());
+    }
+
+    @Override
+    public void close() {
+        healthChecker.shutdownNow();
+        for (Replica replica : replicas) {
+            replica.pool.close();
+        }
+    }
+}
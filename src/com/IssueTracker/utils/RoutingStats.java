@@ -0,0 +1,53 @@
+package com.IssueTracker.utils;
+
+public class RoutingStats {
+    private final int replicas;
+    private final int healthyReplicas;
+    private final long replicaReads;
+    private final long primaryReads;
+    private final long stickyReads;
+    private final long failovers;
+
+    public RoutingStats(int replicas, int healthyReplicas, long replicaReads, long primaryReads, long stickyReads,
+            long failovers) {
+        this.replicas = replicas;
+        this.healthyReplicas = healthyReplicas;
+        this.replicaReads = replicaReads;
+        this.primaryReads = primaryReads;
+        this.stickyReads = stickyReads;
+        this.failovers = failovers;
+    }
+
+    public int getReplicas() {
+        return replicas;
+    }
+
+    public int getHealthyReplicas() {
+        return healthyReplicas;
+    }
+
+    public long getReplicaReads() {
+        return replicaReads;
+    }
+
+    // Reads sent to the primary because no replica could take them
+    public long getPrimaryReads() {
+        return primaryReads;
+    }
+
+    // Reads sent to the primary because their session had just written
+    public long getStickyReads() {
+        return stickyReads;
+    }
+
+    // Replica borrows that failed and moved on to another replica or the primary
+    public long getFailovers() {
+        return failovers;
+    }
+
+    @Override
+    public String toString() {
+        return "RoutingStats [replicas=" + replicas + ", healthy=" + healthyReplicas + ", replicaReads=" + replicaReads
+                + ", primaryReads=" + primaryReads + ", stickyReads=" + stickyReads + ", failovers=" + failovers + "]";
+    }
+}
@@ -0,0 +1,161 @@
+package com.IssueTracker.utils;
+
+import com.IssueTracker.models.IssueChange;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+public class SchemaMigrator {
+
+    public static class Migration {
+        private final int version;
+        private final String description;
+        private final List<String> statements;
+
+        public Migration(int version, String description, String... statements) {
+            this.version = version;
+            this.description = description;
+            this.statements = List.of(statements);
+        }
+
+        public int getVersion() {
+            return version;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+
+        public List<String> getStatements() {
+            return statements;
+        }
+    }
+
+    private final List<Migration> migrations = new ArrayList<>();
+
+    public SchemaMigrator() {
+        register(new Migration(1, "baseline schema",
+                "CREATE TABLE IF NOT EXISTS users ("
+                        + "id INT AUTO_INCREMENT PRIMARY KEY, "
+                        + "name VARCHAR(255) NOT NULL, "
+                        + "email VARCHAR(255) NOT NULL)",
+                "CREATE TABLE IF NOT EXISTS issues ("
+                        + "id INT AUTO_INCREMENT PRIMARY KEY, "
+                        + "title VARCHAR(255) NOT NULL, "
+                        + "description TEXT, "
+                        + "status VARCHAR(50) NOT NULL, "
+                        + "priority VARCHAR(50) NOT NULL, "
+                        + "assignee_id INT, "
+                        + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                        + "updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP, "
+                        + "FOREIGN KEY (assignee_id) REFERENCES users(id))",
+                "CREATE TABLE IF NOT EXISTS comments ("
+                        + "id INT AUTO_INCREMENT PRIMARY KEY, "
+                        + "issue_id INT, "
+                        + "author VARCHAR(255) NOT NULL, "
+                        + "content TEXT NOT NULL, "
+                        + "created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP, "
+                        + "FOREIGN KEY (issue_id) REFERENCES issues(id))"));
+        // Each index leads with the filter column and ends with id, matching the
+        // "WHERE <column> = ? AND id > ? ORDER BY id" keyset queries so they never sort.
+        register(new Migration(2, "indexes for filter and comment queries",
+                "CREATE INDEX idx_issues_status_id ON issues (status, id)",
+                "CREATE INDEX idx_issues_priority_id ON issues (priority, id)",
+                "CREATE INDEX idx_issues_assignee_id ON issues (assignee_id, id)",
+                "CREATE INDEX idx_comments_issue_id ON comments (issue_id, id)"));
+        // Covers the dashboard's GROUP BY status, priority, assignee_id so it is answered from the index alone
+        register(new Migration(3, "covering index for grouped issue counts",
+                "CREATE INDEX idx_issues_status_priority_assignee ON issues (status, priority, assignee_id)"));
+        // Append-only change log. No foreign key to issues, so the history of a deleted issue is kept. Every
+        // existing issue gets a snapshot as of its updated_at, the oldest point its history can be read from.
+        register(new Migration(4, "issue change log",
+                "CREATE TABLE IF NOT EXISTS issue_events ("
+                        + "id BIGINT AUTO_INCREMENT PRIMARY KEY, "
+                        + "issue_id INT NOT NULL, "
+                        + "kind TINYINT NOT NULL, "
+                        + "changed_at TIMESTAMP(3) NOT NULL, "
+                        + "title VARCHAR(255), "
+                        + "description TEXT, "
+                        + "status VARCHAR(50), "
+                        + "priority VARCHAR(50), "
+                        + "assignee_id INT, "
+                        + "INDEX idx_issue_events_issue_id (issue_id, id))",
+                "INSERT INTO issue_events "
+                        + "(issue_id, kind, changed_at, title, description, status, priority, assignee_id)"
+                        + " SELECT id, " + IssueChange.Kind.SNAPSHOT.code()
+                        + ", updated_at, title, description, status, priority, assignee_id FROM issues ORDER BY id"));
+        // Row version for optimistic concurrency; updated_at has only second precision
+        register(new Migration(5, "issue row version",
+                "ALTER TABLE issues ADD COLUMN version INT NOT NULL DEFAULT 0"));
+    }
+
+    public final void register(Migration migration) {
+        for (Migration existing : migrations) {
+            if (existing.getVersion() == migration.getVersion()) {
+                throw new IllegalArgumentException("Duplicate migration version " + migration.getVersion());
+            }
+        }
+        migrations.add(migration);
+        migrations.sort(Comparator.comparingInt(Migration::getVersion));
+    }
+
+    public int currentVersion() throws SQLException {
+        try (Connection conn = DBConnection.getConnection()) {
+            ensureVersionTable(conn);
+            return currentVersion(conn);
+        }
+    }
+
+    // Applies every registered migration newer than the recorded schema version, in order.
+    // Returns the number of migrations applied.
+    public int migrate() throws SQLException {
+        int applied = 0;
+        try (Connection conn = DBConnection.getConnection()) {
+            ensureVersionTable(conn);
+            int current = currentVersion(conn);
+            for (Migration migration : migrations) {
+                if (migration.getVersion() <= current) {
+                    continue;
+                }
+                try (Statement stmt = conn.createStatement()) {
+                    for (String sql : migration.getStatements()) {
+                        stmt.execute(sql);
+                    }
+                } catch (SQLException e) {
+                    throw new SQLException("Migration V" + migration.getVersion() + " (" + migration.getDescription()
+                            + ") failed", e);
+                }
+                try (PreparedStatement stmt = conn.prepareStatement(
+                        "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+                    stmt.setInt(1, migration.getVersion());
+                    stmt.setString(2, migration.getDescription());
+                    stmt.executeUpdate();
+                }
+                applied++;
+            }
+        }
+        return applied;
+    }
+
+    private void ensureVersionTable(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement()) {
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version ("
+                    + "version INT PRIMARY KEY, "
+                    + "description VARCHAR(255) NOT NULL, "
+                    + "applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP)");
+        }
+    }
+
+    private int currentVersion(Connection conn) throws SQLException {
+        try (Statement stmt = conn.createStatement();
+                ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(version), 0) FROM schema_version")) {
+            return rs.next() ? rs.getInt(1) : 0;
+        }
+    }
+}
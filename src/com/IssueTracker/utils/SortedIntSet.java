@@ -0,0 +1,89 @@
+package com.IssueTracker.utils;
+
+import java.util.Arrays;
+
+// Sorted set of ints in a single growable array. Ascending inserts (new ids) append in O(1);
+// lookups and range starts are binary searches. Not thread-safe.
+public class SortedIntSet {
+
+    private int[] elements;
+    private int size;
+
+    public SortedIntSet() {
+        this(8);
+    }
+
+    public SortedIntSet(int initialCapacity) {
+        elements = new int[Math.max(1, initialCapacity)];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + ", size " + size);
+        }
+        return elements[index];
+    }
+
+    public boolean contains(int value) {
+        return Arrays.binarySearch(elements, 0, size, value) >= 0;
+    }
+
+    public boolean add(int value) {
+        if (size == 0 || value > elements[size - 1]) {
+            ensureCapacity(size + 1);
+            elements[size++] = value;
+            return true;
+        }
+        int index = Arrays.binarySearch(elements, 0, size, value);
+        if (index >= 0) {
+            return false;
+        }
+        int insertAt = -index - 1;
+        ensureCapacity(size + 1);
+        System.arraycopy(elements, insertAt, elements, insertAt + 1, size - insertAt);
+        elements[insertAt] = value;
+        size++;
+        return true;
+    }
+
+    public boolean remove(int value) {
+        int index = Arrays.binarySearch(elements, 0, size, value);
+        if (index < 0) {
+            return false;
+        }
+        System.arraycopy(elements, index + 1, elements, index, size - index - 1);
+        size--;
+        return true;
+    }
+
+    // Index of the first element strictly greater than value
+    public int indexAfter(int value) {
+        int index = Arrays.binarySearch(elements, 0, size, value);
+        return index >= 0 ? index + 1 : -index - 1;
+    }
+
+    // Up to limit elements strictly greater than afterValue, in ascending order
+    public int[] range(int afterValue, int limit) {
+        int from = indexAfter(afterValue);
+        int to = (int) Math.min((long) from + Math.max(0, limit), size);
+        return Arrays.copyOfRange(elements, from, to);
+    }
+
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity > elements.length) {
+            elements = Arrays.copyOf(elements, Math.max(capacity, elements.length * 2));
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.IssueTracker.utils;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Per-connection LRU cache of open PreparedStatements, keyed by SQL. Each statement is lent out behind a
+// proxy whose close() resets it and returns it to the cache instead of closing it. Repository code can
+// keep its try-with-resources and still never re-prepare the same SQL on the same connection. Only the
+// thread holding the connection touches its cache, so there is no locking.
+final class StatementCache {
+
+    private final Connection physical;
+    private final Connection owner;
+    private final int maxSize;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+    private final LinkedHashMap<String, Entry> entries;
+    private int lent;
+
+    StatementCache(Connection physical, Connection owner, int maxSize, LongAdder hits, LongAdder misses,
+            LongAdder evictions) {
+        this.physical = physical;
+        this.owner = owner;
+        this.maxSize = maxSize;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                if (size() <= StatementCache.this.maxSize) {
+                    return false;
+                }
+                StatementCache.this.evictions.increment();
+                Entry entry = eldest.getValue();
+                entry.evicted = true;
+                if (entry.lease == null) {
+                    closeQuietly(entry.statement);
+                }
+                return true;
+            }
+        };
+    }
+
+    // Only prepareStatement(sql) and prepareStatement(sql, autoGeneratedKeys) are cached
+    static boolean isCacheable(Object[] args) {
+        return args != null && args[0] instanceof String
+                && (args.length == 1 || args.length == 2 && args[1] instanceof Integer);
+    }
+
+    PreparedStatement prepare(Object[] args) throws SQLException {
+        String sql = (String) args[0];
+        int keys = args.length == 2 ? (Integer) args[1] : Statement.NO_GENERATED_KEYS;
+        String key = keys == Statement.RETURN_GENERATED_KEYS ? "keys:" + sql : sql;
+        Entry entry = entries.get(key);
+        if (entry != null && entry.lease == null) {
+            hits.increment();
+            return lend(entry);
+        }
+        misses.increment();
+        PreparedStatement statement = keys == Statement.RETURN_GENERATED_KEYS
+                ? physical.prepareStatement(sql, keys) : physical.prepareStatement(sql);
+        if (entry != null) {
+            // The same SQL is already open on this connection (nested use), so this one is not cached
+            return statement;
+        }
+        entry = new Entry(key, statement);
+        entries.put(key, entry);
+        return lend(entry);
+    }
+
+    // Called when the connection goes back to the pool: statements the borrower never closed are taken
+    // back, and any handle it kept stops working.
+    void reclaim() {
+        if (lent == 0) {
+            return;
+        }
+        List<Entry> outstanding = new ArrayList<>();
+        for (Entry entry : entries.values()) {
+            if (entry.lease != null) {
+                outstanding.add(entry);
+            }
+        }
+        for (Entry entry : outstanding) {
+            entry.lease.closed = true;
+            giveBack(entry);
+        }
+    }
+
+    // The physical connection is closing and takes its statements with it
+    void clear() {
+        entries.clear();
+        lent = 0;
+    }
+
+    private PreparedStatement lend(Entry entry) {
+        Lease lease = new Lease(entry);
+        entry.lease = lease;
+        lent++;
+        return (PreparedStatement) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, lease);
+    }
+
+    private void giveBack(Entry entry) {
+        entry.lease = null;
+        lent--;
+        if (!entry.evicted && entry.reusable) {
+            try {
+                reset(entry);
+                return;
+            } catch (SQLException e) {
+                // fall through and drop it
+            }
+        }
+        if (!entry.evicted) {
+            entries.remove(entry.key);
+        }
+        closeQuietly(entry.statement);
+    }
+
+    private static void reset(Entry entry) throws SQLException {
+        PreparedStatement statement = entry.statement;
+        ResultSet open = statement.getResultSet();
+        if (open != null) {
+            open.close();
+        }
+        statement.clearParameters();
+        if (entry.batched) {
+            statement.clearBatch();
+            entry.batched = false;
+        }
+        if (entry.tuned) {
+            statement.setFetchSize(0);
+            statement.setMaxRows(0);
+            statement.setQueryTimeout(0);
+            statement.setFetchDirection(ResultSet.FETCH_FORWARD);
+            entry.tuned = false;
+        }
+    }
+
+    private static void closeQuietly(Statement statement) {
+        try {
+            statement.close();
+        } catch (SQLException e) {
+            // the connection is probably gone; nothing to release
+        }
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final PreparedStatement statement;
+        private Lease lease;
+        private boolean evicted;
+        private boolean reusable = true;
+        private boolean batched;
+        private boolean tuned;
+
+        Entry(String key, PreparedStatement statement) {
+            this.key = key;
+            this.statement = statement;
+        }
+    }
+
+    private final class Lease implements InvocationHandler {
+        private final Entry entry;
+        private boolean closed;
+
+        Lease(Entry entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        giveBack(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || entry.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "addBatch":
+                    entry.batched = true;
+                    break;
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setLargeMaxRows":
+                case "setQueryTimeout":
+                case "setFetchDirection":
+                    entry.tuned = true;
+                    break;
+                case "setCursorName":
+                case "setEscapeProcessing":
+                case "setPoolable":
+                case "closeOnCompletion":
+                    // Settings reset() does not undo; close the statement for real when it comes back
+                    entry.reusable = false;
+                    break;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement has been closed");
+            }
+            try {
+                return method.invoke(entry.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}